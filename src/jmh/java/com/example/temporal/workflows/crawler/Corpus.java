@@ -0,0 +1,60 @@
+package com.example.temporal.workflows.crawler;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Access to the HTML pages checked in under src/jmh/resources/corpus.
+ *
+ * <p>The pages are documentation-style pages of about 7 KB, 75 KB and 600 KB with a mix of
+ * relative, absolute, protocol-relative, fragment, mailto and javascript links in every quoting
+ * style, plus the script, style, comment and pre blocks a real page carries.
+ */
+final class Corpus {
+
+  /** The URL the corpus pages are treated as having been fetched from. */
+  static final String BASE_URL = "https://docs.example.com/docs/guide/index.html";
+
+  private Corpus() {
+    // Static helpers only
+  }
+
+  /**
+   * Reads a corpus page.
+   *
+   * @param name The file name of the page, e.g. "medium.html"
+   * @return The raw bytes of the page
+   */
+  static byte[] load(String name) {
+    try (InputStream in = Corpus.class.getResourceAsStream("/corpus/" + name)) {
+      if (in == null) {
+        throw new IllegalArgumentException("No corpus page named " + name);
+      }
+      return in.readAllBytes();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /**
+   * Extracts the href values of a page the way the crawler does, one scan-buffer-sized chunk at a
+   * time.
+   *
+   * @param html The raw bytes of the page
+   * @return The raw href values, in document order
+   */
+  static List<String> extractHrefs(byte[] html) {
+    List<String> hrefs = new ArrayList<>();
+    HrefExtractor extractor = new HrefExtractor(hrefs::add);
+    for (int offset = 0; offset < html.length; offset += HrefExtractor.DEFAULT_BUFFER_SIZE) {
+      int length = Math.min(HrefExtractor.DEFAULT_BUFFER_SIZE, html.length - offset);
+      extractor.feed(ByteBuffer.wrap(html, offset, length));
+    }
+    extractor.finish();
+    return hrefs;
+  }
+}
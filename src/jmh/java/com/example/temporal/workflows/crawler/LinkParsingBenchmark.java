@@ -0,0 +1,55 @@
+package com.example.temporal.workflows.crawler;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Benchmarks for extracting and resolving the links of a fetched page. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LinkParsingBenchmark {
+
+  @Param({"small.html", "medium.html", "large.html"})
+  public String page;
+
+  private byte[] html;
+  private List<String> hrefs;
+
+  @Setup
+  public void setUp() {
+    html = Corpus.load(page);
+    hrefs = Corpus.extractHrefs(html);
+  }
+
+  /** Scans the page bytes for href values. */
+  @Benchmark
+  public List<String> extractHrefs() {
+    return Corpus.extractHrefs(html);
+  }
+
+  /** Resolves, filters and deduplicates the href values of the page. */
+  @Benchmark
+  public List<String> parseLinks() {
+    return CrawlerActivitiesImpl.parseLinks(hrefs, Corpus.BASE_URL);
+  }
+
+  /** The full per-page parse cost: scanning followed by link resolution. */
+  @Benchmark
+  public List<String> extractAndParseLinks() {
+    return CrawlerActivitiesImpl.parseLinks(Corpus.extractHrefs(html), Corpus.BASE_URL);
+  }
+}
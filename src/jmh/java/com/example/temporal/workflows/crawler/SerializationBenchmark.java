@@ -0,0 +1,87 @@
+package com.example.temporal.workflows.crawler;
+
+import io.temporal.api.common.v1.Payload;
+import io.temporal.common.converter.DataConverter;
+import io.temporal.common.converter.DefaultDataConverter;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks for the Temporal payload conversion of crawler activity and workflow results, using
+ * the SDK's default (Jackson JSON) data converter.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializationBenchmark {
+
+  @Param({"small.html", "medium.html", "large.html"})
+  public String page;
+
+  private final DataConverter converter = DefaultDataConverter.STANDARD_INSTANCE;
+  private ParseLinksOutput parseLinksOutput;
+  private CrawlerWorkflowOutput workflowOutput;
+  private Payload parseLinksPayload;
+  private Payload workflowPayload;
+
+  @Setup
+  public void setUp() {
+    List<String> links =
+        CrawlerActivitiesImpl.parseLinks(Corpus.extractHrefs(Corpus.load(page)), Corpus.BASE_URL);
+    parseLinksOutput = new ParseLinksOutput(links);
+
+    Set<String> domains = new LinkedHashSet<>();
+    for (String link : links) {
+      String domain = CrawlerWorkflowImpl.extractDomain(link);
+      if (domain != null) {
+        domains.add(domain);
+      }
+    }
+    workflowOutput =
+        new CrawlerWorkflowOutput(links.size(), new LinkedHashSet<>(links), domains, links.size());
+
+    parseLinksPayload = converter.toPayload(parseLinksOutput).orElseThrow();
+    workflowPayload = converter.toPayload(workflowOutput).orElseThrow();
+  }
+
+  /** Serializes an activity result, as the worker does before reporting it to the server. */
+  @Benchmark
+  public Payload serializeParseLinksOutput() {
+    return converter.toPayload(parseLinksOutput).orElseThrow();
+  }
+
+  /** Deserializes an activity result, as the workflow does on completion and on every replay. */
+  @Benchmark
+  public ParseLinksOutput deserializeParseLinksOutput() {
+    return converter.fromPayload(parseLinksPayload, ParseLinksOutput.class, ParseLinksOutput.class);
+  }
+
+  /** Serializes the workflow result. */
+  @Benchmark
+  public Payload serializeCrawlerWorkflowOutput() {
+    return converter.toPayload(workflowOutput).orElseThrow();
+  }
+
+  /** Deserializes the workflow result, as a client does when fetching it. */
+  @Benchmark
+  public CrawlerWorkflowOutput deserializeCrawlerWorkflowOutput() {
+    return converter.fromPayload(
+        workflowPayload, CrawlerWorkflowOutput.class, CrawlerWorkflowOutput.class);
+  }
+}
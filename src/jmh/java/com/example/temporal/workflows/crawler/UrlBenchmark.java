@@ -0,0 +1,68 @@
+package com.example.temporal.workflows.crawler;
+
+import com.example.temporal.common.CanonicalizationOptions;
+import com.example.temporal.common.UrlCanonicalizer;
+import java.net.URI;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks for the per-link URL handling of the crawler, over every link of the medium corpus
+ * page.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UrlBenchmark {
+
+  private URI baseUri;
+  private List<String> hrefs;
+  private List<String> links;
+  private UrlCanonicalizer canonicalizer;
+
+  @Setup
+  public void setUp() {
+    baseUri = URI.create(Corpus.BASE_URL);
+    hrefs = Corpus.extractHrefs(Corpus.load("medium.html"));
+    links = CrawlerActivitiesImpl.parseLinks(hrefs, Corpus.BASE_URL);
+    canonicalizer = new UrlCanonicalizer(CanonicalizationOptions.defaults());
+  }
+
+  /** Resolves each raw href against the page URL. */
+  @Benchmark
+  public void resolveUrl(Blackhole blackhole) {
+    for (String href : hrefs) {
+      blackhole.consume(CrawlerActivitiesImpl.resolveUrl(href, baseUri));
+    }
+  }
+
+  /** Extracts the host of each discovered link, as the workflow does for domain tracking. */
+  @Benchmark
+  public void extractDomain(Blackhole blackhole) {
+    for (String link : links) {
+      blackhole.consume(CrawlerWorkflowImpl.extractDomain(link));
+    }
+  }
+
+  /** Canonicalizes each discovered link, as the activities and the workflow do before dedup. */
+  @Benchmark
+  public void canonicalize(Blackhole blackhole) {
+    for (String link : links) {
+      blackhole.consume(canonicalizer.canonicalize(link));
+    }
+  }
+}
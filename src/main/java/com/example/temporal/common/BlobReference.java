@@ -0,0 +1,11 @@
+package com.example.temporal.common;
+
+/**
+ * A claim check for content kept in a {@link BlobStore} instead of in a workflow payload.
+ *
+ * @param key The store-specific key the content is kept under
+ * @param sizeBytes The size of the content in bytes
+ * @param sha256 The hex-encoded SHA-256 digest of the content
+ * @param contentType The media type of the content, or null if unknown
+ */
+public record BlobReference(String key, long sizeBytes, String sha256, String contentType) {}
@@ -0,0 +1,47 @@
+package com.example.temporal.common;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Storage for large content that is passed between activities and workflows by reference.
+ *
+ * <p>Implementations are content-addressed: storing the same bytes twice yields the same reference
+ * and keeps one copy.
+ */
+public interface BlobStore {
+
+  /**
+   * Stores content, reading the stream to its end without buffering it as a whole.
+   *
+   * @param content The content to store
+   * @param contentType The media type of the content, or null if unknown
+   * @return The reference to the stored content
+   * @throws IOException If the content cannot be read or stored
+   */
+  BlobReference put(InputStream content, String contentType) throws IOException;
+
+  /**
+   * Opens stored content for reading.
+   *
+   * @param reference The reference returned by {@link #put(InputStream, String)}
+   * @return A stream of the content, which the caller must close
+   * @throws IOException If the content does not exist or cannot be read
+   */
+  InputStream open(BlobReference reference) throws IOException;
+
+  /**
+   * Streams stored content to an output stream.
+   *
+   * @param reference The reference returned by {@link #put(InputStream, String)}
+   * @param out The stream to copy the content to, which is left open
+   * @return The number of bytes copied
+   * @throws IOException If the content cannot be read or written
+   */
+  default long copyTo(BlobReference reference, OutputStream out) throws IOException {
+    try (InputStream in = open(reference)) {
+      return in.transferTo(out);
+    }
+  }
+}
@@ -0,0 +1,51 @@
+package com.example.temporal.common;
+
+import java.util.List;
+
+/**
+ * Query-string rules applied when URLs are canonicalized. Scheme and host case, default ports,
+ * fragments and dot segments are always normalized; these options only control the query.
+ *
+ * @param stripParameters Names of query parameters to remove, matched case-insensitively; a
+ *     trailing {@code *} matches any name with that prefix (default: common tracking and session
+ *     parameters)
+ * @param sortParameters Whether to sort the remaining query parameters (default: false)
+ */
+public record CanonicalizationOptions(List<String> stripParameters, boolean sortParameters) {
+
+  /** Tracking and session parameters that never change the content of a page. */
+  public static final List<String> DEFAULT_STRIP_PARAMETERS =
+      List.of("utm_*", "gclid", "fbclid", "jsessionid", "phpsessid", "sessionid", "sid");
+
+  /** Treats missing parameter rules as none. */
+  public CanonicalizationOptions {
+    stripParameters = stripParameters == null ? List.of() : List.copyOf(stripParameters);
+  }
+
+  /**
+   * Returns the default rules, which strip common tracking and session parameters.
+   *
+   * @return The default canonicalization options
+   */
+  public static CanonicalizationOptions defaults() {
+    return new CanonicalizationOptions(DEFAULT_STRIP_PARAMETERS, false);
+  }
+
+  /**
+   * Returns rules that leave the query untouched.
+   *
+   * @return Canonicalization options without query rules
+   */
+  public static CanonicalizationOptions keepQuery() {
+    return new CanonicalizationOptions(List.of(), false);
+  }
+
+  /**
+   * Returns a copy of these rules that sorts the remaining query parameters.
+   *
+   * @return The updated options
+   */
+  public CanonicalizationOptions withSortedParameters() {
+    return new CanonicalizationOptions(stripParameters, true);
+  }
+}
@@ -0,0 +1,87 @@
+package com.example.temporal.common;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.regex.Pattern;
+
+/**
+ * A {@link BlobStore} that keeps each blob in a file named after its SHA-256 digest.
+ *
+ * <p>Content is streamed into a temporary file in the store directory while it is hashed, then
+ * moved to {@code <root>/<first two hex digits>/<digest>}. A blob that is already present is kept
+ * and the new copy discarded. The store is only visible to processes that share the directory, so
+ * workers and the code reading the blobs must run on the same host or mount the same volume.
+ */
+public final class FileSystemBlobStore implements BlobStore {
+
+  private static final Pattern SHA256_HEX = Pattern.compile("[0-9a-f]{64}");
+  private static final int BUFFER_SIZE = 8 * 1024;
+
+  private final Path root;
+
+  /**
+   * Creates a store in a directory, which is created on first use.
+   *
+   * @param root The directory to keep blobs in
+   */
+  public FileSystemBlobStore(Path root) {
+    this.root = root;
+  }
+
+  @Override
+  public BlobReference put(InputStream content, String contentType) throws IOException {
+    Files.createDirectories(root);
+    Path temp = Files.createTempFile(root, "upload-", ".tmp");
+    try {
+      MessageDigest digest = sha256();
+      long size = 0;
+      try (InputStream in = new DigestInputStream(content, digest);
+          OutputStream out = Files.newOutputStream(temp)) {
+        byte[] buffer = new byte[BUFFER_SIZE];
+        for (int read = in.read(buffer); read >= 0; read = in.read(buffer)) {
+          out.write(buffer, 0, read);
+          size += read;
+        }
+      }
+
+      String hash = HexFormat.of().formatHex(digest.digest());
+      Path directory = root.resolve(hash.substring(0, 2));
+      Files.createDirectories(directory);
+      Path target = directory.resolve(hash);
+      try {
+        Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+      } catch (FileAlreadyExistsException e) {
+        // The same content was stored before
+      }
+      return new BlobReference(hash, size, hash, contentType);
+    } finally {
+      Files.deleteIfExists(temp);
+    }
+  }
+
+  @Override
+  public InputStream open(BlobReference reference) throws IOException {
+    if (!SHA256_HEX.matcher(reference.key()).matches()) {
+      throw new IOException("Not a blob key of this store: " + reference.key());
+    }
+    String hash = reference.key();
+    return Files.newInputStream(root.resolve(hash.substring(0, 2)).resolve(hash));
+  }
+
+  private static MessageDigest sha256() {
+    try {
+      return MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 is not available", e);
+    }
+  }
+}
@@ -0,0 +1,125 @@
+package com.example.temporal.common;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent calls for the same key into one.
+ *
+ * <p>The first caller for a key runs the call; callers that arrive while it is in flight wait for
+ * it and receive the same result or exception instead of running the call again. Once the call has
+ * completed, the next caller for the key starts a new one, so results are never reused beyond the
+ * calls they overlapped with. In-flight calls are tracked in a {@link ConcurrentHashMap}, so
+ * callers only contend with each other when they hash to the same bin.
+ *
+ * <p>Results are handed to every waiting caller, so they should be immutable.
+ *
+ * @param <K> The key type, e.g. a canonical URL
+ * @param <V> The result type
+ */
+public final class SingleFlight<K, V> {
+
+  private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+  private final LongAdder calls = new LongAdder();
+  private final LongAdder coalesced = new LongAdder();
+
+  /**
+   * Runs a blocking call, or waits for the in-flight call with the same key.
+   *
+   * @param key The key identifying identical calls
+   * @param call The call to run if none is in flight for the key
+   * @return The result of the call
+   * @throws RuntimeException The exception the call failed with
+   */
+  public V run(K key, Supplier<V> call) {
+    CompletableFuture<V> result = new CompletableFuture<>();
+    CompletableFuture<V> existing = inFlight.putIfAbsent(key, result);
+    if (existing != null) {
+      coalesced.increment();
+      return join(existing);
+    }
+
+    calls.increment();
+    V value;
+    try {
+      value = call.get();
+    } catch (RuntimeException | Error e) {
+      inFlight.remove(key, result);
+      result.completeExceptionally(e);
+      throw e;
+    }
+    inFlight.remove(key, result);
+    result.complete(value);
+    return value;
+  }
+
+  /**
+   * Starts a non-blocking call, or joins the in-flight call with the same key.
+   *
+   * @param key The key identifying identical calls
+   * @param call Starts the call if none is in flight for the key
+   * @return The pending result of the call
+   */
+  public CompletableFuture<V> runAsync(K key, Supplier<CompletableFuture<V>> call) {
+    CompletableFuture<V> result = new CompletableFuture<>();
+    CompletableFuture<V> existing = inFlight.putIfAbsent(key, result);
+    if (existing != null) {
+      coalesced.increment();
+      return existing;
+    }
+
+    calls.increment();
+    CompletableFuture<V> started;
+    try {
+      started = call.get();
+    } catch (RuntimeException e) {
+      started = CompletableFuture.failedFuture(e);
+    }
+    started.whenComplete(
+        (value, error) -> {
+          inFlight.remove(key, result);
+          if (error == null) {
+            result.complete(value);
+          } else {
+            result.completeExceptionally(error);
+          }
+        });
+    return result;
+  }
+
+  /**
+   * Returns the number of calls that were run.
+   *
+   * @return The number of calls that did not join an in-flight one
+   */
+  public long calls() {
+    return calls.sum();
+  }
+
+  /**
+   * Returns the number of callers that joined an in-flight call instead of running their own.
+   *
+   * @return The number of coalesced callers
+   */
+  public long coalesced() {
+    return coalesced.sum();
+  }
+
+  private static <V> V join(CompletableFuture<V> result) {
+    try {
+      return result.join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException cause) {
+        throw cause;
+      }
+      if (e.getCause() instanceof Error cause) {
+        throw cause;
+      }
+      throw e;
+    }
+  }
+}
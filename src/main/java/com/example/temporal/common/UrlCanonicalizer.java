@@ -0,0 +1,176 @@
+package com.example.temporal.common;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Rewrites absolute http(s) URLs into a canonical form, so that spellings of the same address are
+ * deduplicated before they are fetched.
+ *
+ * <p>The scheme and host are lowercased, default ports, fragments and empty queries are dropped,
+ * dot segments are removed, an empty path becomes {@code /}, and percent-encodings get uppercase
+ * hex digits. Query parameters are then stripped and optionally sorted according to {@link
+ * CanonicalizationOptions}. The crawler's activities canonicalize the links they return and its
+ * workflow canonicalizes seed URLs and incoming links, so both sides agree on one form per page;
+ * the HTTP activities canonicalize requested URLs so that spellings of one URL share a request.
+ * Only pure string and {@link URI} operations are used, so the result is deterministic on replay.
+ */
+public final class UrlCanonicalizer {
+
+  private final CanonicalizationOptions options;
+  private final List<String> stripNames = new ArrayList<>();
+  private final List<String> stripPrefixes = new ArrayList<>();
+  private final boolean sortParameters;
+
+  /**
+   * Creates a canonicalizer.
+   *
+   * @param options The query-string rules
+   */
+  public UrlCanonicalizer(CanonicalizationOptions options) {
+    this.options = options;
+    for (String parameter : options.stripParameters()) {
+      String name = parameter.toLowerCase(Locale.ROOT);
+      if (name.endsWith("*")) {
+        stripPrefixes.add(name.substring(0, name.length() - 1));
+      } else {
+        stripNames.add(name);
+      }
+    }
+    this.sortParameters = options.sortParameters();
+  }
+
+  /**
+   * Returns the rules this canonicalizer applies.
+   *
+   * @return The canonicalization options
+   */
+  public CanonicalizationOptions options() {
+    return options;
+  }
+
+  /**
+   * Canonicalizes an absolute URL.
+   *
+   * @param url The URL to canonicalize
+   * @return The canonical URL, or null if the URL is not a valid absolute http(s) URL
+   */
+  public String canonicalize(String url) {
+    URI uri;
+    try {
+      uri = new URI(url);
+    } catch (URISyntaxException e) {
+      return null;
+    }
+    String scheme = uri.getScheme() == null ? null : uri.getScheme().toLowerCase(Locale.ROOT);
+    String host = uri.getHost();
+    if (!("http".equals(scheme) || "https".equals(scheme)) || host == null) {
+      return null;
+    }
+
+    StringBuilder canonical = new StringBuilder(url.length()).append(scheme).append("://");
+    if (uri.getRawUserInfo() != null) {
+      canonical.append(uri.getRawUserInfo()).append('@');
+    }
+    host = host.toLowerCase(Locale.ROOT);
+    canonical.append(host.endsWith(".") ? host.substring(0, host.length() - 1) : host);
+    int port = uri.getPort();
+    if (port != -1
+        && !(port == 80 && "http".equals(scheme))
+        && !(port == 443 && "https".equals(scheme))) {
+      canonical.append(':').append(port);
+    }
+
+    String path = uri.getRawPath();
+    if (path == null || path.isEmpty()) {
+      canonical.append('/');
+    } else {
+      appendPercentEncoded(canonical, removeDotSegments(path));
+    }
+
+    String query = canonicalQuery(uri.getRawQuery());
+    if (!query.isEmpty()) {
+      canonical.append('?');
+      appendPercentEncoded(canonical, query);
+    }
+    return canonical.toString();
+  }
+
+  private String canonicalQuery(String query) {
+    if (query == null || query.isEmpty()) {
+      return "";
+    }
+    List<String> parameters = new ArrayList<>();
+    for (String parameter : query.split("&")) {
+      if (!parameter.isEmpty() && !isStripped(parameter)) {
+        parameters.add(parameter);
+      }
+    }
+    if (sortParameters) {
+      parameters.sort(null);
+    }
+    return String.join("&", parameters);
+  }
+
+  private boolean isStripped(String parameter) {
+    int equals = parameter.indexOf('=');
+    String name =
+        (equals < 0 ? parameter : parameter.substring(0, equals)).toLowerCase(Locale.ROOT);
+    if (stripNames.contains(name)) {
+      return true;
+    }
+    for (String prefix : stripPrefixes) {
+      if (name.startsWith(prefix)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /** Removes "." and ".." segments as in RFC 3986 section 5.2.4. */
+  private static String removeDotSegments(String path) {
+    if (!path.contains(".")) {
+      return path;
+    }
+    List<String> output = new ArrayList<>();
+    String[] segments = path.split("/", -1);
+    for (int i = 1; i < segments.length; i++) {
+      String segment = segments[i];
+      boolean last = i == segments.length - 1;
+      if (segment.equals(".")) {
+        if (last) {
+          output.add("");
+        }
+      } else if (segment.equals("..")) {
+        if (!output.isEmpty()) {
+          output.remove(output.size() - 1);
+        }
+        if (last) {
+          output.add("");
+        }
+      } else {
+        output.add(segment);
+      }
+    }
+    return "/" + String.join("/", output);
+  }
+
+  /** Appends a URL component, uppercasing the hex digits of its percent-encodings. */
+  private static void appendPercentEncoded(StringBuilder target, String component) {
+    for (int i = 0; i < component.length(); i++) {
+      char c = component.charAt(i);
+      if (c == '%' && i + 2 < component.length()) {
+        target
+            .append('%')
+            .append(Character.toUpperCase(component.charAt(i + 1)))
+            .append(Character.toUpperCase(component.charAt(i + 2)));
+        i += 2;
+      } else {
+        target.append(c);
+      }
+    }
+  }
+}
@@ -0,0 +1,112 @@
+package com.example.temporal.workflows.crawler;
+
+import io.temporal.failure.ApplicationFailure;
+import io.temporal.workflow.Workflow;
+import java.util.ArrayList;
+import java.util.List;
+import org.slf4j.Logger;
+
+/**
+ * Crawl state carried across continue-as-new so that a crawl of any size runs as a chain of
+ * executions with bounded history.
+ *
+ * @param frontier The URLs still waiting to be crawled, with their depth and in-link counts
+ * @param seenLinks The seen-set used for deduplication
+ * @param discoveredDomains The domains seen so far
+ * @param linksCrawled The number of pages crawled by all previous runs
+ * @param hostRates The per-host delays, latencies and holds that differ from the defaults
+ * @param depthStats The per-depth statistics of all previous runs
+ * @param paused Whether dispatching was paused when the previous run handed over
+ * @see #bounded
+ */
+public record CrawlCheckpoint(
+    List<FrontierUrl> frontier,
+    SeenSetSnapshot seenLinks,
+    List<String> discoveredDomains,
+    int linksCrawled,
+    List<HostRateSnapshot> hostRates,
+    List<DepthStats> depthStats,
+    boolean paused) {
+
+  /**
+   * The largest estimated JSON size of a checkpoint, leaving headroom below Temporal's 2 MB payload
+   * limit for the rest of the workflow input.
+   */
+  public static final long MAX_ENCODED_BYTES = 1_500_000L;
+
+  /** The estimated JSON size of one host rate or depth statistics entry. */
+  private static final int STATE_ENTRY_BYTES = 160;
+
+  private static final Logger logger = Workflow.getLogger(CrawlCheckpoint.class);
+
+  /** Treats missing host rates and depth statistics as empty. */
+  public CrawlCheckpoint {
+    if (hostRates == null) {
+      hostRates = List.of();
+    }
+    if (depthStats == null) {
+      depthStats = List.of();
+    }
+  }
+
+  /**
+   * Creates a checkpoint that fits in a continue-as-new payload. The seen-set keeps itself within
+   * {@link SeenSetOptions#MAX_SNAPSHOT_BYTES}; in the room left beside it and the crawl totals,
+   * host rates are kept while they fit, and then as many queued URLs as fit, best-ranked first.
+   * URLs that do not fit are logged and dropped; they stay in the seen-set and are not crawled.
+   *
+   * @param frontier The frontier to take queued URLs from
+   * @param seenLinks The seen-set used for deduplication
+   * @param discoveredDomains The domains seen so far
+   * @param linksCrawled The number of pages crawled so far
+   * @param hostRates The per-host rate state
+   * @param depthStats The per-depth statistics so far
+   * @param paused Whether dispatching is paused
+   * @return A checkpoint of at most {@link #MAX_ENCODED_BYTES} estimated bytes
+   * @throws ApplicationFailure A non-retryable failure when the seen-set, domains and statistics,
+   *     which cannot be reduced, alone exceed {@link #MAX_ENCODED_BYTES}
+   */
+  static CrawlCheckpoint bounded(
+      CrawlFrontier frontier,
+      SeenSetSnapshot seenLinks,
+      List<String> discoveredDomains,
+      int linksCrawled,
+      List<HostRateSnapshot> hostRates,
+      List<DepthStats> depthStats,
+      boolean paused) {
+    long stateBytes = seenLinks.encodedBytes() + (long) STATE_ENTRY_BYTES * depthStats.size();
+    for (String domain : discoveredDomains) {
+      stateBytes += domain.length() + 3;
+    }
+    if (stateBytes > MAX_ENCODED_BYTES) {
+      throw ApplicationFailure.newNonRetryableFailure(
+          "Crawl state of about "
+              + stateBytes
+              + " bytes exceeds the "
+              + MAX_ENCODED_BYTES
+              + " byte checkpoint limit even without its frontier",
+          "CheckpointTooLarge");
+    }
+
+    int keptRates =
+        (int) Math.min(hostRates.size(), (MAX_ENCODED_BYTES - stateBytes) / STATE_ENTRY_BYTES);
+    stateBytes += (long) STATE_ENTRY_BYTES * keptRates;
+    List<FrontierUrl> urls = frontier.urls(MAX_ENCODED_BYTES - stateBytes);
+    if (keptRates < hostRates.size() || urls.size() < frontier.size()) {
+      logger.warn(
+          "Checkpoint carries {} of {} queued URLs and {} of {} host rates within the payload size",
+          urls.size(),
+          frontier.size(),
+          keptRates,
+          hostRates.size());
+    }
+    return new CrawlCheckpoint(
+        urls,
+        seenLinks,
+        discoveredDomains,
+        linksCrawled,
+        new ArrayList<>(hostRates.subList(0, keptRates)),
+        depthStats,
+        paused);
+  }
+}
@@ -0,0 +1,474 @@
+package com.example.temporal.workflows.crawler;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Workflow-side frontier of URLs waiting to be crawled, ordered by priority and scheduled politely
+ * per host.
+ *
+ * <p>URLs are kept in one queue per host, ordered by the score {@link FrontierPriority} gives them
+ * and then by insertion, so with the default (all-zero) weights each host queue is FIFO. {@link
+ * #poll(long)} hands out the best-scoring URL among the hosts that are ready, breaking ties
+ * round-robin, where a host is ready when it has fewer than the per-host concurrency limit in
+ * flight and its minimum delay since the last dispatch has elapsed. All state lives in ordered
+ * collections, scores use only values carried in workflow state, and time is always passed in by
+ * the workflow, so the schedule is identical on replay.
+ *
+ * <p>With adaptive rate control, each host's delay follows AIMD: it doubles when the host throttles
+ * (429 or 503), sends Retry-After, fails to respond or answers much slower than usual, and shrinks
+ * by a fixed step on every normal response until it is back at the configured minimum.
+ *
+ * <p>A Crawl-delay a host's robots.txt asks for raises that host's minimum delay, whether or not
+ * adaptive rate control is enabled. Likewise, pages of a host whose robots.txt is unavailable are
+ * always put back and the host is held back until its robots.txt is fetched again.
+ */
+final class CrawlFrontier {
+
+  /** The first backoff delay for hosts whose configured delay is below it. */
+  static final long MIN_BACKOFF_MILLIS = 500;
+
+  /** The largest delay adaptive rate control applies to a host. */
+  static final long MAX_DELAY_MILLIS = 60_000;
+
+  /** How much a normal response shortens a host's delay. */
+  static final long ADDITIVE_STEP_MILLIS = 100;
+
+  /** A response this many times slower than the host's average counts as congestion. */
+  private static final double LATENCY_CONGESTION_FACTOR = 3.0;
+
+  /** How often a page rejected by a throttling host is put back into the frontier. */
+  static final int MAX_THROTTLED_RETRIES = 3;
+
+  /** The JSON size of a frontier URL in a checkpoint beyond the URL itself. */
+  private static final int FRONTIER_URL_OVERHEAD_BYTES = 40;
+
+  private static final double LATENCY_SMOOTHING = 0.2;
+  private static final int MIN_LATENCY_SAMPLES = 3;
+
+  private final int perHostMaxConcurrency;
+  private final long perHostDelayMillis;
+  private final boolean adaptive;
+  private final FrontierPriority priority;
+  private final String seedHost;
+  private final List<Pattern> patterns = new ArrayList<>();
+
+  private final Map<String, HostQueue> hosts = new LinkedHashMap<>();
+
+  /** Queued entries by URL, so that newly found in-links can re-rank them. */
+  private final Map<String, FrontierEntry> queued = new HashMap<>();
+
+  /** Hosts with queued URLs, in round-robin order. */
+  private final Deque<HostQueue> rotation = new ArrayDeque<>();
+
+  /** Throttled pages waiting to be fetched again, with the number of times they were throttled. */
+  private final Map<String, Integer> throttledRetries = new HashMap<>();
+
+  private long nextSequence;
+
+  /**
+   * Creates an empty FIFO frontier.
+   *
+   * @param perHostMaxConcurrency The maximum URLs in flight per host, 0 for unlimited
+   * @param perHostDelayMillis The minimum time between two dispatches to the same host
+   * @param adaptive Whether to adapt each host's delay to its responses
+   */
+  CrawlFrontier(int perHostMaxConcurrency, long perHostDelayMillis, boolean adaptive) {
+    this(perHostMaxConcurrency, perHostDelayMillis, adaptive, FrontierPriority.fifo(), null);
+  }
+
+  /**
+   * Creates an empty frontier.
+   *
+   * @param perHostMaxConcurrency The maximum URLs in flight per host, 0 for unlimited
+   * @param perHostDelayMillis The minimum time between two dispatches to the same host
+   * @param adaptive Whether to adapt each host's delay to its responses
+   * @param priority How to rank queued URLs
+   * @param seedUrl The start URL of the crawl, whose host counts as the same domain
+   */
+  CrawlFrontier(
+      int perHostMaxConcurrency,
+      long perHostDelayMillis,
+      boolean adaptive,
+      FrontierPriority priority,
+      String seedUrl) {
+    this.perHostMaxConcurrency = perHostMaxConcurrency;
+    this.perHostDelayMillis = perHostDelayMillis;
+    this.adaptive = adaptive;
+    this.priority = priority;
+    this.seedHost = seedUrl == null ? null : hostKey(seedUrl);
+    for (UrlPatternScore pattern : priority.patterns()) {
+      patterns.add(Pattern.compile(pattern.pattern()));
+    }
+  }
+
+  /**
+   * Queues a URL found at the given depth.
+   *
+   * @param url The URL to crawl
+   * @param depth The number of links between the start URL and this URL
+   */
+  void add(String url, int depth) {
+    add(new FrontierUrl(url, depth, 0));
+  }
+
+  /**
+   * Queues a URL, e.g. one restored from a checkpoint or one a host throttled.
+   *
+   * @param page The URL with its depth, in-link count and throttled retries
+   */
+  void add(FrontierUrl page) {
+    if (queued.containsKey(page.url())) {
+      return;
+    }
+    if (page.throttledRetries() > 0) {
+      throttledRetries.put(page.url(), page.throttledRetries());
+    }
+    FrontierEntry entry =
+        new FrontierEntry(page.url(), page.depth(), page.inLinks(), nextSequence++);
+    entry.score = score(entry);
+    HostQueue host = host(page.url());
+    if (host.urls.isEmpty()) {
+      rotation.addLast(host);
+    }
+    host.urls.add(entry);
+    queued.put(page.url(), entry);
+  }
+
+  /**
+   * Records another link to a URL. If the URL is still queued and in-links count towards the
+   * priority, it is re-ranked.
+   *
+   * @param url The URL that was linked to again
+   */
+  void addInLink(String url) {
+    FrontierEntry entry = queued.get(url);
+    if (entry == null || priority.inLinkWeight() == 0) {
+      return;
+    }
+    HostQueue host = hosts.get(hostKey(url));
+    host.urls.remove(entry);
+    entry.inLinks++;
+    entry.score = score(entry);
+    host.urls.add(entry);
+  }
+
+  /**
+   * Takes the best-ranked URL among the ready hosts and marks it as in flight. Hosts whose best
+   * URLs rank equally take turns.
+   *
+   * @param nowMillis The current workflow time
+   * @return The URL to dispatch, or null if no host is ready
+   */
+  FrontierUrl poll(long nowMillis) {
+    HostQueue best = null;
+    for (HostQueue host : rotation) {
+      if (isReady(host, nowMillis)
+          && (best == null || host.urls.first().score > best.urls.first().score)) {
+        best = host;
+      }
+    }
+    if (best == null) {
+      return null;
+    }
+
+    rotation.remove(best);
+    FrontierEntry entry = best.urls.pollFirst();
+    queued.remove(entry.url);
+    best.inFlight++;
+    best.nextDispatchMillis = nowMillis + best.delayMillis;
+    if (!best.urls.isEmpty()) {
+      rotation.addLast(best);
+    }
+    return new FrontierUrl(entry.url, entry.depth, entry.inLinks);
+  }
+
+  /**
+   * Records that a URL handed out by {@link #poll(long)} has finished.
+   *
+   * @param url The URL whose fetch has completed or failed
+   */
+  void release(String url) {
+    HostQueue host = hosts.get(hostKey(url));
+    if (host != null && host.inFlight > 0) {
+      host.inFlight--;
+    }
+  }
+
+  /**
+   * Adapts the delay of a URL's host to the outcome of its fetch. Apart from applying the host's
+   * crawl delay, does nothing unless adaptive rate control is enabled.
+   *
+   * @param url The URL that was fetched
+   * @param output The result of the fetch
+   * @param nowMillis The current workflow time
+   */
+  void recordResponse(String url, ParseLinksOutput output, long nowMillis) {
+    HostQueue host = hosts.get(hostKey(url));
+    if (host == null) {
+      return;
+    }
+    if (output.crawlDelayMillis() > 0) {
+      host.crawlDelayMillis = Math.min(MAX_DELAY_MILLIS, output.crawlDelayMillis());
+      host.delayMillis = Math.max(host.delayMillis, host.crawlDelayMillis);
+    }
+    if (output.statusCode() == ParseLinksOutput.ROBOTS_UNAVAILABLE) {
+      long retryAfter = Math.min(MAX_DELAY_MILLIS, output.retryAfterMillis());
+      host.nextDispatchMillis = Math.max(host.nextDispatchMillis, nowMillis + retryAfter);
+    }
+    if (!adaptive) {
+      return;
+    }
+
+    boolean congested =
+        isThrottled(output.statusCode())
+            || output.statusCode() == ParseLinksOutput.NO_RESPONSE
+            || output.retryAfterMillis() > 0;
+    if (!congested && output.latencyMillis() > 0) {
+      congested =
+          host.latencySamples >= MIN_LATENCY_SAMPLES
+              && output.latencyMillis() > host.latencyMillis * LATENCY_CONGESTION_FACTOR;
+      host.latencyMillis =
+          host.latencySamples == 0
+              ? output.latencyMillis()
+              : host.latencyMillis
+                  + LATENCY_SMOOTHING * (output.latencyMillis() - host.latencyMillis);
+      host.latencySamples++;
+    }
+
+    if (congested) {
+      // Multiplicative decrease of the request rate
+      host.delayMillis =
+          Math.min(MAX_DELAY_MILLIS, Math.max(MIN_BACKOFF_MILLIS, host.delayMillis * 2));
+    } else {
+      // Additive increase of the request rate, down to the configured or requested minimum delay
+      long minDelayMillis = Math.max(perHostDelayMillis, host.crawlDelayMillis);
+      host.delayMillis = Math.max(minDelayMillis, host.delayMillis - ADDITIVE_STEP_MILLIS);
+    }
+    long retryAfter = Math.min(MAX_DELAY_MILLIS, output.retryAfterMillis());
+    host.nextDispatchMillis = Math.max(host.nextDispatchMillis, nowMillis + retryAfter);
+  }
+
+  /**
+   * Returns the current delay between dispatches to a host.
+   *
+   * @param host The host name
+   * @return The host's delay in milliseconds
+   */
+  long delayMillis(String host) {
+    HostQueue queue = hosts.get(host);
+    return queue == null ? perHostDelayMillis : queue.delayMillis;
+  }
+
+  /**
+   * Returns the rate state of the hosts for a checkpoint. Idle hosts, with no queued or in-flight
+   * URLs and no active hold, are left out, so that the next run only keeps state for hosts it may
+   * still contact and the checkpoint does not grow with every host ever seen.
+   *
+   * @param nowMillis The current workflow time, which holds are taken relative to
+   * @return The state of each active host whose rate has been adapted or that is held back
+   */
+  List<HostRateSnapshot> rates(long nowMillis) {
+    List<HostRateSnapshot> rates = new ArrayList<>();
+    for (Map.Entry<String, HostQueue> entry : hosts.entrySet()) {
+      HostQueue host = entry.getValue();
+      long holdMillis = Math.max(0, host.nextDispatchMillis - nowMillis);
+      boolean idle = host.urls.isEmpty() && host.inFlight == 0 && holdMillis == 0;
+      if (!idle
+          && (host.delayMillis != perHostDelayMillis
+              || host.latencySamples > 0
+              || holdMillis > 0)) {
+        rates.add(
+            new HostRateSnapshot(
+                entry.getKey(),
+                host.delayMillis,
+                host.latencyMillis,
+                host.latencySamples,
+                host.crawlDelayMillis,
+                holdMillis));
+      }
+    }
+    return rates;
+  }
+
+  /**
+   * Restores the rate state captured by {@link #rates(long)}.
+   *
+   * @param rates The host rates to restore
+   * @param nowMillis The current workflow time, which holds are resumed from
+   */
+  void restoreRates(List<HostRateSnapshot> rates, long nowMillis) {
+    for (HostRateSnapshot rate : rates) {
+      HostQueue host = hosts.computeIfAbsent(rate.host(), key -> new HostQueue(perHostDelayMillis));
+      host.delayMillis = rate.delayMillis();
+      host.latencyMillis = rate.latencyMillis();
+      host.latencySamples = rate.latencySamples();
+      host.crawlDelayMillis = rate.crawlDelayMillis();
+      host.nextDispatchMillis = nowMillis + rate.holdMillis();
+    }
+  }
+
+  /**
+   * Puts a page its host throttled back into the frontier, so that it is fetched again once the
+   * host has cooled down. Only adaptive rate control retries throttled pages, except for pages
+   * whose robots.txt was unavailable, which are always retried. Each page is retried at most {@link
+   * #MAX_THROTTLED_RETRIES} times, a count checkpoints carry across runs.
+   *
+   * @param page The page that was fetched
+   * @param output The result of the fetch
+   * @return true if the page was queued again, false if its result is final
+   */
+  boolean requeueIfThrottled(FrontierUrl page, ParseLinksOutput output) {
+    boolean retryable =
+        output.statusCode() == ParseLinksOutput.ROBOTS_UNAVAILABLE
+            || adaptive && isThrottled(output.statusCode());
+    if (!retryable) {
+      throttledRetries.remove(page.url());
+      return false;
+    }
+    if (throttledRetries.merge(page.url(), 1, Integer::sum) > MAX_THROTTLED_RETRIES) {
+      throttledRetries.remove(page.url());
+      return false;
+    }
+    add(page);
+    return true;
+  }
+
+  /**
+   * Returns the number of throttled pages waiting to be fetched again.
+   *
+   * @return The number of pages queued again by {@link #requeueIfThrottled}
+   */
+  int throttledRetries() {
+    return throttledRetries.size();
+  }
+
+  /**
+   * Returns whether a status code means the host is rejecting requests because of load.
+   *
+   * @param statusCode The HTTP status code
+   * @return true for 429 Too Many Requests, 503 Service Unavailable and an unavailable robots.txt
+   */
+  static boolean isThrottled(int statusCode) {
+    return statusCode == 429
+        || statusCode == 503
+        || statusCode == ParseLinksOutput.ROBOTS_UNAVAILABLE;
+  }
+
+  /**
+   * Returns the earliest time at which a host that is only held back by its delay becomes ready.
+   * Hosts at their concurrency limit are ignored, as they become ready when a fetch completes.
+   *
+   * @return The workflow time to wake up at, or -1 if no host is waiting on its delay
+   */
+  long nextReadyMillis() {
+    long next = -1;
+    for (HostQueue host : rotation) {
+      if (perHostMaxConcurrency > 0 && host.inFlight >= perHostMaxConcurrency) {
+        continue;
+      }
+      if (next < 0 || host.nextDispatchMillis < next) {
+        next = host.nextDispatchMillis;
+      }
+    }
+    return next;
+  }
+
+  /**
+   * Returns the number of queued URLs.
+   *
+   * @return The number of URLs waiting to be dispatched
+   */
+  int size() {
+    return queued.size();
+  }
+
+  boolean isEmpty() {
+    return queued.isEmpty();
+  }
+
+  /**
+   * Returns the queued URLs for a checkpoint, host by host in round-robin and priority order.
+   *
+   * @return The queued URLs with their depth, in-link count and throttled retries
+   */
+  List<FrontierUrl> urls() {
+    return urls(Long.MAX_VALUE);
+  }
+
+  /**
+   * Returns the best-ranked queued URLs for a checkpoint, host by host in round-robin and priority
+   * order. URLs are kept in rank order, best score first and oldest first among equal scores, until
+   * the size limit is reached.
+   *
+   * @param maxBytes The maximum estimated size of the returned URLs in a JSON payload
+   * @return The kept URLs with their depth, in-link count and throttled retries
+   */
+  List<FrontierUrl> urls(long maxBytes) {
+    Set<FrontierEntry> kept = null;
+    if (maxBytes < Long.MAX_VALUE) {
+      List<FrontierEntry> ranked = new ArrayList<>(queued.values());
+      ranked.sort(FrontierEntry.RANK);
+      kept = new HashSet<>();
+      long bytes = 0;
+      for (FrontierEntry entry : ranked) {
+        bytes += entry.url.length() + FRONTIER_URL_OVERHEAD_BYTES;
+        if (bytes > maxBytes) {
+          break;
+        }
+        kept.add(entry);
+      }
+    }
+
+    List<FrontierUrl> urls = new ArrayList<>(kept == null ? queued.size() : kept.size());
+    for (HostQueue host : rotation) {
+      for (FrontierEntry entry : host.urls) {
+        if (kept == null || kept.contains(entry)) {
+          urls.add(
+              new FrontierUrl(
+                  entry.url,
+                  entry.depth,
+                  entry.inLinks,
+                  throttledRetries.getOrDefault(entry.url, 0)));
+        }
+      }
+    }
+    return urls;
+  }
+
+  private double score(FrontierEntry entry) {
+    double score = priority.inLinkWeight() * entry.inLinks - priority.depthWeight() * entry.depth;
+    if (priority.sameHostWeight() != 0 && hostKey(entry.url).equals(seedHost)) {
+      score += priority.sameHostWeight();
+    }
+    for (int i = 0; i < patterns.size(); i++) {
+      if (patterns.get(i).matcher(entry.url).find()) {
+        score += priority.patterns().get(i).score();
+      }
+    }
+    // Fold -0.0 onto 0.0 so that equal scores compare as equal
+    return score == 0 ? 0 : score;
+  }
+
+  private boolean isReady(HostQueue host, long nowMillis) {
+    return (perHostMaxConcurrency <= 0 || host.inFlight < perHostMaxConcurrency)
+        && host.nextDispatchMillis <= nowMillis;
+  }
+
+  private HostQueue host(String url) {
+    return hosts.computeIfAbsent(hostKey(url), key -> new HostQueue(perHostDelayMillis));
+  }
+
+  private static String hostKey(String url) {
+    String host = CrawlerWorkflowImpl.extractDomain(url);
+    return host == null ? "" : host;
+  }
+}
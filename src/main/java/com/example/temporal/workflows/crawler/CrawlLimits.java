@@ -0,0 +1,10 @@
+package com.example.temporal.workflows.crawler;
+
+/**
+ * New limits for a running crawl, sent with {@link CrawlerWorkflow#setLimits(CrawlLimits)}.
+ *
+ * @param maxConcurrency The maximum number of parse activities kept in flight, 0 to keep the
+ *     current value
+ * @param maxLinks The maximum number of links to crawl, 0 to keep the current value
+ */
+public record CrawlLimits(int maxConcurrency, int maxLinks) {}
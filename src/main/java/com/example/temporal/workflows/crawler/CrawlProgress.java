@@ -0,0 +1,27 @@
+package com.example.temporal.workflows.crawler;
+
+/**
+ * Live counters of a running crawl, returned by the progress query.
+ *
+ * <p>Only counts are included so that the query stays cheap to answer and to poll, however large
+ * the crawl grows.
+ *
+ * @param linksCrawled The number of pages dispatched so far, by this and all previous runs
+ * @param linksDiscovered The number of unique links discovered
+ * @param frontierSize The number of URLs waiting to be crawled
+ * @param inFlight The number of pages whose fetch is in progress
+ * @param domainsDiscovered The number of unique domains discovered
+ * @param fetchFailures The number of pages whose fetch failed or returned an error status
+ * @param throttledRetries The number of pages waiting to be fetched again after being throttled
+ * @param pagesPerMinute The rate at which pages completed during the current run, as of the latest
+ *     completion
+ */
+public record CrawlProgress(
+    int linksCrawled,
+    int linksDiscovered,
+    int frontierSize,
+    int inFlight,
+    int domainsDiscovered,
+    int fetchFailures,
+    int throttledRetries,
+    double pagesPerMinute) {}
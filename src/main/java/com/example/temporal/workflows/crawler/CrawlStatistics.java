@@ -0,0 +1,96 @@
+package com.example.temporal.workflows.crawler;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Workflow-side counters of a crawl: pages, discovered links and fetch failures per depth, which
+ * are carried across continue-as-new, and the completion rate of the current run.
+ *
+ * <p>Times are workflow times passed in by the caller, because queries read these counters and
+ * cannot read the workflow clock themselves.
+ */
+final class CrawlStatistics {
+
+  private final Map<Integer, DepthStats> byDepth = new TreeMap<>();
+  private long runStartMillis;
+  private long lastCompletionMillis;
+  private int pagesCompletedThisRun;
+
+  /**
+   * Starts the rate measurement of a run.
+   *
+   * @param nowMillis The workflow time at which the run started
+   */
+  void startRun(long nowMillis) {
+    runStartMillis = nowMillis;
+    lastCompletionMillis = nowMillis;
+  }
+
+  /**
+   * Records that fetches completed, for the completion rate.
+   *
+   * @param pages The number of pages whose fetch completed
+   * @param nowMillis The current workflow time
+   */
+  void recordCompletions(int pages, long nowMillis) {
+    pagesCompletedThisRun += pages;
+    lastCompletionMillis = nowMillis;
+  }
+
+  /**
+   * Adds to the statistics of a depth.
+   *
+   * @param depth The depth to update
+   * @param pages The number of pages crawled
+   * @param links The number of links discovered
+   * @param failures The number of failed fetches
+   */
+  void count(int depth, int pages, int links, int failures) {
+    byDepth.merge(depth, new DepthStats(depth, pages, links, failures), DepthStats::plus);
+  }
+
+  /**
+   * Restores the per-depth statistics of previous runs.
+   *
+   * @param stats The statistics taken by {@link #byDepth()}
+   */
+  void restore(List<DepthStats> stats) {
+    for (DepthStats depthStats : stats) {
+      byDepth.put(depthStats.depth(), depthStats);
+    }
+  }
+
+  /**
+   * Returns the per-depth statistics.
+   *
+   * @return A copy of the statistics, ordered by depth
+   */
+  List<DepthStats> byDepth() {
+    return List.copyOf(byDepth.values());
+  }
+
+  /**
+   * Returns the number of failed fetches at every depth.
+   *
+   * @return The total number of fetch failures
+   */
+  int fetchFailures() {
+    int failures = 0;
+    for (DepthStats stats : byDepth.values()) {
+      failures += stats.fetchFailures();
+    }
+    return failures;
+  }
+
+  /**
+   * Returns the completion rate of the current run, as of its latest completion.
+   *
+   * @return The pages completed per minute, 0 before the first completion
+   */
+  double pagesPerMinute() {
+    long elapsedMillis = lastCompletionMillis - runStartMillis;
+    return elapsedMillis > 0 ? pagesCompletedThisRun * 60_000.0 / elapsedMillis : 0;
+  }
+}
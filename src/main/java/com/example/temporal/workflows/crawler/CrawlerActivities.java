@@ -18,4 +18,14 @@ public interface CrawlerActivities {
    * @return The output containing the list of discovered links
    */
   ParseLinksOutput parseLinksFromUrl(ParseLinksInput input);
+
+  /**
+   * Parses links from several URLs in a single activity, fetching them concurrently.
+   *
+   * <p>Batching amortizes the per-activity scheduling and history overhead over many small pages.
+   *
+   * @param input The input containing the URLs to parse
+   * @return The output containing one result per URL, in input order
+   */
+  ParseLinksBatchOutput parseLinksFromUrls(ParseLinksBatchInput input);
 }
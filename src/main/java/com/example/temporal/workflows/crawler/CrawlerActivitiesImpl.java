@@ -1,16 +1,28 @@
 package com.example.temporal.workflows.crawler;
 
-import java.io.BufferedReader;
-import java.io.InputStreamReader;
-import java.net.HttpURLConnection;
+import com.example.temporal.common.CanonicalizationOptions;
+import com.example.temporal.common.SingleFlight;
+import com.example.temporal.common.UrlCanonicalizer;
+import io.temporal.activity.Activity;
+import io.temporal.activity.ActivityExecutionContext;
+import io.temporal.client.ActivityCompletionClient;
 import java.net.URI;
-import java.nio.charset.StandardCharsets;
+import java.net.URISyntaxException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
-import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
@@ -18,100 +30,390 @@ import org.springframework.stereotype.Component;
 /**
  * Implementation of crawler activities for fetching URLs and parsing links.
  *
- * <p>This class handles HTTP requests, HTML parsing, and link extraction.
+ * <p>This class handles HTTP requests, HTML parsing, and link extraction. Response bodies are
+ * streamed through {@link HrefExtractor} rather than buffered, so memory per fetch is bounded by
+ * the scan buffer and the links found, not by the page size. All fetches go through a single shared
+ * {@link HttpClient}, so connections are pooled and reused across pages and activities. The {@link
+ * HttpFetcher} caps the number of requests the worker has in flight and aborts any response that
+ * has not arrived in full by its deadline, so a stalled body cannot hold a permit or an activity
+ * thread beyond it. Concurrent fetches of the same canonical URL are coalesced by a {@link
+ * SingleFlight} into one request.
+ *
+ * <p>Unless disabled in the settings, each host's robots.txt is read before its first page and
+ * cached per worker in a {@link RobotsCache}. Pages the rules disallow are reported as {@link
+ * ParseLinksOutput#ROBOTS_DISALLOWED} without being fetched, pages of a host whose robots.txt is
+ * unavailable are reported as {@link ParseLinksOutput#ROBOTS_UNAVAILABLE} so that the workflow
+ * retries them, returned links whose host rules are already cached are dropped if disallowed, and
+ * the host's Crawl-delay is passed back to the workflow's scheduler with every result.
+ *
+ * <p>When constructed with an {@link ActivityCompletionClient}, the activities complete
+ * asynchronously: each one starts its non-blocking requests, returns its thread and activity slot
+ * to the worker right away, and is completed through the client once the responses have been
+ * parsed. Without a completion client the activity thread waits for the responses instead.
  */
 @Component
 public class CrawlerActivitiesImpl implements CrawlerActivities {
 
   private static final Logger logger = LoggerFactory.getLogger(CrawlerActivitiesImpl.class);
-  private static final String USER_AGENT = "Mozilla/5.0 (compatible; TemporalCrawler/1.0)";
-  private static final Pattern LINK_PATTERN =
-      Pattern.compile("<a\\s+(?:[^>]*?\\s+)?href=\"([^\"]*)\"", Pattern.CASE_INSENSITIVE);
+  static final String USER_AGENT = "Mozilla/5.0 (compatible; TemporalCrawler/1.0)";
+
+  private final HttpFetcher fetcher;
+  private final ActivityCompletionClient completionClient;
+  private final RobotsCache robots;
+  private final ValidatorStore validators;
+  private final SingleFlight<String, UrlContent> inFlight = new SingleFlight<>();
+
+  /**
+   * Constructor that builds the shared HTTP client from the given settings.
+   *
+   * @param settings The HTTP client settings
+   * @param completionClient The client used to complete activities asynchronously, or null to
+   *     complete them on return
+   */
+  public CrawlerActivitiesImpl(
+      CrawlerHttpSettings settings, ActivityCompletionClient completionClient) {
+    this.fetcher = new HttpFetcher(settings);
+    this.completionClient = completionClient;
+    this.robots =
+        settings.respectRobots()
+            ? new RobotsCache(
+                new RobotsFetcher(fetcher),
+                settings.robotsTtlSeconds() * 1000L,
+                settings.robotsCacheSize())
+            : null;
+    this.validators = new ValidatorStore(settings.validatorCacheSize());
+  }
+
+  /**
+   * Constructor for activities that complete on return.
+   *
+   * @param settings The HTTP client settings
+   */
+  public CrawlerActivitiesImpl(CrawlerHttpSettings settings) {
+    this(settings, null);
+  }
+
+  /** Default constructor using the default HTTP client settings. */
+  public CrawlerActivitiesImpl() {
+    this(CrawlerHttpSettings.defaults());
+  }
 
   @Override
   public ParseLinksOutput parseLinksFromUrl(ParseLinksInput input) {
     logger.info("Parsing links from URL: {}", input.url());
+    return complete(parsePage(input));
+  }
 
-    // Fetch the URL content
-    UrlContent urlContent = fetchUrl(input.url());
+  @Override
+  public ParseLinksBatchOutput parseLinksFromUrls(ParseLinksBatchInput input) {
+    logger.info("Parsing links from a batch of {} URLs", input.pages().size());
 
-    if (!urlContent.success()) {
-      logger.warn("Failed to fetch URL: {}", input.url());
-      return new ParseLinksOutput(List.of());
+    List<CompletableFuture<ParseLinksOutput>> futures = new ArrayList<>();
+    for (ParseLinksInput page : input.pages()) {
+      futures.add(parsePage(page));
     }
 
-    // Parse links from the HTML content
-    List<String> links = parseLinks(urlContent.htmlContent(), input.url());
-
-    logger.info("Found {} links on {}", links.size(), input.url());
-    return new ParseLinksOutput(links);
+    CompletableFuture<ParseLinksBatchOutput> batch =
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new))
+            .thenApply(
+                ignored -> {
+                  List<ParseLinksOutput> results = new ArrayList<>();
+                  for (CompletableFuture<ParseLinksOutput> future : futures) {
+                    results.add(future.join());
+                  }
+                  return new ParseLinksBatchOutput(results);
+                });
+    return complete(batch);
   }
 
   /**
-   * Fetches content from a URL.
+   * Delivers an activity result. In async mode the activity is completed through the completion
+   * client when the result is ready and this method returns immediately; otherwise it waits for the
+   * result and returns it.
    *
-   * @param urlString The URL to fetch
-   * @return UrlContent containing the HTML content and success status
+   * @param result The pending activity result
+   * @param <R> The activity result type
+   * @return The result, or null in async mode
    */
-  private UrlContent fetchUrl(String urlString) {
-    try {
-      URI uri = new URI(urlString);
-      HttpURLConnection connection = (HttpURLConnection) uri.toURL().openConnection();
-
-      // Set User-Agent header
-      connection.setRequestMethod("GET");
-      connection.setRequestProperty("User-Agent", USER_AGENT);
-      connection.setConnectTimeout(5000);
-      connection.setReadTimeout(5000);
-
-      int responseCode = connection.getResponseCode();
-
-      if (responseCode >= 200 && responseCode < 300) {
-        // Read response with UTF-8 encoding
-        StringBuilder content = new StringBuilder();
-        try (BufferedReader reader =
-            new BufferedReader(
-                new InputStreamReader(connection.getInputStream(), StandardCharsets.UTF_8))) {
-          String line;
-          while ((line = reader.readLine()) != null) {
-            content.append(line).append("\n");
+  private <R> R complete(CompletableFuture<R> result) {
+    if (completionClient == null) {
+      return result.join();
+    }
+
+    ActivityExecutionContext context = Activity.getExecutionContext();
+    byte[] taskToken = context.getTaskToken();
+    result.whenComplete(
+        (value, error) -> {
+          try {
+            if (error == null) {
+              completionClient.complete(taskToken, value);
+            } else {
+              completionClient.completeExceptionally(
+                  taskToken, error instanceof Exception e ? e : new RuntimeException(error));
+            }
+          } catch (Exception e) {
+            // Typically the activity already timed out and is being retried elsewhere
+            logger.warn(
+                "Failed to complete activity {}: {}",
+                context.getInfo().getActivityId(),
+                e.getMessage());
           }
-        }
+        });
+    context.doNotCompleteOnReturn();
+    return null;
+  }
 
-        logger.debug("Successfully fetched URL: {} (status: {})", urlString, responseCode);
-        return new UrlContent(urlString, content.toString(), true);
-      } else {
-        logger.warn("Failed to fetch URL: {} (status: {})", urlString, responseCode);
-        return new UrlContent(urlString, "", false);
+  /**
+   * Checks a page against its host's robots.txt, then fetches it and parses its links without
+   * blocking on the network.
+   *
+   * @param input The URL to crawl and the rules for its links
+   * @return The links found on the page, empty if the page could not or may not be fetched
+   */
+  private CompletableFuture<ParseLinksOutput> parsePage(ParseLinksInput input) {
+    URI uri = robots == null ? null : parseUri(input.url());
+    String origin = uri == null ? null : RobotsCache.origin(uri);
+    if (origin == null) {
+      return fetchPage(input, RobotsRules.allowAll());
+    }
+    return robots
+        .rules(origin)
+        .thenCompose(
+            rules -> {
+              if (rules.isUnavailable()) {
+                // Not a final answer: the page is retried once the robots.txt is fetched again
+                logger.info("Deferring URL whose robots.txt is unavailable: {}", input.url());
+                return CompletableFuture.completedFuture(
+                    new ParseLinksOutput(
+                        List.of(),
+                        ParseLinksOutput.ROBOTS_UNAVAILABLE,
+                        0,
+                        RobotsCache.UNAVAILABLE_TTL_MILLIS,
+                        rules.crawlDelayMillis()));
+              }
+              if (!rules.allows(RobotsCache.pathAndQuery(uri))) {
+                logger.info("Skipping URL disallowed by robots.txt: {}", input.url());
+                return CompletableFuture.completedFuture(
+                    new ParseLinksOutput(
+                        List.of(),
+                        ParseLinksOutput.ROBOTS_DISALLOWED,
+                        0,
+                        0,
+                        rules.crawlDelayMillis()));
+              }
+              return fetchPage(input, rules);
+            });
+  }
+
+  /**
+   * Fetches a page and parses its links.
+   *
+   * @param input The URL to crawl and the rules for its links
+   * @param rules The robots.txt rules of the page's host
+   * @return The links found on the page, empty if the page could not be fetched
+   */
+  private CompletableFuture<ParseLinksOutput> fetchPage(ParseLinksInput input, RobotsRules rules) {
+    String url = input.url();
+    return fetchUrl(url)
+        .thenApply(
+            urlContent -> {
+              List<String> links = List.of();
+              if (urlContent.success()) {
+                // Resolve and filter the hrefs found on the page
+                links =
+                    parseLinks(
+                        urlContent.hrefs(),
+                        urlContent.url(),
+                        new UrlCanonicalizer(input.canonicalization()),
+                        new LinkFilter(input.scope(), url));
+                links = dropDisallowed(links);
+                logger.info("Found {} links on {}", links.size(), url);
+              } else {
+                logger.warn("Failed to fetch URL: {}", url);
+              }
+              return new ParseLinksOutput(
+                  links,
+                  urlContent.statusCode(),
+                  urlContent.latencyMillis(),
+                  urlContent.retryAfterMillis(),
+                  rules.crawlDelayMillis());
+            });
+  }
+
+  /**
+   * Drops the links that the cached robots.txt rules of their hosts disallow. Links to hosts
+   * without cached rules are kept and checked when they are fetched.
+   *
+   * @param links Canonical absolute URLs
+   * @return The links not known to be disallowed, in the same order
+   */
+  private List<String> dropDisallowed(List<String> links) {
+    if (robots == null) {
+      return links;
+    }
+    List<String> allowed = new ArrayList<>(links.size());
+    for (String link : links) {
+      URI uri = parseUri(link);
+      String origin = uri == null ? null : RobotsCache.origin(uri);
+      RobotsRules rules = origin == null ? null : robots.cached(origin);
+      if (rules == null || rules.allows(RobotsCache.pathAndQuery(uri))) {
+        allowed.add(link);
       }
+    }
+    return allowed;
+  }
+
+  private static URI parseUri(String url) {
+    try {
+      return new URI(url);
+    } catch (URISyntaxException e) {
+      return null;
+    }
+  }
+
+  /**
+   * Fetches a URL, joining the fetch already in flight for the same canonical URL if there is one,
+   * so that pages requested by several crawls or batches at once are downloaded once.
+   *
+   * @param urlString The URL to fetch
+   * @return UrlContent containing the raw hrefs and the outcome of the fetch
+   */
+  private CompletableFuture<UrlContent> fetchUrl(String urlString) {
+    return inFlight.runAsync(urlString, () -> fetchUncoalesced(urlString));
+  }
 
+  /**
+   * Fetches a URL and extracts the href values of its anchors without blocking the calling thread,
+   * which may be an HTTP client callback; the body is scanned by {@link HrefExtractor} as it
+   * arrives, so only the hrefs are kept in memory, and error responses are discarded unread. Pages
+   * in the {@link ValidatorStore} are requested conditionally, and a 304 response returns their
+   * stored hrefs.
+   *
+   * @param urlString The URL to fetch
+   * @return UrlContent containing the raw hrefs and the outcome of the fetch
+   */
+  private CompletableFuture<UrlContent> fetchUncoalesced(String urlString) {
+    ValidatorStore.Page stored = validators.get(urlString);
+    HttpRequest request;
+    try {
+      HttpRequest.Builder builder = fetcher.newRequest(new URI(urlString));
+      request = stored == null ? builder.build() : stored.addConditions(builder).build();
     } catch (Exception e) {
       logger.error("Error fetching URL {}: {}", urlString, e.getMessage());
-      return new UrlContent(urlString, "", false);
+      return CompletableFuture.completedFuture(UrlContent.noResponse(urlString));
+    }
+
+    long startNanos = System.nanoTime();
+    return fetcher
+        .send(request, CrawlerActivitiesImpl::hrefBodyHandler)
+        .handle(
+            (response, error) -> {
+              if (error != null) {
+                logger.error("Error fetching URL {}: {}", urlString, error.getMessage());
+                return UrlContent.noResponse(urlString);
+              }
+
+              long latencyMillis = (System.nanoTime() - startNanos) / 1_000_000;
+              int responseCode = response.statusCode();
+              if (isSuccess(responseCode)) {
+                logger.debug("Successfully fetched URL: {} (status: {})", urlString, responseCode);
+                // Resolve relative links against the final URL in case of redirects
+                String finalUrl = response.uri().toString();
+                validators.record(urlString, finalUrl, response.body(), response.headers());
+                return new UrlContent(finalUrl, response.body(), responseCode, latencyMillis, 0);
+              }
+              if (responseCode == UrlContent.NOT_MODIFIED && stored != null) {
+                logger.debug("URL not modified since last fetch: {}", urlString);
+                return new UrlContent(stored.url(), stored.hrefs(), responseCode, latencyMillis, 0);
+              }
+              logger.warn("Failed to fetch URL: {} (status: {})", urlString, responseCode);
+              long retryAfterMillis =
+                  retryAfterMillis(response.headers().firstValue("Retry-After").orElse(null));
+              return new UrlContent(
+                  urlString, List.of(), responseCode, latencyMillis, retryAfterMillis);
+            });
+  }
+
+  private static HttpResponse.BodySubscriber<List<String>> hrefBodyHandler(
+      HttpResponse.ResponseInfo responseInfo) {
+    if (!isSuccess(responseInfo.statusCode())) {
+      return HttpResponse.BodySubscribers.replacing(List.of());
     }
+    return HttpResponse.BodySubscribers.fromSubscriber(new HrefSubscriber(), HrefSubscriber::hrefs);
+  }
+
+  private static boolean isSuccess(int statusCode) {
+    return statusCode >= 200 && statusCode < 300;
   }
 
   /**
-   * Parses links from HTML content.
+   * Parses a Retry-After header, given either as delay seconds or as an HTTP date.
    *
-   * @param htmlContent The HTML content to parse
+   * @param retryAfter The header value, or null if absent
+   * @return The requested delay in milliseconds, 0 if absent or unparseable
+   */
+  static long retryAfterMillis(String retryAfter) {
+    if (retryAfter == null || retryAfter.isBlank()) {
+      return 0;
+    }
+    try {
+      return Math.max(0, Long.parseLong(retryAfter.strip()) * 1000);
+    } catch (NumberFormatException e) {
+      // Not delay-seconds, so it must be an HTTP date
+    }
+    try {
+      ZonedDateTime date =
+          ZonedDateTime.parse(retryAfter.strip(), DateTimeFormatter.RFC_1123_DATE_TIME);
+      return Math.max(0, Duration.between(Instant.now(), date.toInstant()).toMillis());
+    } catch (DateTimeParseException e) {
+      logger.debug("Ignoring unparseable Retry-After header: {}", retryAfter);
+      return 0;
+    }
+  }
+
+  /**
+   * Parses links from the raw href values of a page, with the default link rules.
+   *
+   * @param hrefs The href values found on the page
    * @param baseUrl The base URL for resolving relative links
-   * @return List of absolute URLs found in the HTML
+   * @return List of distinct canonical URLs, in document order
    */
-  private List<String> parseLinks(String htmlContent, String baseUrl) {
-    Set<String> uniqueLinks = new HashSet<>();
+  static List<String> parseLinks(List<String> hrefs, String baseUrl) {
+    return parseLinks(
+        hrefs,
+        baseUrl,
+        new UrlCanonicalizer(CanonicalizationOptions.defaults()),
+        new LinkFilter(LinkScope.all(), baseUrl));
+  }
 
-    Matcher matcher = LINK_PATTERN.matcher(htmlContent);
-    while (matcher.find()) {
-      String href = matcher.group(1);
+  /**
+   * Parses links from the raw href values of a page.
+   *
+   * @param hrefs The href values found on the page
+   * @param baseUrl The base URL for resolving relative links
+   * @param canonicalizer Rewrites each absolute URL into its canonical form
+   * @param filter Drops links outside the crawl's scope
+   * @return List of distinct canonical URLs in scope, in document order
+   */
+  static List<String> parseLinks(
+      List<String> hrefs, String baseUrl, UrlCanonicalizer canonicalizer, LinkFilter filter) {
+    URI baseUri;
+    try {
+      baseUri = new URI(baseUrl);
+    } catch (URISyntaxException e) {
+      logger.debug("Failed to parse base URL: {}", baseUrl);
+      return List.of();
+    }
 
+    Set<String> uniqueLinks = new LinkedHashSet<>();
+    for (String href : hrefs) {
       // Convert relative URLs to absolute
-      String absoluteUrl = resolveUrl(href, baseUrl);
+      String absoluteUrl = resolveUrl(href, baseUri);
 
-      // Filter valid HTTP/HTTPS URLs
-      if (absoluteUrl != null
-          && (absoluteUrl.startsWith("http://") || absoluteUrl.startsWith("https://"))) {
-        uniqueLinks.add(absoluteUrl);
+      // Keep valid HTTP/HTTPS URLs, in canonical form so that spellings of one page dedup
+      String canonicalUrl = absoluteUrl == null ? null : canonicalizer.canonicalize(absoluteUrl);
+      if (canonicalUrl != null && filter.accepts(canonicalUrl)) {
+        uniqueLinks.add(canonicalUrl);
       }
     }
 
@@ -122,17 +424,49 @@ public class CrawlerActivitiesImpl implements CrawlerActivities {
    * Resolves a URL (possibly relative) against a base URL.
    *
    * @param href The URL to resolve
-   * @param baseUrl The base URL
+   * @param baseUri The base URL
    * @return The absolute URL, or null if resolution fails
    */
-  private String resolveUrl(String href, String baseUrl) {
+  static String resolveUrl(String href, URI baseUri) {
     try {
-      URI baseUri = new URI(baseUrl);
       URI resolvedUri = baseUri.resolve(href);
       return resolvedUri.toString();
     } catch (Exception e) {
-      logger.debug("Failed to resolve URL: {} against base: {}", href, baseUrl);
+      logger.debug("Failed to resolve URL: {} against base: {}", href, baseUri);
       return null;
     }
   }
+
+  /** Feeds the chunks of a response body to an {@link HrefExtractor} as they arrive. */
+  private static final class HrefSubscriber implements Flow.Subscriber<List<ByteBuffer>> {
+
+    private final Set<String> hrefs = new LinkedHashSet<>();
+    private final HrefExtractor extractor = new HrefExtractor(hrefs::add);
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+      subscription.request(Long.MAX_VALUE);
+    }
+
+    @Override
+    public void onNext(List<ByteBuffer> chunks) {
+      for (ByteBuffer chunk : chunks) {
+        extractor.feed(chunk);
+      }
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+      // The HTTP client fails the response future, which is handled in fetchUrl
+    }
+
+    @Override
+    public void onComplete() {
+      extractor.finish();
+    }
+
+    List<String> hrefs() {
+      return new ArrayList<>(hrefs);
+    }
+  }
 }
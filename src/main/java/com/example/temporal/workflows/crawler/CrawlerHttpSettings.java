@@ -0,0 +1,167 @@
+package com.example.temporal.workflows.crawler;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+
+/**
+ * HTTP client and robots.txt settings for the crawler activities.
+ *
+ * <p>One {@link HttpClient} is built from these settings per worker and shared by every fetch, so
+ * connections to the same host are kept alive and, for HTTP/2 hosts, multiplexed instead of paying
+ * a TCP and TLS handshake per page.
+ *
+ * @param connectTimeoutMillis The TCP connect timeout (default: 5000)
+ * @param requestTimeoutMillis The timeout for receiving the response headers (default: 5000)
+ * @param responseTimeoutMillis The deadline for receiving the complete response, body included,
+ *     after which the request is aborted (default: 8000)
+ * @param maxConcurrentRequests The maximum number of requests in flight per worker (default: 64)
+ * @param maxConnectionsPerHost The maximum number of requests in flight to one host (scheme, host
+ *     and port), which bounds its HTTP/1.1 connections or HTTP/2 streams, 0 for unbounded (default:
+ *     0)
+ * @param keepAliveSeconds How long idle connections stay in the pool, applied JVM-wide by {@link
+ *     CrawlerWorker} (default: 30)
+ * @param http2 Whether to negotiate HTTP/2, falling back to HTTP/1.1 (default: true)
+ * @param respectRobots Whether to honor robots.txt rules and crawl delays (default: true)
+ * @param robotsTtlSeconds How long a host's robots.txt rules are cached (default: 3600)
+ * @param robotsCacheSize The maximum number of hosts whose robots.txt rules are cached (default:
+ *     10000)
+ * @param validatorCacheSize The maximum number of pages whose ETag/Last-Modified validators and
+ *     hrefs are kept for conditional re-fetches (default: 10000)
+ */
+public record CrawlerHttpSettings(
+    int connectTimeoutMillis,
+    int requestTimeoutMillis,
+    int responseTimeoutMillis,
+    int maxConcurrentRequests,
+    int maxConnectionsPerHost,
+    int keepAliveSeconds,
+    boolean http2,
+    boolean respectRobots,
+    int robotsTtlSeconds,
+    int robotsCacheSize,
+    int validatorCacheSize) {
+
+  /** Default connect and request timeout in milliseconds. */
+  public static final int DEFAULT_TIMEOUT_MILLIS = 5000;
+
+  /**
+   * Default deadline for a complete response in milliseconds, below the default 10-second activity
+   * timeout so that a stalled fetch fails before its activity does.
+   */
+  public static final int DEFAULT_RESPONSE_TIMEOUT_MILLIS = 8000;
+
+  /** Default number of concurrent requests per worker. */
+  public static final int DEFAULT_MAX_CONCURRENT_REQUESTS = 64;
+
+  /** Default idle connection keep-alive in seconds. */
+  public static final int DEFAULT_KEEP_ALIVE_SECONDS = 30;
+
+  /** Default time robots.txt rules are cached, in seconds. */
+  public static final int DEFAULT_ROBOTS_TTL_SECONDS = 3600;
+
+  /** Default number of hosts whose robots.txt rules are cached. */
+  public static final int DEFAULT_ROBOTS_CACHE_SIZE = 10_000;
+
+  /** Default number of pages whose validators are kept for conditional re-fetches. */
+  public static final int DEFAULT_VALIDATOR_CACHE_SIZE = 10_000;
+
+  /** Normalizes unset values to their defaults. */
+  public CrawlerHttpSettings {
+    if (connectTimeoutMillis <= 0) {
+      connectTimeoutMillis = DEFAULT_TIMEOUT_MILLIS;
+    }
+    if (requestTimeoutMillis <= 0) {
+      requestTimeoutMillis = DEFAULT_TIMEOUT_MILLIS;
+    }
+    if (responseTimeoutMillis <= 0) {
+      responseTimeoutMillis = DEFAULT_RESPONSE_TIMEOUT_MILLIS;
+    }
+    if (maxConcurrentRequests <= 0) {
+      maxConcurrentRequests = DEFAULT_MAX_CONCURRENT_REQUESTS;
+    }
+    maxConnectionsPerHost = Math.max(0, maxConnectionsPerHost);
+    if (keepAliveSeconds <= 0) {
+      keepAliveSeconds = DEFAULT_KEEP_ALIVE_SECONDS;
+    }
+    if (robotsTtlSeconds <= 0) {
+      robotsTtlSeconds = DEFAULT_ROBOTS_TTL_SECONDS;
+    }
+    if (robotsCacheSize <= 0) {
+      robotsCacheSize = DEFAULT_ROBOTS_CACHE_SIZE;
+    }
+    if (validatorCacheSize <= 0) {
+      validatorCacheSize = DEFAULT_VALIDATOR_CACHE_SIZE;
+    }
+  }
+
+  /**
+   * Returns the default settings.
+   *
+   * @return The default HTTP settings
+   */
+  public static CrawlerHttpSettings defaults() {
+    return new CrawlerHttpSettings(0, 0, 0, 0, 0, 0, true, true, 0, 0, 0);
+  }
+
+  /**
+   * Reads the settings from CRAWLER_HTTP_*, CRAWLER_RESPECT_ROBOTS, CRAWLER_ROBOTS_* and
+   * CRAWLER_VALIDATOR_CACHE_SIZE environment variables, using defaults for unset ones.
+   *
+   * @return The HTTP settings for this worker
+   */
+  public static CrawlerHttpSettings fromEnvironment() {
+    return new CrawlerHttpSettings(
+        intFromEnvironment("CRAWLER_HTTP_CONNECT_TIMEOUT_MS"),
+        intFromEnvironment("CRAWLER_HTTP_REQUEST_TIMEOUT_MS"),
+        intFromEnvironment("CRAWLER_HTTP_RESPONSE_TIMEOUT_MS"),
+        intFromEnvironment("CRAWLER_HTTP_MAX_CONCURRENT_REQUESTS"),
+        intFromEnvironment("CRAWLER_HTTP_MAX_CONNECTIONS"),
+        intFromEnvironment("CRAWLER_HTTP_KEEP_ALIVE_SECONDS"),
+        Boolean.parseBoolean(System.getenv().getOrDefault("CRAWLER_HTTP2", "true")),
+        Boolean.parseBoolean(System.getenv().getOrDefault("CRAWLER_RESPECT_ROBOTS", "true")),
+        intFromEnvironment("CRAWLER_ROBOTS_TTL_SECONDS"),
+        intFromEnvironment("CRAWLER_ROBOTS_CACHE_SIZE"),
+        intFromEnvironment("CRAWLER_VALIDATOR_CACHE_SIZE"));
+  }
+
+  /**
+   * Returns a copy of these settings that ignores robots.txt.
+   *
+   * @return The updated settings
+   */
+  public CrawlerHttpSettings withoutRobots() {
+    return new CrawlerHttpSettings(
+        connectTimeoutMillis,
+        requestTimeoutMillis,
+        responseTimeoutMillis,
+        maxConcurrentRequests,
+        maxConnectionsPerHost,
+        keepAliveSeconds,
+        http2,
+        false,
+        robotsTtlSeconds,
+        robotsCacheSize,
+        validatorCacheSize);
+  }
+
+  /**
+   * Builds the shared HTTP client.
+   *
+   * <p>The JDK client only exposes the keep-alive timeout through the JVM-wide
+   * jdk.httpclient.keepalive.timeout system property, so {@link CrawlerWorker} sets it once at
+   * startup rather than this method changing global state.
+   *
+   * @return A new HTTP client configured with these settings
+   */
+  public HttpClient newHttpClient() {
+    return HttpClient.newBuilder()
+        .version(http2 ? HttpClient.Version.HTTP_2 : HttpClient.Version.HTTP_1_1)
+        .connectTimeout(Duration.ofMillis(connectTimeoutMillis))
+        .followRedirects(HttpClient.Redirect.NORMAL)
+        .build();
+  }
+
+  private static int intFromEnvironment(String name) {
+    return Integer.parseInt(System.getenv().getOrDefault(name, "0"));
+  }
+}
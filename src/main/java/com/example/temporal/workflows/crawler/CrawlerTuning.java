@@ -0,0 +1,224 @@
+package com.example.temporal.workflows.crawler;
+
+import io.temporal.activity.ActivityOptions;
+import io.temporal.common.RetryOptions;
+import java.time.Duration;
+
+/**
+ * Per-run concurrency, timeout and retry settings for the crawler workflow.
+ *
+ * <p>Per-host limits make the crawl polite: URLs are dispatched round-robin across hosts, and a
+ * host at its concurrency limit or within its delay is skipped in favor of hosts that are ready.
+ * Adaptive rate control additionally grows a host's delay when it throttles and shrinks it again on
+ * success, and puts throttled pages back in the frontier instead of counting them as crawled.
+ *
+ * <p>Zero or negative values fall back to the defaults, which match the original hard-coded
+ * behavior, so inputs serialized before these settings existed keep working unchanged.
+ *
+ * @param maxConcurrency The maximum number of parse activities kept in flight (default: 10)
+ * @param batchSize The number of URLs fetched by each parse activity (default: 1)
+ * @param activityTimeoutSeconds The start-to-close timeout of each activity (default: 10)
+ * @param maxActivityAttempts The maximum attempts per activity, 0 for unlimited (default: 0)
+ * @param retryInitialIntervalSeconds The delay before the first retry, 0 for the SDK default
+ * @param retryMaximumIntervalSeconds The cap on the retry delay, 0 for the SDK default
+ * @param checkpointEveryPages The pages crawled per run before continuing as new (default: 1000)
+ * @param checkpointMaxHistoryEvents The history length that triggers continue-as-new (default:
+ *     10000)
+ * @param perHostMaxConcurrency The maximum pages in flight per host, 0 for unlimited (default: 0)
+ * @param perHostDelayMillis The minimum delay between two fetches from the same host (default: 0)
+ * @param adaptiveRateControl Whether to slow down per host on throttling and speed back up on
+ *     success (default: false)
+ */
+public record CrawlerTuning(
+    int maxConcurrency,
+    int batchSize,
+    int activityTimeoutSeconds,
+    int maxActivityAttempts,
+    int retryInitialIntervalSeconds,
+    int retryMaximumIntervalSeconds,
+    int checkpointEveryPages,
+    int checkpointMaxHistoryEvents,
+    int perHostMaxConcurrency,
+    int perHostDelayMillis,
+    boolean adaptiveRateControl) {
+
+  /** Default number of in-flight parse activities. */
+  public static final int DEFAULT_MAX_CONCURRENCY = 10;
+
+  /** Default activity start-to-close timeout in seconds. */
+  public static final int DEFAULT_ACTIVITY_TIMEOUT_SECONDS = 10;
+
+  /** Default number of pages crawled by one run before it continues as new. */
+  public static final int DEFAULT_CHECKPOINT_EVERY_PAGES = 1000;
+
+  /** Default history length at which a run continues as new. */
+  public static final int DEFAULT_CHECKPOINT_MAX_HISTORY_EVENTS = 10_000;
+
+  /** Normalizes unset values to their defaults. */
+  public CrawlerTuning {
+    if (maxConcurrency <= 0) {
+      maxConcurrency = DEFAULT_MAX_CONCURRENCY;
+    }
+    batchSize = Math.max(1, batchSize);
+    if (activityTimeoutSeconds <= 0) {
+      activityTimeoutSeconds = DEFAULT_ACTIVITY_TIMEOUT_SECONDS;
+    }
+    maxActivityAttempts = Math.max(0, maxActivityAttempts);
+    retryInitialIntervalSeconds = Math.max(0, retryInitialIntervalSeconds);
+    retryMaximumIntervalSeconds = Math.max(0, retryMaximumIntervalSeconds);
+    if (checkpointEveryPages <= 0) {
+      checkpointEveryPages = DEFAULT_CHECKPOINT_EVERY_PAGES;
+    }
+    if (checkpointMaxHistoryEvents <= 0) {
+      checkpointMaxHistoryEvents = DEFAULT_CHECKPOINT_MAX_HISTORY_EVENTS;
+    }
+    perHostMaxConcurrency = Math.max(0, perHostMaxConcurrency);
+    perHostDelayMillis = Math.max(0, perHostDelayMillis);
+  }
+
+  /**
+   * Constructor for the common case of tuning only the fan-out and retry budget.
+   *
+   * @param maxConcurrency The maximum number of parse activities kept in flight
+   * @param maxActivityAttempts The maximum attempts per activity, 0 for unlimited
+   */
+  public CrawlerTuning(int maxConcurrency, int maxActivityAttempts) {
+    this(maxConcurrency, 1, 0, maxActivityAttempts, 0, 0, 0, 0, 0, 0, false);
+  }
+
+  /**
+   * Returns a copy of these settings that keeps the given number of parse activities in flight.
+   *
+   * @param activities The maximum number of parse activities kept in flight
+   * @return The updated tuning
+   */
+  public CrawlerTuning withMaxConcurrency(int activities) {
+    return new CrawlerTuning(
+        activities,
+        batchSize,
+        activityTimeoutSeconds,
+        maxActivityAttempts,
+        retryInitialIntervalSeconds,
+        retryMaximumIntervalSeconds,
+        checkpointEveryPages,
+        checkpointMaxHistoryEvents,
+        perHostMaxConcurrency,
+        perHostDelayMillis,
+        adaptiveRateControl);
+  }
+
+  /**
+   * Returns a copy of these settings that continues as new after the given number of pages.
+   *
+   * @param pages The pages crawled per run before continuing as new
+   * @return The updated tuning
+   */
+  public CrawlerTuning withCheckpointEveryPages(int pages) {
+    return new CrawlerTuning(
+        maxConcurrency,
+        batchSize,
+        activityTimeoutSeconds,
+        maxActivityAttempts,
+        retryInitialIntervalSeconds,
+        retryMaximumIntervalSeconds,
+        pages,
+        checkpointMaxHistoryEvents,
+        perHostMaxConcurrency,
+        perHostDelayMillis,
+        adaptiveRateControl);
+  }
+
+  /**
+   * Returns a copy of these settings that fetches the given number of URLs per activity.
+   *
+   * @param urlsPerActivity The number of URLs fetched by each parse activity
+   * @return The updated tuning
+   */
+  public CrawlerTuning withBatchSize(int urlsPerActivity) {
+    return new CrawlerTuning(
+        maxConcurrency,
+        urlsPerActivity,
+        activityTimeoutSeconds,
+        maxActivityAttempts,
+        retryInitialIntervalSeconds,
+        retryMaximumIntervalSeconds,
+        checkpointEveryPages,
+        checkpointMaxHistoryEvents,
+        perHostMaxConcurrency,
+        perHostDelayMillis,
+        adaptiveRateControl);
+  }
+
+  /**
+   * Returns a copy of these settings with the given per-host politeness limits.
+   *
+   * @param maxPerHost The maximum pages in flight per host, 0 for unlimited
+   * @param delayMillis The minimum delay between two fetches from the same host
+   * @return The updated tuning
+   */
+  public CrawlerTuning withPerHostLimits(int maxPerHost, int delayMillis) {
+    return new CrawlerTuning(
+        maxConcurrency,
+        batchSize,
+        activityTimeoutSeconds,
+        maxActivityAttempts,
+        retryInitialIntervalSeconds,
+        retryMaximumIntervalSeconds,
+        checkpointEveryPages,
+        checkpointMaxHistoryEvents,
+        maxPerHost,
+        delayMillis,
+        adaptiveRateControl);
+  }
+
+  /**
+   * Returns a copy of these settings with adaptive per-host rate control switched on or off.
+   *
+   * @param enabled Whether to adapt each host's request rate to its responses
+   * @return The updated tuning
+   */
+  public CrawlerTuning withAdaptiveRateControl(boolean enabled) {
+    return new CrawlerTuning(
+        maxConcurrency,
+        batchSize,
+        activityTimeoutSeconds,
+        maxActivityAttempts,
+        retryInitialIntervalSeconds,
+        retryMaximumIntervalSeconds,
+        checkpointEveryPages,
+        checkpointMaxHistoryEvents,
+        perHostMaxConcurrency,
+        perHostDelayMillis,
+        enabled);
+  }
+
+  /**
+   * Builds the options of the parse activities, leaving unset retry values to the SDK defaults.
+   *
+   * @return The activity options for parse activities
+   */
+  public ActivityOptions activityOptions() {
+    RetryOptions.Builder retryOptions =
+        RetryOptions.newBuilder().setMaximumAttempts(maxActivityAttempts);
+    if (retryInitialIntervalSeconds > 0) {
+      retryOptions.setInitialInterval(Duration.ofSeconds(retryInitialIntervalSeconds));
+    }
+    if (retryMaximumIntervalSeconds > 0) {
+      retryOptions.setMaximumInterval(Duration.ofSeconds(retryMaximumIntervalSeconds));
+    }
+
+    return ActivityOptions.newBuilder()
+        .setStartToCloseTimeout(Duration.ofSeconds(activityTimeoutSeconds))
+        .setRetryOptions(retryOptions.build())
+        .build();
+  }
+
+  /**
+   * Returns the default settings (10 in flight, 10-second timeout, unlimited retries).
+   *
+   * @return The default tuning
+   */
+  public static CrawlerTuning defaults() {
+    return new CrawlerTuning(0, 1, 0, 0, 0, 0, 0, 0, 0, 0, false);
+  }
+}
@@ -1,11 +1,13 @@
 package com.example.temporal.workflows.crawler;
 
+import io.temporal.client.ActivityCompletionClient;
 import io.temporal.client.WorkflowClient;
 import io.temporal.client.WorkflowClientOptions;
 import io.temporal.serviceclient.WorkflowServiceStubs;
 import io.temporal.serviceclient.WorkflowServiceStubsOptions;
 import io.temporal.worker.Worker;
 import io.temporal.worker.WorkerFactory;
+import io.temporal.worker.WorkerFactoryOptions;
 import io.temporal.worker.WorkerOptions;
 
 /**
@@ -14,6 +16,18 @@ import io.temporal.worker.WorkerOptions;
  * <p>This worker polls the "crawler-task-queue" and executes crawler workflows and activities. Run
  * this class directly to start the worker.
  *
+ * <p>The number of concurrent activity slots defaults to 16 and can be raised for large crawls with
+ * the CRAWLER_MAX_CONCURRENT_ACTIVITIES environment variable. With TEMPORAL_VIRTUAL_THREADS=true
+ * activity tasks run on virtual threads and the default rises to 2000, as a fetch blocked on the
+ * network then costs a virtual thread rather than an OS thread; TEMPORAL_VIRTUAL_WORKFLOW_THREADS
+ * does the same for workflow threads. Per-run fan-out is controlled by {@link CrawlerTuning} on the
+ * workflow input. The shared HTTP client is configured from the CRAWLER_HTTP_* environment
+ * variables (see {@link CrawlerHttpSettings}).
+ *
+ * <p>Setting CRAWLER_ASYNC_COMPLETION=true makes the crawler activities complete asynchronously: an
+ * activity releases its slot as soon as its requests are sent, so the number of fetches in flight
+ * is bounded by CRAWLER_HTTP_MAX_CONCURRENT_REQUESTS rather than by activity slots.
+ *
  * <p>Usage: java com.example.temporal.workflows.crawler.CrawlerWorker
  */
 public class CrawlerWorker {
@@ -23,7 +37,17 @@ public class CrawlerWorker {
       System.getenv().getOrDefault("TEMPORAL_ADDRESS", "localhost:7233");
   private static final String NAMESPACE =
       System.getenv().getOrDefault("TEMPORAL_NAMESPACE", "default");
-  private static final int MAX_CONCURRENT_ACTIVITIES = 16;
+  private static final boolean VIRTUAL_THREADS =
+      Boolean.parseBoolean(System.getenv().getOrDefault("TEMPORAL_VIRTUAL_THREADS", "false"));
+  private static final boolean VIRTUAL_WORKFLOW_THREADS =
+      Boolean.parseBoolean(
+          System.getenv().getOrDefault("TEMPORAL_VIRTUAL_WORKFLOW_THREADS", "false"));
+  private static final int MAX_CONCURRENT_ACTIVITIES =
+      Integer.parseInt(
+          System.getenv()
+              .getOrDefault("CRAWLER_MAX_CONCURRENT_ACTIVITIES", VIRTUAL_THREADS ? "2000" : "16"));
+  private static final boolean ASYNC_COMPLETION =
+      Boolean.parseBoolean(System.getenv().getOrDefault("CRAWLER_ASYNC_COMPLETION", "false"));
 
   public static void main(String[] args) {
     // Create connection to Temporal service
@@ -36,12 +60,17 @@ public class CrawlerWorker {
     WorkflowClient client = WorkflowClient.newInstance(service, clientOptions);
 
     // Create worker factory
-    WorkerFactory factory = WorkerFactory.newInstance(client);
+    WorkerFactoryOptions factoryOptions =
+        WorkerFactoryOptions.newBuilder()
+            .setUsingVirtualWorkflowThreads(VIRTUAL_WORKFLOW_THREADS)
+            .build();
+    WorkerFactory factory = WorkerFactory.newInstance(client, factoryOptions);
 
-    // Create worker for the crawler task queue with 16 concurrent activity workers
+    // Create worker for the crawler task queue with the configured activity slots
     WorkerOptions workerOptions =
         WorkerOptions.newBuilder()
             .setMaxConcurrentActivityExecutionSize(MAX_CONCURRENT_ACTIVITIES)
+            .setUsingVirtualThreadsOnActivityWorker(VIRTUAL_THREADS)
             .build();
 
     Worker worker = factory.newWorker(TASK_QUEUE, workerOptions);
@@ -49,8 +78,16 @@ public class CrawlerWorker {
     // Register workflow implementation
     worker.registerWorkflowImplementationTypes(CrawlerWorkflowImpl.class);
 
-    // Register activity implementation
-    worker.registerActivitiesImplementations(new CrawlerActivitiesImpl());
+    // Register activity implementation with one shared HTTP client for the whole worker
+    CrawlerHttpSettings httpSettings = CrawlerHttpSettings.fromEnvironment();
+    // The JDK client reads its keep-alive timeout once per JVM, unless given on the command line
+    System.getProperties()
+        .putIfAbsent(
+            "jdk.httpclient.keepalive.timeout", String.valueOf(httpSettings.keepAliveSeconds()));
+    ActivityCompletionClient completionClient =
+        ASYNC_COMPLETION ? client.newActivityCompletionClient() : null;
+    worker.registerActivitiesImplementations(
+        new CrawlerActivitiesImpl(httpSettings, completionClient));
 
     // Start the worker
     factory.start();
@@ -60,6 +97,12 @@ public class CrawlerWorker {
     System.out.println("Namespace: " + NAMESPACE);
     System.out.println("Task Queue: " + TASK_QUEUE);
     System.out.println("Max concurrent activities: " + MAX_CONCURRENT_ACTIVITIES);
+    System.out.println("Virtual activity threads: " + VIRTUAL_THREADS);
+    System.out.println("Virtual workflow threads: " + VIRTUAL_WORKFLOW_THREADS);
+    System.out.println("Async activity completion: " + ASYNC_COMPLETION);
+    System.out.println("Max concurrent HTTP requests: " + httpSettings.maxConcurrentRequests());
+    System.out.println(
+        "Max concurrent HTTP requests per host: " + httpSettings.maxConnectionsPerHost());
     System.out.println("Press Ctrl+C to stop the worker.");
   }
 }
@@ -1,13 +1,19 @@
 package com.example.temporal.workflows.crawler;
 
+import io.temporal.workflow.QueryMethod;
+import io.temporal.workflow.SignalMethod;
+import io.temporal.workflow.UpdateMethod;
+import io.temporal.workflow.UpdateValidatorMethod;
 import io.temporal.workflow.WorkflowInterface;
 import io.temporal.workflow.WorkflowMethod;
+import java.util.List;
 
 /**
  * Workflow interface for web crawling operations.
  *
- * <p>This workflow orchestrates the crawling of multiple web pages, discovering links in a
- * breadth-first manner while respecting the maxLinks limit.
+ * <p>This workflow orchestrates the crawling of multiple web pages, keeping a window of pages in
+ * flight and always dispatching the best-ranked URL of a ready host from its priority-ranked
+ * frontier, while respecting the maxLinks limit.
  */
 @WorkflowInterface
 public interface CrawlerWorkflow {
@@ -20,4 +26,59 @@ public interface CrawlerWorkflow {
    */
   @WorkflowMethod
   CrawlerWorkflowOutput run(CrawlerWorkflowInput input);
+
+  /**
+   * Returns the live counters of the crawl without the discovered links, so it can be polled often.
+   *
+   * @return The current progress
+   */
+  @QueryMethod
+  CrawlProgress getProgress();
+
+  /**
+   * Returns a page of the discovered links, in discovery order. Links are only kept when the dedup
+   * mode is EXACT; other modes return empty pages. Works both while the crawl runs and after it has
+   * completed.
+   *
+   * @param cursor The position to start from, 0 for the first page or the previous page's
+   *     nextCursor
+   * @param pageSize The maximum number of links to return, capped at 1000
+   * @return The page of links
+   */
+  @QueryMethod
+  LinkPage getLinks(int cursor, int pageSize);
+
+  /**
+   * Adds seed URLs to a running crawl. URLs that have already been seen are ignored, new ones are
+   * queued at depth 0.
+   *
+   * @param urls The URLs to add
+   */
+  @SignalMethod
+  void addSeeds(List<String> urls);
+
+  /**
+   * Changes the concurrency window and page limit of a running crawl. Lowering maxLinks below the
+   * pages already crawled stops further dispatching; pages in flight still complete.
+   *
+   * @param limits The new limits, with 0 for values to keep
+   */
+  @UpdateMethod
+  void setLimits(CrawlLimits limits);
+
+  /**
+   * Rejects limits that are negative.
+   *
+   * @param limits The requested limits
+   */
+  @UpdateValidatorMethod(updateName = "setLimits")
+  void validateLimits(CrawlLimits limits);
+
+  /** Stops dispatching new pages. Pages in flight still complete and the crawl stays open. */
+  @SignalMethod
+  void pause();
+
+  /** Resumes dispatching after {@link #pause()}. */
+  @SignalMethod
+  void resume();
 }
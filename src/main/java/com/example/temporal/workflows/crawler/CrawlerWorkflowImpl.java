@@ -1,113 +1,478 @@
 package com.example.temporal.workflows.crawler;
 
-import io.temporal.activity.ActivityOptions;
+import com.example.temporal.common.UrlCanonicalizer;
+import io.temporal.failure.ActivityFailure;
 import io.temporal.workflow.Async;
 import io.temporal.workflow.Promise;
 import io.temporal.workflow.Workflow;
 import java.net.URI;
 import java.time.Duration;
 import java.util.ArrayList;
-import java.util.HashSet;
-import java.util.LinkedList;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.Queue;
 import java.util.Set;
 import org.slf4j.Logger;
 
 /**
  * Implementation of the crawler workflow.
  *
- * <p>This workflow implements a breadth-first web crawler that discovers links across multiple
- * pages in parallel while respecting the maxLinks limit.
+ * <p>This workflow implements a web crawler that discovers links across multiple pages in parallel
+ * while respecting the maxLinks limit. Pages are scheduled through a sliding window: as soon as any
+ * in-flight activity completes, its links are processed and the next frontier URL is dispatched, so
+ * a single slow page never stalls the rest of the crawl. With a batch size above one, each activity
+ * fetches several URLs to cut per-activity overhead.
+ *
+ * <p>The frontier is a {@link CrawlFrontier} that queues URLs per host, ranked by the input's
+ * {@link FrontierPriority}, and hands out the best-ranked URL among the hosts that are ready,
+ * holding back hosts that are at their per-host concurrency limit or still inside their politeness
+ * delay, so the window is filled with work for hosts that are ready. The default priority ranks
+ * URLs in discovery order, which crawls breadth-first. With adaptive rate control the per-host
+ * delays follow the hosts' responses (AIMD), so throughput converges to what each host sustains.
+ *
+ * <p>Every URL carries its link depth from the start URL. Links beyond the input's maximum depth
+ * are recorded but not queued, and the output reports pages, newly discovered links and fetch
+ * failures per depth.
+ *
+ * <p>A running crawl can be steered: signals add seed URLs and pause or resume dispatching, and an
+ * update changes the concurrency window and page limit. Handlers only record the request; the main
+ * loop applies it before its next dispatch, so steering never races with page processing.
+ *
+ * <p>To keep history and replay cost bounded, a run stops dispatching once it has crawled the
+ * configured number of pages or its history grows too long, drains its in-flight activities and
+ * continues as new with a {@link CrawlCheckpoint} of the remaining work.
  */
 public class CrawlerWorkflowImpl implements CrawlerWorkflow {
 
   private static final Logger logger = Workflow.getLogger(CrawlerWorkflowImpl.class);
 
-  /** Activity options with a 10-second timeout (matching Python implementation). */
-  private final ActivityOptions activityOptions =
-      ActivityOptions.newBuilder().setStartToCloseTimeout(Duration.ofSeconds(10)).build();
+  /** The largest page of links a single query returns, to keep query results small. */
+  static final int MAX_LINK_PAGE_SIZE = 1000;
+
+  /** Activity stub for executing crawler activities, built from the run's tuning. */
+  private CrawlerActivities activities;
+
+  /** Rewrites seed URLs and incoming links into their canonical form before deduplication. */
+  private UrlCanonicalizer canonicalizer;
+
+  /** The rules for which links the activities return. */
+  private LinkScope scope;
+
+  /** URLs already seen, in the representation chosen by the run's dedup settings. */
+  private UrlSeenSet seenLinks;
+
+  private final Set<String> discoveredDomains = new LinkedHashSet<>();
+
+  /** URLs waiting to be crawled, queued per host. */
+  private CrawlFrontier frontier;
+
+  /** Activities that have been dispatched but not yet processed, in dispatch order. */
+  private final List<InFlightBatch> inFlight = new ArrayList<>();
+
+  /** Pages crawled, links discovered and fetch failures by depth, and the completion rate. */
+  private final CrawlStatistics statistics = new CrawlStatistics();
+
+  private int linksCrawled;
+
+  /** The maximum depth of a crawled page, 0 for unlimited. */
+  private int maxDepth;
+
+  /** Pages dispatched by this run, used to decide when to continue as new. */
+  private int pagesThisRun;
+
+  /** The page limit, which an update may change while the crawl runs. */
+  private int maxLinks;
+
+  /** The concurrency window, which an update may change while the crawl runs. */
+  private int maxConcurrency;
 
-  /** Activity stub for executing crawler activities. */
-  private final CrawlerActivities activities =
-      Workflow.newActivityStub(CrawlerActivities.class, activityOptions);
+  /** Seed URLs received by signal and not yet queued. */
+  private final List<String> pendingSeeds = new ArrayList<>();
+
+  /** Limits received by update and not yet applied, or null. */
+  private CrawlLimits pendingLimits;
+
+  /** Whether dispatching is paused. */
+  private boolean paused;
+
+  /** Set by every signal and update so that the main loop wakes up to apply it. */
+  private boolean steered;
 
   @Override
   public CrawlerWorkflowOutput run(CrawlerWorkflowInput input) {
+    CrawlerTuning tuning = input.tuning();
     logger.info(
-        "Starting crawler workflow for URL: {} (maxLinks: {})", input.startUrl(), input.maxLinks());
-
-    Set<String> discoveredLinks = new HashSet<>();
-    Set<String> discoveredDomains = new HashSet<>();
-    Queue<String> urlsToProcess = new LinkedList<>();
-
-    // Add the start URL to the queue
-    urlsToProcess.add(input.startUrl());
-    discoveredLinks.add(input.startUrl());
-
-    int linksCrawled = 0;
-
-    while (!urlsToProcess.isEmpty() && linksCrawled < input.maxLinks()) {
-      // Process URLs in batches for parallel execution
-      List<Promise<ParseLinksOutput>> promises = new ArrayList<>();
-      List<String> currentBatch = new ArrayList<>();
-
-      // Build batch of URLs to process in parallel
-      while (!urlsToProcess.isEmpty()
-          && linksCrawled < input.maxLinks()
-          && currentBatch.size() < 10) {
-        String url = urlsToProcess.poll();
-        currentBatch.add(url);
-        linksCrawled++;
-
-        // Execute activity asynchronously
-        ParseLinksInput activityInput = new ParseLinksInput(url);
-        Promise<ParseLinksOutput> promise =
-            Async.function(activities::parseLinksFromUrl, activityInput);
-        promises.add(promise);
-      }
+        "Starting crawler workflow for URL: {} (maxLinks: {}, maxDepth: {}, maxConcurrency: {})",
+        input.startUrl(),
+        input.maxLinks(),
+        input.maxDepth(),
+        tuning.maxConcurrency());
 
-      // Wait for all promises in the batch to complete
-      for (int i = 0; i < promises.size(); i++) {
-        ParseLinksOutput output = promises.get(i).get();
-        String crawledUrl = currentBatch.get(i);
+    activities = Workflow.newActivityStub(CrawlerActivities.class, tuning.activityOptions());
+    statistics.startRun(Workflow.currentTimeMillis());
 
-        // Extract and track domain
-        String domain = extractDomain(crawledUrl);
-        if (domain != null) {
-          discoveredDomains.add(domain);
-        }
+    maxLinks = input.maxLinks();
+    maxConcurrency = tuning.maxConcurrency();
+    restore(input);
+    maxDepth = input.maxDepth();
+
+    while (true) {
+      applySteering();
 
-        // Add new links to the queue
-        for (String link : output.links()) {
-          if (!discoveredLinks.contains(link)) {
-            discoveredLinks.add(link);
-            urlsToProcess.add(link);
-
-            // Track domain for the discovered link
-            String linkDomain = extractDomain(link);
-            if (linkDomain != null) {
-              discoveredDomains.add(linkDomain);
-            }
+      // Top up the window so that up to maxConcurrency activities are always running, unless
+      // dispatching is paused, this run is due to hand over to a new one or every host with queued
+      // URLs is still cooling down
+      long now = Workflow.currentTimeMillis();
+      while (!paused
+          && !isCheckpointDue(tuning)
+          && linksCrawled < maxLinks
+          && inFlight.size() < maxConcurrency) {
+        List<FrontierUrl> batch = new ArrayList<>();
+        while (batch.size() < tuning.batchSize() && linksCrawled < maxLinks) {
+          FrontierUrl page = frontier.poll(now);
+          if (page == null) {
+            break;
           }
+          batch.add(page);
+          linksCrawled++;
+          pagesThisRun++;
+        }
+        if (batch.isEmpty()) {
+          break;
+        }
+        inFlight.add(new InFlightBatch(batch, dispatch(batch, tuning.batchSize() > 1)));
+      }
+
+      boolean hasWork = !frontier.isEmpty() && !isCheckpointDue(tuning) && linksCrawled < maxLinks;
+      if (inFlight.isEmpty() && !hasWork) {
+        break;
+      }
+
+      // Block until at least one activity finishes or the crawl is steered, then drain every
+      // completed activity in dispatch order so that processing stays deterministic on replay. If
+      // a host is only held back by its politeness delay, a durable timer wakes the workflow when
+      // that delay has passed. A paused crawl with work left waits here until it is resumed.
+      long wakeAt = hasWork && !paused ? frontier.nextReadyMillis() : -1;
+      if (wakeAt >= 0 && inFlight.size() < maxConcurrency) {
+        Workflow.await(Duration.ofMillis(Math.max(1, wakeAt - now)), this::shouldWake);
+      } else {
+        Workflow.await(this::shouldWake);
+      }
+
+      Iterator<InFlightBatch> iterator = inFlight.iterator();
+      while (iterator.hasNext()) {
+        InFlightBatch batch = iterator.next();
+        if (batch.results().isCompleted()) {
+          iterator.remove();
+          completeBatch(batch);
         }
       }
 
       logger.info(
           "Crawled {} URLs so far, discovered {} total links across {} domains",
           linksCrawled,
-          discoveredLinks.size(),
+          seenLinks.size(),
           discoveredDomains.size());
     }
 
+    // Work remains, so the loop stopped because a checkpoint is due
+    if (!frontier.isEmpty() && linksCrawled < maxLinks) {
+      logger.info(
+          "Continuing as new after {} pages in this run ({} crawled, {} in frontier)",
+          pagesThisRun,
+          linksCrawled,
+          frontier.size());
+      Workflow.continueAsNew(
+          input
+              .withLimits(maxLinks, tuning.withMaxConcurrency(maxConcurrency))
+              .withCheckpoint(checkpoint()));
+    }
+
     logger.info(
         "Crawler workflow completed. Total links crawled: {}, Total links discovered: {}, "
             + "Total domains: {}",
         linksCrawled,
-        discoveredLinks.size(),
+        seenLinks.size(),
         discoveredDomains.size());
 
-    return new CrawlerWorkflowOutput(linksCrawled, discoveredLinks, discoveredDomains);
+    return new CrawlerWorkflowOutput(
+        linksCrawled,
+        input.outputMode() == OutputMode.FULL ? seenLinks.urls() : Set.of(),
+        discoveredDomains,
+        seenLinks.size(),
+        statistics.byDepth());
+  }
+
+  @Override
+  public CrawlProgress getProgress() {
+    // Queries can arrive before the first workflow task has initialized the crawl
+    if (frontier == null) {
+      return new CrawlProgress(0, 0, 0, 0, 0, 0, 0, 0);
+    }
+    int inFlightPages = 0;
+    for (InFlightBatch batch : inFlight) {
+      inFlightPages += batch.pages().size();
+    }
+    return new CrawlProgress(
+        linksCrawled,
+        seenLinks.size(),
+        frontier.size(),
+        inFlightPages,
+        discoveredDomains.size(),
+        statistics.fetchFailures(),
+        frontier.throttledRetries(),
+        statistics.pagesPerMinute());
+  }
+
+  @Override
+  public LinkPage getLinks(int cursor, int pageSize) {
+    if (seenLinks == null) {
+      return new LinkPage(List.of(), 0, 0);
+    }
+    List<String> links = seenLinks.urls(cursor, Math.min(pageSize, MAX_LINK_PAGE_SIZE));
+    int start = Math.min(Math.max(0, cursor), seenLinks.size());
+    return new LinkPage(links, start + links.size(), seenLinks.size());
+  }
+
+  @Override
+  public void addSeeds(List<String> urls) {
+    pendingSeeds.addAll(urls);
+    steered = true;
+  }
+
+  @Override
+  public void setLimits(CrawlLimits limits) {
+    pendingLimits = limits;
+    steered = true;
+  }
+
+  @Override
+  public void validateLimits(CrawlLimits limits) {
+    if (limits == null || limits.maxConcurrency() < 0 || limits.maxLinks() < 0) {
+      throw new IllegalArgumentException("Limits must not be negative");
+    }
+  }
+
+  @Override
+  public void pause() {
+    paused = true;
+    steered = true;
+  }
+
+  @Override
+  public void resume() {
+    paused = false;
+    steered = true;
+  }
+
+  /** Queues the seed URLs and applies the limits received since the last pass of the main loop. */
+  private void applySteering() {
+    steered = false;
+    for (String seed : pendingSeeds) {
+      String url = canonical(seed);
+      if (seenLinks.add(url)) {
+        frontier.add(url, 0);
+        statistics.count(0, 0, 1, 0);
+      }
+    }
+    pendingSeeds.clear();
+    if (pendingLimits != null) {
+      if (pendingLimits.maxConcurrency() > 0) {
+        maxConcurrency = pendingLimits.maxConcurrency();
+      }
+      if (pendingLimits.maxLinks() > 0) {
+        maxLinks = pendingLimits.maxLinks();
+      }
+      logger.info("Crawl limits changed: maxConcurrency {}, maxLinks {}", maxConcurrency, maxLinks);
+      pendingLimits = null;
+    }
+  }
+
+  /**
+   * Initializes the crawl state, either from the start URL or from a previous run's checkpoint.
+   *
+   * @param input The workflow input
+   */
+  private void restore(CrawlerWorkflowInput input) {
+    CrawlerTuning tuning = input.tuning();
+    canonicalizer = new UrlCanonicalizer(input.canonicalization());
+    scope = input.scope();
+    frontier =
+        new CrawlFrontier(
+            tuning.perHostMaxConcurrency(),
+            tuning.perHostDelayMillis(),
+            tuning.adaptiveRateControl(),
+            input.priority(),
+            input.startUrl());
+
+    CrawlCheckpoint checkpoint = input.checkpoint();
+    if (checkpoint == null) {
+      seenLinks = UrlSeenSet.create(input.dedup());
+
+      // Add the start URL to the queue
+      String startUrl = canonical(input.startUrl());
+      frontier.add(startUrl, 0);
+      seenLinks.add(startUrl);
+      statistics.count(0, 0, 1, 0);
+      return;
+    }
+
+    seenLinks = UrlSeenSet.restore(checkpoint.seenLinks(), input.dedup());
+    for (FrontierUrl page : checkpoint.frontier()) {
+      frontier.add(page);
+    }
+    frontier.restoreRates(checkpoint.hostRates(), Workflow.currentTimeMillis());
+    paused |= checkpoint.paused();
+    statistics.restore(checkpoint.depthStats());
+    discoveredDomains.addAll(checkpoint.discoveredDomains());
+    linksCrawled = checkpoint.linksCrawled();
+    logger.info(
+        "Resuming crawl from checkpoint: {} crawled, {} in frontier",
+        linksCrawled,
+        frontier.size());
+  }
+
+  /**
+   * Captures the state needed to resume the crawl in a new run.
+   *
+   * @return The checkpoint for continue-as-new
+   */
+  private CrawlCheckpoint checkpoint() {
+    return CrawlCheckpoint.bounded(
+        frontier,
+        seenLinks.snapshot(),
+        new ArrayList<>(discoveredDomains),
+        linksCrawled,
+        frontier.rates(Workflow.currentTimeMillis()),
+        statistics.byDepth(),
+        paused);
+  }
+
+  /**
+   * Decides whether this run has done enough work to continue as new.
+   *
+   * @param tuning The tuning for this run
+   * @return true if no further pages should be dispatched by this run
+   */
+  private boolean isCheckpointDue(CrawlerTuning tuning) {
+    return pagesThisRun >= tuning.checkpointEveryPages()
+        || Workflow.getInfo().getHistoryLength() >= tuning.checkpointMaxHistoryEvents()
+        || Workflow.getInfo().isContinueAsNewSuggested();
+  }
+
+  private boolean shouldWake() {
+    return steered || inFlight.stream().anyMatch(batch -> batch.results().isCompleted());
+  }
+
+  /**
+   * Starts the parse activity for a batch of URLs. Without batching each URL gets its own
+   * parseLinksFromUrl activity, otherwise parseLinksFromUrls covers the whole batch.
+   *
+   * @param pages The pages to crawl
+   * @param batched Whether the run uses the batched activity
+   * @return The pending per-page results, in the same order as the pages
+   */
+  private Promise<List<ParseLinksOutput>> dispatch(List<FrontierUrl> pages, boolean batched) {
+    if (!batched) {
+      ParseLinksInput activityInput =
+          new ParseLinksInput(pages.get(0).url(), canonicalizer.options(), scope);
+      return Async.function(activities::parseLinksFromUrl, activityInput).thenApply(List::of);
+    }
+
+    List<ParseLinksInput> inputs = new ArrayList<>();
+    for (FrontierUrl page : pages) {
+      inputs.add(new ParseLinksInput(page.url(), canonicalizer.options(), scope));
+    }
+    return Async.function(activities::parseLinksFromUrls, new ParseLinksBatchInput(inputs))
+        .thenApply(ParseLinksBatchOutput::results);
+  }
+
+  /**
+   * Processes a completed activity. Batches whose activity exhausted its retry attempts are logged
+   * and skipped so that one unreachable page does not fail the whole crawl. Each page's response
+   * feeds the per-host rate control, and pages a host throttled may go back to the frontier.
+   *
+   * @param batch The batch whose activity has completed
+   */
+  private void completeBatch(InFlightBatch batch) {
+    for (FrontierUrl page : batch.pages()) {
+      frontier.release(page.url());
+    }
+    long now = Workflow.currentTimeMillis();
+    statistics.recordCompletions(batch.pages().size(), now);
+
+    List<ParseLinksOutput> results;
+    try {
+      results = batch.results().get();
+    } catch (ActivityFailure e) {
+      logger.warn("Giving up on URLs {} after retries: {}", batch.urls(), e.getMessage());
+      for (FrontierUrl page : batch.pages()) {
+        statistics.count(page.depth(), 1, 0, 1);
+      }
+      return;
+    }
+    for (int i = 0; i < batch.pages().size(); i++) {
+      FrontierUrl page = batch.pages().get(i);
+      ParseLinksOutput output = results.get(i);
+      frontier.recordResponse(page.url(), output, now);
+      if (frontier.requeueIfThrottled(page, output)) {
+        linksCrawled--;
+        continue;
+      }
+      statistics.count(page.depth(), 1, 0, output.failed() ? 1 : 0);
+      processPage(page, output);
+    }
+  }
+
+  /**
+   * Records the domain of a crawled page and enqueues any links that have not been seen before.
+   *
+   * @param crawled The page that was crawled
+   * @param output The links parsed from the crawled page
+   */
+  private void processPage(FrontierUrl crawled, ParseLinksOutput output) {
+    // Extract and track domain
+    String domain = extractDomain(crawled.url());
+    if (domain != null) {
+      discoveredDomains.add(domain);
+    }
+
+    // Add new links to the queue, unless they lie beyond the maximum depth
+    int depth = crawled.depth() + 1;
+    int discovered = 0;
+    for (String rawLink : output.links()) {
+      // Activities already return canonical links, this covers workers on older versions
+      String link = canonical(rawLink);
+      if (seenLinks.add(link)) {
+        discovered++;
+        if (maxDepth == 0 || depth <= maxDepth) {
+          frontier.add(link, depth);
+        }
+
+        // Track domain for the discovered link
+        String linkDomain = extractDomain(link);
+        if (linkDomain != null) {
+          discoveredDomains.add(linkDomain);
+        }
+      } else {
+        // Links to a page that is still queued raise its in-link priority
+        frontier.addInLink(link);
+      }
+    }
+    if (discovered > 0) {
+      statistics.count(depth, 0, discovered, 0);
+    }
+  }
+
+  /**
+   * Canonicalizes a URL, keeping URLs that cannot be canonicalized as they are.
+   *
+   * @param url The URL to canonicalize
+   * @return The canonical URL
+   */
+  private String canonical(String url) {
+    String canonicalUrl = canonicalizer.canonicalize(url);
+    return canonicalUrl != null ? canonicalUrl : url;
   }
 
   /**
@@ -116,7 +481,7 @@ public class CrawlerWorkflowImpl implements CrawlerWorkflow {
    * @param url The URL to extract the domain from
    * @return The domain, or null if extraction fails
    */
-  private String extractDomain(String url) {
+  static String extractDomain(String url) {
     try {
       URI uri = new URI(url);
       return uri.getHost();
@@ -1,12 +1,244 @@
 package com.example.temporal.workflows.crawler;
 
+import com.example.temporal.common.CanonicalizationOptions;
+
 /**
  * Input data for the crawler workflow.
  *
  * @param startUrl The URL to start crawling from
  * @param maxLinks The maximum number of links to crawl (default: 10)
+ * @param maxDepth The maximum number of links between the start URL and a crawled page, 0 for
+ *     unlimited (default: 0)
+ * @param tuning The concurrency, timeout and retry settings for this run
+ * @param dedup The seen-set settings (default: exact)
+ * @param canonicalization The query rules for canonicalizing URLs (default: strip tracking and
+ *     session parameters)
+ * @param scope The rules for which links the activities return (default: every http(s) link)
+ * @param priority The ranking of frontier URLs (default: FIFO, i.e. breadth-first)
+ * @param outputMode Whether the result carries the discovered links (default: FULL)
+ * @param checkpoint The state carried over from a previous run, or null for a fresh crawl
  */
-public record CrawlerWorkflowInput(String startUrl, int maxLinks) {
+public record CrawlerWorkflowInput(
+    String startUrl,
+    int maxLinks,
+    int maxDepth,
+    CrawlerTuning tuning,
+    SeenSetOptions dedup,
+    CanonicalizationOptions canonicalization,
+    LinkScope scope,
+    FrontierPriority priority,
+    OutputMode outputMode,
+    CrawlCheckpoint checkpoint) {
+
+  /** Falls back to the default settings when none are provided. */
+  public CrawlerWorkflowInput {
+    maxDepth = Math.max(0, maxDepth);
+    if (tuning == null) {
+      tuning = CrawlerTuning.defaults();
+    }
+    if (dedup == null) {
+      dedup = SeenSetOptions.exact();
+    }
+    if (canonicalization == null) {
+      canonicalization = CanonicalizationOptions.defaults();
+    }
+    if (scope == null) {
+      scope = LinkScope.all();
+    }
+    if (priority == null) {
+      priority = FrontierPriority.fifo();
+    }
+    if (outputMode == null) {
+      outputMode = OutputMode.FULL;
+    }
+  }
+
+  /**
+   * Constructor for a fresh crawl with custom deduplication.
+   *
+   * @param startUrl The URL to start crawling from
+   * @param maxLinks The maximum number of links to crawl
+   * @param tuning The concurrency, timeout and retry settings for this run
+   * @param dedup The seen-set settings
+   */
+  public CrawlerWorkflowInput(
+      String startUrl, int maxLinks, CrawlerTuning tuning, SeenSetOptions dedup) {
+    this(
+        startUrl,
+        maxLinks,
+        0,
+        tuning,
+        dedup,
+        CanonicalizationOptions.defaults(),
+        LinkScope.all(),
+        FrontierPriority.fifo(),
+        OutputMode.FULL,
+        null);
+  }
+
+  /**
+   * Constructor for a fresh crawl.
+   *
+   * @param startUrl The URL to start crawling from
+   * @param maxLinks The maximum number of links to crawl
+   * @param tuning The concurrency, timeout and retry settings for this run
+   */
+  public CrawlerWorkflowInput(String startUrl, int maxLinks, CrawlerTuning tuning) {
+    this(startUrl, maxLinks, tuning, SeenSetOptions.exact());
+  }
+
+  /**
+   * Returns the input for the next run of a crawl that continues as new.
+   *
+   * @param nextCheckpoint The state to carry over
+   * @return A copy of this input carrying the given checkpoint
+   */
+  public CrawlerWorkflowInput withCheckpoint(CrawlCheckpoint nextCheckpoint) {
+    return new CrawlerWorkflowInput(
+        startUrl,
+        maxLinks,
+        maxDepth,
+        tuning,
+        dedup,
+        canonicalization,
+        scope,
+        priority,
+        outputMode,
+        nextCheckpoint);
+  }
+
+  /**
+   * Returns a copy of this input that ranks frontier URLs with the given priority.
+   *
+   * @param frontierPriority The ranking of frontier URLs
+   * @return The updated input
+   */
+  public CrawlerWorkflowInput withPriority(FrontierPriority frontierPriority) {
+    return new CrawlerWorkflowInput(
+        startUrl,
+        maxLinks,
+        maxDepth,
+        tuning,
+        dedup,
+        canonicalization,
+        scope,
+        frontierPriority,
+        outputMode,
+        checkpoint);
+  }
+
+  /**
+   * Returns a copy of this input that only crawls pages up to the given depth.
+   *
+   * @param depth The maximum number of links between the start URL and a crawled page, 0 for
+   *     unlimited
+   * @return The updated input
+   */
+  public CrawlerWorkflowInput withMaxDepth(int depth) {
+    return new CrawlerWorkflowInput(
+        startUrl,
+        maxLinks,
+        depth,
+        tuning,
+        dedup,
+        canonicalization,
+        scope,
+        priority,
+        outputMode,
+        checkpoint);
+  }
+
+  /**
+   * Returns a copy of this input with the given page limit and tuning, e.g. after a running crawl
+   * was retuned.
+   *
+   * @param links The maximum number of links to crawl
+   * @param runTuning The concurrency, timeout and retry settings
+   * @return The updated input
+   */
+  public CrawlerWorkflowInput withLimits(int links, CrawlerTuning runTuning) {
+    return new CrawlerWorkflowInput(
+        startUrl,
+        links,
+        maxDepth,
+        runTuning,
+        dedup,
+        canonicalization,
+        scope,
+        priority,
+        outputMode,
+        checkpoint);
+  }
+
+  /**
+   * Returns a copy of this input with the given URL canonicalization rules.
+   *
+   * @param options The query rules for canonicalizing URLs
+   * @return The updated input
+   */
+  public CrawlerWorkflowInput withCanonicalization(CanonicalizationOptions options) {
+    return new CrawlerWorkflowInput(
+        startUrl,
+        maxLinks,
+        maxDepth,
+        tuning,
+        dedup,
+        options,
+        scope,
+        priority,
+        outputMode,
+        checkpoint);
+  }
+
+  /**
+   * Returns a copy of this input whose activities only return links in the given scope.
+   *
+   * @param linkScope The rules for which links the activities return
+   * @return The updated input
+   */
+  public CrawlerWorkflowInput withScope(LinkScope linkScope) {
+    return new CrawlerWorkflowInput(
+        startUrl,
+        maxLinks,
+        maxDepth,
+        tuning,
+        dedup,
+        canonicalization,
+        linkScope,
+        priority,
+        outputMode,
+        checkpoint);
+  }
+
+  /**
+   * Returns a copy of this input with the given output mode.
+   *
+   * @param mode Whether the result carries the discovered links
+   * @return The updated input
+   */
+  public CrawlerWorkflowInput withOutputMode(OutputMode mode) {
+    return new CrawlerWorkflowInput(
+        startUrl,
+        maxLinks,
+        maxDepth,
+        tuning,
+        dedup,
+        canonicalization,
+        scope,
+        priority,
+        mode,
+        checkpoint);
+  }
+
+  /**
+   * Constructor with default tuning.
+   *
+   * @param startUrl The URL to start crawling from
+   * @param maxLinks The maximum number of links to crawl
+   */
+  public CrawlerWorkflowInput(String startUrl, int maxLinks) {
+    this(startUrl, maxLinks, CrawlerTuning.defaults());
+  }
 
   /**
    * Constructor with default maxLinks value of 10.
@@ -1,13 +1,45 @@
 package com.example.temporal.workflows.crawler;
 
+import java.util.List;
 import java.util.Set;
 
 /**
  * Output data from the crawler workflow.
  *
  * @param totalLinksCrawled The total number of links that were crawled
- * @param linksDiscovered The set of all unique links discovered
+ * @param linksDiscovered The set of all unique links discovered (empty unless dedup mode is EXACT
+ *     and output mode is FULL)
  * @param domainsDiscovered The set of all unique domains discovered
+ * @param totalLinksDiscovered The number of unique links discovered, in every dedup mode
+ * @param depthStats The pages crawled, links discovered and fetch failures per depth, by depth
  */
 public record CrawlerWorkflowOutput(
-    int totalLinksCrawled, Set<String> linksDiscovered, Set<String> domainsDiscovered) {}
+    int totalLinksCrawled,
+    Set<String> linksDiscovered,
+    Set<String> domainsDiscovered,
+    int totalLinksDiscovered,
+    List<DepthStats> depthStats) {
+
+  /** Treats missing depth statistics as empty. */
+  public CrawlerWorkflowOutput {
+    if (depthStats == null) {
+      depthStats = List.of();
+    }
+  }
+
+  /**
+   * Constructor for an output without depth statistics.
+   *
+   * @param totalLinksCrawled The total number of links that were crawled
+   * @param linksDiscovered The set of all unique links discovered
+   * @param domainsDiscovered The set of all unique domains discovered
+   * @param totalLinksDiscovered The number of unique links discovered
+   */
+  public CrawlerWorkflowOutput(
+      int totalLinksCrawled,
+      Set<String> linksDiscovered,
+      Set<String> domainsDiscovered,
+      int totalLinksDiscovered) {
+    this(totalLinksCrawled, linksDiscovered, domainsDiscovered, totalLinksDiscovered, List.of());
+  }
+}
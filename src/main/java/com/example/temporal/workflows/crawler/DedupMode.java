@@ -0,0 +1,13 @@
+package com.example.temporal.workflows.crawler;
+
+/** How the crawler workflow remembers which URLs it has already seen. */
+public enum DedupMode {
+  /** Keeps every URL as a string. Exact, and the only mode that can report every link. */
+  EXACT,
+
+  /** Keeps a 64-bit fingerprint per URL. Collisions are negligible below billions of URLs. */
+  FINGERPRINT,
+
+  /** Keeps a fixed-size Bloom filter sized for an expected URL count and false-positive rate. */
+  BLOOM
+}
@@ -0,0 +1,27 @@
+package com.example.temporal.workflows.crawler;
+
+/**
+ * Crawl statistics for one link depth, where the start URL is depth 0.
+ *
+ * @param depth The number of links between the start URL and the pages counted here
+ * @param pagesCrawled The pages at this depth that were fetched, including failed fetches
+ * @param linksDiscovered The unique URLs first found at this depth, including those beyond the
+ *     maximum depth that were not queued
+ * @param fetchFailures The pages at this depth whose fetch failed or returned an error status
+ */
+public record DepthStats(int depth, int pagesCrawled, int linksDiscovered, int fetchFailures) {
+
+  /**
+   * Adds the counts of another record for the same depth.
+   *
+   * @param other The counts to add
+   * @return The combined statistics
+   */
+  public DepthStats plus(DepthStats other) {
+    return new DepthStats(
+        depth,
+        pagesCrawled + other.pagesCrawled,
+        linksDiscovered + other.linksDiscovered,
+        fetchFailures + other.fetchFailures);
+  }
+}
@@ -0,0 +1,25 @@
+package com.example.temporal.workflows.crawler;
+
+import java.util.Comparator;
+
+/** A URL queued in the {@link CrawlFrontier}, with its rank. */
+final class FrontierEntry {
+
+  /** Ranks queued URLs: best score first, in insertion order among equal scores. */
+  static final Comparator<FrontierEntry> RANK =
+      Comparator.<FrontierEntry>comparingDouble(entry -> -entry.score)
+          .thenComparingLong(entry -> entry.sequence);
+
+  final String url;
+  final int depth;
+  final long sequence;
+  int inLinks;
+  double score;
+
+  FrontierEntry(String url, int depth, int inLinks, long sequence) {
+    this.url = url;
+    this.depth = depth;
+    this.inLinks = inLinks;
+    this.sequence = sequence;
+  }
+}
@@ -0,0 +1,58 @@
+package com.example.temporal.workflows.crawler;
+
+import java.util.List;
+
+/**
+ * How the crawler ranks the URLs waiting in its frontier.
+ *
+ * <p>Each queued URL gets the score {@code inLinkWeight * inLinks - depthWeight * depth +
+ * sameHostWeight (if on the start URL's host) + the scores of all matching patterns}, and the
+ * highest-scoring URL among the hosts that are ready is crawled next. Equal scores are crawled in
+ * discovery order, so the default of all-zero weights gives the breadth-first order of a FIFO
+ * queue.
+ *
+ * @param depthWeight The score subtracted per link of depth, to prefer shallow pages
+ * @param sameHostWeight The score added to URLs on the start URL's host
+ * @param inLinkWeight The score added per additional link to a URL found while it is queued
+ * @param patterns Scores for URLs matching regular expressions
+ */
+public record FrontierPriority(
+    double depthWeight,
+    double sameHostWeight,
+    double inLinkWeight,
+    List<UrlPatternScore> patterns) {
+
+  /** Treats missing patterns as none. */
+  public FrontierPriority {
+    patterns = patterns == null ? List.of() : List.copyOf(patterns);
+  }
+
+  /**
+   * Returns the default ranking, which crawls URLs in the order they were discovered.
+   *
+   * @return The FIFO ranking
+   */
+  public static FrontierPriority fifo() {
+    return new FrontierPriority(0, 0, 0, List.of());
+  }
+
+  /**
+   * Returns a best-first ranking that prefers shallow pages on the start host that many pages link
+   * to.
+   *
+   * @return A ranking with unit depth, same-host and in-link weights
+   */
+  public static FrontierPriority bestFirst() {
+    return new FrontierPriority(1, 1, 1, List.of());
+  }
+
+  /**
+   * Returns a copy of this ranking with the given pattern scores.
+   *
+   * @param patternScores Scores for URLs matching regular expressions
+   * @return The updated ranking
+   */
+  public FrontierPriority withPatterns(List<UrlPatternScore> patternScores) {
+    return new FrontierPriority(depthWeight, sameHostWeight, inLinkWeight, patternScores);
+  }
+}
@@ -0,0 +1,23 @@
+package com.example.temporal.workflows.crawler;
+
+/**
+ * A URL in the crawl frontier.
+ *
+ * @param url The URL to crawl
+ * @param depth The number of links between the start URL and this URL
+ * @param inLinks The number of further links to this URL found while it was queued
+ * @param throttledRetries The number of times a host already throttled this URL
+ */
+public record FrontierUrl(String url, int depth, int inLinks, int throttledRetries) {
+
+  /**
+   * Creates a frontier URL that has not been throttled.
+   *
+   * @param url The URL to crawl
+   * @param depth The number of links between the start URL and this URL
+   * @param inLinks The number of further links to this URL found while it was queued
+   */
+  public FrontierUrl(String url, int depth, int inLinks) {
+    this(url, depth, inLinks, 0);
+  }
+}
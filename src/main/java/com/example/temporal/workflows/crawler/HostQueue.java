@@ -0,0 +1,22 @@
+package com.example.temporal.workflows.crawler;
+
+import java.util.NavigableSet;
+import java.util.TreeSet;
+
+/** Queue and scheduling state of one host in the {@link CrawlFrontier}. */
+final class HostQueue {
+
+  /** Queued URLs, best score first and in insertion order among equal scores. */
+  final NavigableSet<FrontierEntry> urls = new TreeSet<>(FrontierEntry.RANK);
+
+  int inFlight;
+  long nextDispatchMillis;
+  long delayMillis;
+  double latencyMillis;
+  int latencySamples;
+  long crawlDelayMillis;
+
+  HostQueue(long delayMillis) {
+    this.delayMillis = delayMillis;
+  }
+}
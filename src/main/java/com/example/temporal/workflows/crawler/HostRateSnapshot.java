@@ -0,0 +1,20 @@
+package com.example.temporal.workflows.crawler;
+
+/**
+ * Rate state of one host, carried across continue-as-new.
+ *
+ * @param host The host name
+ * @param delayMillis The current delay between dispatches to the host
+ * @param latencyMillis The smoothed response latency of the host
+ * @param latencySamples The number of responses the latency is based on
+ * @param crawlDelayMillis The Crawl-delay of the host's robots.txt, 0 if none was given
+ * @param holdMillis How much longer the host is held back, by its delay, a Retry-After or an
+ *     unavailable robots.txt, relative to the workflow time of the checkpoint
+ */
+public record HostRateSnapshot(
+    String host,
+    long delayMillis,
+    double latencyMillis,
+    int latencySamples,
+    long crawlDelayMillis,
+    long holdMillis) {}
@@ -0,0 +1,246 @@
+package com.example.temporal.workflows.crawler;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * Streaming extractor for the href attributes of anchor tags.
+ *
+ * <p>The extractor is a byte-level state machine that is fed the response body chunk by chunk and
+ * emits each raw href value as soon as it has been read, so a page is scanned once and never held
+ * in memory as a whole. It understands double-quoted, single-quoted and unquoted attribute values
+ * and matches tag and attribute names case-insensitively. Input is assumed to be in an
+ * ASCII-compatible encoding; href values are decoded as UTF-8. An instance is not thread-safe and
+ * handles a single document.
+ */
+final class HrefExtractor {
+
+  /** Default size of the scan buffer in bytes. */
+  static final int DEFAULT_BUFFER_SIZE = 8 * 1024;
+
+  /** Href values longer than this are dropped rather than buffered. */
+  static final int MAX_HREF_LENGTH = 8 * 1024;
+
+  private static final byte[] HREF = {'h', 'r', 'e', 'f'};
+  private static final int MAX_NAME_LENGTH = 16;
+
+  private enum State {
+    TEXT,
+    TAG_OPEN,
+    TAG_NAME,
+    SKIP_TAG,
+    BEFORE_ATTRIBUTE,
+    ATTRIBUTE_NAME,
+    AFTER_ATTRIBUTE_NAME,
+    BEFORE_VALUE,
+    QUOTED_VALUE,
+    UNQUOTED_VALUE
+  }
+
+  private final Consumer<String> sink;
+  private final byte[] buffer;
+  private final byte[] name = new byte[MAX_NAME_LENGTH];
+  private byte[] value = new byte[64];
+
+  private State state = State.TEXT;
+  private int nameLength;
+  private int valueLength;
+  private byte quote;
+  private boolean capturing;
+  private boolean overflowed;
+
+  /**
+   * Creates an extractor with the default buffer size.
+   *
+   * @param sink Receives each raw href value, in document order
+   */
+  HrefExtractor(Consumer<String> sink) {
+    this(sink, DEFAULT_BUFFER_SIZE);
+  }
+
+  /**
+   * Creates an extractor.
+   *
+   * @param sink Receives each raw href value, in document order
+   * @param bufferSize The size of the buffer used to scan non-array byte buffers
+   */
+  HrefExtractor(Consumer<String> sink, int bufferSize) {
+    this.sink = sink;
+    this.buffer = new byte[bufferSize];
+  }
+
+  /**
+   * Scans the remaining bytes of a buffer, consuming them.
+   *
+   * @param chunk The next chunk of the document
+   */
+  void feed(ByteBuffer chunk) {
+    if (chunk.hasArray()) {
+      feed(chunk.array(), chunk.arrayOffset() + chunk.position(), chunk.remaining());
+      chunk.position(chunk.limit());
+      return;
+    }
+    while (chunk.hasRemaining()) {
+      int length = Math.min(buffer.length, chunk.remaining());
+      chunk.get(buffer, 0, length);
+      feed(buffer, 0, length);
+    }
+  }
+
+  /**
+   * Scans a range of bytes.
+   *
+   * @param bytes The array holding the next chunk of the document
+   * @param offset The start of the chunk
+   * @param length The number of bytes in the chunk
+   */
+  void feed(byte[] bytes, int offset, int length) {
+    for (int i = offset; i < offset + length; i++) {
+      step(bytes[i]);
+    }
+  }
+
+  /** Signals the end of the document, emitting an unquoted href that ran to the end of input. */
+  void finish() {
+    if (state == State.UNQUOTED_VALUE) {
+      endValue();
+    }
+    state = State.TEXT;
+  }
+
+  private void step(byte b) {
+    switch (state) {
+      case TEXT -> {
+        if (b == '<') {
+          state = State.TAG_OPEN;
+        }
+      }
+      case TAG_OPEN -> {
+        if (b == 'a' || b == 'A') {
+          state = State.TAG_NAME;
+        } else if (b == '<') {
+          state = State.TAG_OPEN;
+        } else {
+          state = b == '>' ? State.TEXT : State.SKIP_TAG;
+        }
+      }
+      case TAG_NAME -> {
+        if (isWhitespace(b)) {
+          state = State.BEFORE_ATTRIBUTE;
+        } else {
+          // "<a>" has no attributes and anything else ("<abbr", "<area") is another tag
+          state = b == '>' ? State.TEXT : State.SKIP_TAG;
+        }
+      }
+      case SKIP_TAG -> {
+        if (b == '>') {
+          state = State.TEXT;
+        }
+      }
+      case BEFORE_ATTRIBUTE -> beforeAttribute(b);
+      case ATTRIBUTE_NAME -> {
+        if (b == '=') {
+          state = State.BEFORE_VALUE;
+        } else if (isWhitespace(b)) {
+          state = State.AFTER_ATTRIBUTE_NAME;
+        } else if (b == '>') {
+          state = State.TEXT;
+        } else if (b == '/') {
+          state = State.BEFORE_ATTRIBUTE;
+        } else {
+          appendName(b);
+        }
+      }
+      case AFTER_ATTRIBUTE_NAME -> {
+        if (b == '=') {
+          state = State.BEFORE_VALUE;
+        } else if (!isWhitespace(b)) {
+          beforeAttribute(b);
+        }
+      }
+      case BEFORE_VALUE -> beforeValue(b);
+      case QUOTED_VALUE -> {
+        if (b == quote) {
+          endValue();
+          state = State.BEFORE_ATTRIBUTE;
+        } else {
+          appendValue(b);
+        }
+      }
+      case UNQUOTED_VALUE -> {
+        if (isWhitespace(b) || b == '>') {
+          endValue();
+          state = b == '>' ? State.TEXT : State.BEFORE_ATTRIBUTE;
+        } else {
+          appendValue(b);
+        }
+      }
+    }
+  }
+
+  private void beforeAttribute(byte b) {
+    if (b == '>') {
+      state = State.TEXT;
+    } else if (!isWhitespace(b) && b != '/') {
+      nameLength = 0;
+      appendName(b);
+      state = State.ATTRIBUTE_NAME;
+    }
+  }
+
+  private void beforeValue(byte b) {
+    if (isWhitespace(b)) {
+      return;
+    }
+    if (b == '>') {
+      state = State.TEXT;
+      return;
+    }
+
+    capturing = nameLength == HREF.length && Arrays.equals(name, 0, nameLength, HREF, 0, 4);
+    valueLength = 0;
+    overflowed = false;
+    if (b == '"' || b == '\'') {
+      quote = b;
+      state = State.QUOTED_VALUE;
+    } else {
+      state = State.UNQUOTED_VALUE;
+      appendValue(b);
+    }
+  }
+
+  private void appendName(byte b) {
+    // Names longer than the buffer cannot be "href", so one extra byte is enough to rule them out
+    if (nameLength < MAX_NAME_LENGTH) {
+      name[nameLength] = b >= 'A' && b <= 'Z' ? (byte) (b + ('a' - 'A')) : b;
+      nameLength++;
+    }
+  }
+
+  private void appendValue(byte b) {
+    if (!capturing || overflowed) {
+      return;
+    }
+    if (valueLength == MAX_HREF_LENGTH) {
+      overflowed = true;
+      return;
+    }
+    if (valueLength == value.length) {
+      value = Arrays.copyOf(value, Math.min(value.length * 2, MAX_HREF_LENGTH));
+    }
+    value[valueLength++] = b;
+  }
+
+  private void endValue() {
+    if (capturing && !overflowed) {
+      sink.accept(new String(value, 0, valueLength, StandardCharsets.UTF_8).strip());
+    }
+    capturing = false;
+  }
+
+  private static boolean isWhitespace(byte b) {
+    return b == ' ' || b == '\t' || b == '\n' || b == '\r' || b == '\f';
+  }
+}
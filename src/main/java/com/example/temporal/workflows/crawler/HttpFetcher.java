@@ -0,0 +1,128 @@
+package com.example.temporal.workflows.crawler;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sends the crawler's requests over the worker's shared {@link HttpClient}, capping the requests in
+ * flight, in total and per host, and putting a deadline on each complete response.
+ *
+ * <p>The client's request timeout only bounds the wait for the response headers. A server that
+ * sends headers and then stalls the body would otherwise hold its request permit, and any activity
+ * thread waiting for the page, indefinitely. Each request is therefore cancelled, which aborts its
+ * exchange, if the full response has not arrived within the response timeout, and its permit is
+ * released however the request ends.
+ */
+final class HttpFetcher {
+
+  /** Cancels requests that miss their deadline; shared by all fetchers of the JVM. */
+  private static final ScheduledThreadPoolExecutor DEADLINES = newDeadlineScheduler();
+
+  private final HttpClient httpClient;
+  private final Duration requestTimeout;
+  private final long responseTimeoutMillis;
+  private final RequestPermits requestPermits;
+
+  /**
+   * Creates a fetcher.
+   *
+   * @param settings The HTTP client settings
+   */
+  HttpFetcher(CrawlerHttpSettings settings) {
+    this.httpClient = settings.newHttpClient();
+    this.requestTimeout = Duration.ofMillis(settings.requestTimeoutMillis());
+    this.responseTimeoutMillis = settings.responseTimeoutMillis();
+    this.requestPermits =
+        new RequestPermits(settings.maxConcurrentRequests(), settings.maxConnectionsPerHost());
+  }
+
+  /**
+   * Starts a GET request with the crawler's user agent and header timeout.
+   *
+   * @param uri The URL to request
+   * @return The request builder
+   */
+  HttpRequest.Builder newRequest(URI uri) {
+    return HttpRequest.newBuilder(uri)
+        .GET()
+        .header("User-Agent", CrawlerActivitiesImpl.USER_AGENT)
+        .timeout(requestTimeout);
+  }
+
+  /**
+   * Sends a request once a request permit for its host is available. The calling thread never
+   * waits: if no permit is free, the request is sent by the thread that releases one.
+   *
+   * @param request The request to send
+   * @param bodyHandler Consumes the response body
+   * @param <T> The body type
+   * @return The response, or a failure with an {@link HttpTimeoutException} if it did not arrive in
+   *     full within the response timeout
+   */
+  <T> CompletableFuture<HttpResponse<T>> send(
+      HttpRequest request, HttpResponse.BodyHandler<T> bodyHandler) {
+    String host = hostKey(request.uri());
+    return requestPermits
+        .acquire(host)
+        .thenCompose(permit -> sendWithPermit(request, bodyHandler, host));
+  }
+
+  private <T> CompletableFuture<HttpResponse<T>> sendWithPermit(
+      HttpRequest request, HttpResponse.BodyHandler<T> bodyHandler, String host) {
+    CompletableFuture<HttpResponse<T>> response;
+    try {
+      response = httpClient.sendAsync(request, bodyHandler);
+    } catch (RuntimeException e) {
+      requestPermits.release(host);
+      return CompletableFuture.failedFuture(e);
+    }
+    // Cancelling the client's own future aborts the exchange, including a stalled body
+    ScheduledFuture<?> deadline =
+        DEADLINES.schedule(
+            () -> response.cancel(true), responseTimeoutMillis, TimeUnit.MILLISECONDS);
+
+    CompletableFuture<HttpResponse<T>> result = new CompletableFuture<>();
+    response.whenComplete(
+        (value, error) -> {
+          deadline.cancel(false);
+          requestPermits.release(host);
+          if (error == null) {
+            result.complete(value);
+          } else if (response.isCancelled()) {
+            result.completeExceptionally(
+                new HttpTimeoutException(
+                    "No complete response within " + responseTimeoutMillis + " ms"));
+          } else {
+            result.completeExceptionally(error);
+          }
+        });
+    return result;
+  }
+
+  /** Keys per-host permits by origin, as connections are pooled per scheme, host and port. */
+  private static String hostKey(URI uri) {
+    String origin = RobotsCache.origin(uri);
+    return origin == null ? "" : origin;
+  }
+
+  private static ScheduledThreadPoolExecutor newDeadlineScheduler() {
+    ScheduledThreadPoolExecutor scheduler =
+        new ScheduledThreadPoolExecutor(
+            1,
+            runnable -> {
+              Thread thread = new Thread(runnable, "crawler-http-deadlines");
+              thread.setDaemon(true);
+              return thread;
+            });
+    scheduler.setRemoveOnCancelPolicy(true);
+    return scheduler;
+  }
+}
@@ -0,0 +1,22 @@
+package com.example.temporal.workflows.crawler;
+
+import io.temporal.workflow.Promise;
+import java.util.List;
+
+/**
+ * A batch of pages whose parse activity the crawler workflow has dispatched.
+ *
+ * @param pages The pages being crawled
+ * @param results The pending per-page results, in the same order as the pages
+ */
+record InFlightBatch(List<FrontierUrl> pages, Promise<List<ParseLinksOutput>> results) {
+
+  /**
+   * Returns the URLs of the batch, for logging.
+   *
+   * @return The URLs being crawled
+   */
+  List<String> urls() {
+    return pages.stream().map(FrontierUrl::url).toList();
+  }
+}
@@ -0,0 +1,104 @@
+package com.example.temporal.workflows.crawler;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Applies a {@link LinkScope} to the canonical links of one page. The patterns are compiled once
+ * per page rather than once per link.
+ */
+final class LinkFilter {
+
+  private final LinkScope scope;
+  private final String pageHost;
+  private final List<Pattern> includes = new ArrayList<>();
+  private final List<Pattern> excludes = new ArrayList<>();
+  private final List<String> extensions = new ArrayList<>();
+  private final boolean unrestricted;
+
+  /**
+   * Creates a filter for the links of a page.
+   *
+   * @param scope The rules to apply
+   * @param pageUrl The URL of the page the links were found on
+   */
+  LinkFilter(LinkScope scope, String pageUrl) {
+    this.scope = scope;
+    this.pageHost = scope.sameHostOnly() ? host(pageUrl) : null;
+    for (String pattern : scope.includePatterns()) {
+      includes.add(Pattern.compile(pattern));
+    }
+    for (String pattern : scope.excludePatterns()) {
+      excludes.add(Pattern.compile(pattern));
+    }
+    for (String extension : scope.skipExtensions()) {
+      extensions.add("." + extension.toLowerCase(Locale.ROOT));
+    }
+    this.unrestricted = scope.equals(LinkScope.all());
+  }
+
+  /**
+   * Checks whether a link is in scope.
+   *
+   * @param url A canonical absolute URL
+   * @return true if the link should be returned
+   */
+  boolean accepts(String url) {
+    if (unrestricted) {
+      return true;
+    }
+    URI uri;
+    try {
+      uri = new URI(url);
+    } catch (URISyntaxException e) {
+      return false;
+    }
+    String host = uri.getHost() == null ? "" : uri.getHost();
+    String path = uri.getRawPath() == null ? "" : uri.getRawPath();
+
+    if (!scope.allowedDomains().isEmpty() && !matchesDomain(host, scope.allowedDomains())) {
+      return false;
+    }
+    if (matchesDomain(host, scope.deniedDomains())) {
+      return false;
+    }
+    if (pageHost != null && !host.equals(pageHost)) {
+      return false;
+    }
+    if (!scope.pathPrefixes().isEmpty()
+        && scope.pathPrefixes().stream().noneMatch(path::startsWith)) {
+      return false;
+    }
+    if (!includes.isEmpty() && includes.stream().noneMatch(p -> p.matcher(url).find())) {
+      return false;
+    }
+    if (excludes.stream().anyMatch(p -> p.matcher(url).find())) {
+      return false;
+    }
+    String lowerPath = path.toLowerCase(Locale.ROOT);
+    return extensions.stream().noneMatch(lowerPath::endsWith);
+  }
+
+  private static boolean matchesDomain(String host, List<String> domains) {
+    for (String domain : domains) {
+      String lowerDomain = domain.toLowerCase(Locale.ROOT);
+      if (host.equals(lowerDomain) || host.endsWith("." + lowerDomain)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static String host(String url) {
+    try {
+      String host = new URI(url).getHost();
+      return host == null ? "" : host.toLowerCase(Locale.ROOT);
+    } catch (URISyntaxException e) {
+      return "";
+    }
+  }
+}
@@ -0,0 +1,21 @@
+package com.example.temporal.workflows.crawler;
+
+import java.util.List;
+
+/**
+ * One page of the links discovered by a crawl, in discovery order.
+ *
+ * <p>An empty page means that no further links are available yet; once the workflow has completed,
+ * it marks the end of the result set.
+ *
+ * @param links The links in this page
+ * @param nextCursor The cursor to pass to get the following page
+ * @param totalLinks The number of unique links discovered so far, in every dedup mode
+ */
+public record LinkPage(List<String> links, int nextCursor, int totalLinks) {
+
+  /** Treats missing links as none. */
+  public LinkPage {
+    links = links == null ? List.of() : List.copyOf(links);
+  }
+}
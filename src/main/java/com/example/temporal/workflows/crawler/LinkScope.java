@@ -0,0 +1,136 @@
+package com.example.temporal.workflows.crawler;
+
+import java.util.List;
+
+/**
+ * Rules for which links the parse links activity returns. The activity drops links outside the
+ * scope before returning, so off-scope URLs are never serialized into workflow history.
+ *
+ * <p>A link is in scope when it passes every rule that is set: its host matches an allowed domain
+ * (or none are given) and no denied domain, it is on the page's host if same-host-only is set, its
+ * path starts with one of the path prefixes (or none are given), it matches an include pattern (or
+ * none are given) and no exclude pattern, and its path does not end in a skipped file extension.
+ * Domains match the host itself and its subdomains.
+ *
+ * @param allowedDomains Domains links must be on, empty for any
+ * @param deniedDomains Domains links must not be on
+ * @param sameHostOnly Whether links must be on the host of the page they were found on
+ * @param pathPrefixes Path prefixes links must start with, empty for any
+ * @param includePatterns Regular expressions of which a link must match one, empty for any
+ * @param excludePatterns Regular expressions no link may match
+ * @param skipExtensions File extensions, without the dot, of links to drop (e.g. pdf, jpg)
+ */
+public record LinkScope(
+    List<String> allowedDomains,
+    List<String> deniedDomains,
+    boolean sameHostOnly,
+    List<String> pathPrefixes,
+    List<String> includePatterns,
+    List<String> excludePatterns,
+    List<String> skipExtensions) {
+
+  /** Treats missing rule lists as empty. */
+  public LinkScope {
+    allowedDomains = allowedDomains == null ? List.of() : List.copyOf(allowedDomains);
+    deniedDomains = deniedDomains == null ? List.of() : List.copyOf(deniedDomains);
+    pathPrefixes = pathPrefixes == null ? List.of() : List.copyOf(pathPrefixes);
+    includePatterns = includePatterns == null ? List.of() : List.copyOf(includePatterns);
+    excludePatterns = excludePatterns == null ? List.of() : List.copyOf(excludePatterns);
+    skipExtensions = skipExtensions == null ? List.of() : List.copyOf(skipExtensions);
+  }
+
+  /**
+   * Returns a scope that keeps every http(s) link.
+   *
+   * @return The unrestricted scope
+   */
+  public static LinkScope all() {
+    return new LinkScope(List.of(), List.of(), false, List.of(), List.of(), List.of(), List.of());
+  }
+
+  /**
+   * Returns a copy of this scope that only keeps links on the host of their page.
+   *
+   * @return The updated scope
+   */
+  public LinkScope withSameHostOnly() {
+    return new LinkScope(
+        allowedDomains,
+        deniedDomains,
+        true,
+        pathPrefixes,
+        includePatterns,
+        excludePatterns,
+        skipExtensions);
+  }
+
+  /**
+   * Returns a copy of this scope with the given domain rules.
+   *
+   * @param allowed Domains links must be on, empty for any
+   * @param denied Domains links must not be on
+   * @return The updated scope
+   */
+  public LinkScope withDomains(List<String> allowed, List<String> denied) {
+    return new LinkScope(
+        allowed,
+        denied,
+        sameHostOnly,
+        pathPrefixes,
+        includePatterns,
+        excludePatterns,
+        skipExtensions);
+  }
+
+  /**
+   * Returns a copy of this scope with the given path prefixes.
+   *
+   * @param prefixes Path prefixes links must start with, empty for any
+   * @return The updated scope
+   */
+  public LinkScope withPathPrefixes(List<String> prefixes) {
+    return new LinkScope(
+        allowedDomains,
+        deniedDomains,
+        sameHostOnly,
+        prefixes,
+        includePatterns,
+        excludePatterns,
+        skipExtensions);
+  }
+
+  /**
+   * Returns a copy of this scope with the given URL patterns.
+   *
+   * @param include Regular expressions of which a link must match one, empty for any
+   * @param exclude Regular expressions no link may match
+   * @return The updated scope
+   */
+  public LinkScope withPatterns(List<String> include, List<String> exclude) {
+    return new LinkScope(
+        allowedDomains,
+        deniedDomains,
+        sameHostOnly,
+        pathPrefixes,
+        include,
+        exclude,
+        skipExtensions);
+  }
+
+  /**
+   * Returns a copy of this scope that drops links to files with the given extensions.
+   *
+   * @param extensions File extensions without the dot, matched case-insensitively
+   * @return The updated scope
+   */
+  public LinkScope withSkippedExtensions(List<String> extensions) {
+    return new LinkScope(
+        allowedDomains,
+        deniedDomains,
+        sameHostOnly,
+        pathPrefixes,
+        includePatterns,
+        excludePatterns,
+        extensions);
+  }
+}
@@ -0,0 +1,13 @@
+package com.example.temporal.workflows.crawler;
+
+/** What the crawler workflow returns when it completes. */
+public enum OutputMode {
+  /** Returns the counts together with every discovered link and domain. */
+  FULL,
+
+  /**
+   * Returns the counts and discovered domains but not the links, which are read in pages through
+   * {@link CrawlerWorkflow#getLinks(int, int)} instead.
+   */
+  SUMMARY
+}
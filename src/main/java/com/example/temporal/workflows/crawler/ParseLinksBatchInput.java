@@ -0,0 +1,10 @@
+package com.example.temporal.workflows.crawler;
+
+import java.util.List;
+
+/**
+ * Input data for the batched parse links activity.
+ *
+ * @param pages The pages to fetch and parse, one entry per URL
+ */
+public record ParseLinksBatchInput(List<ParseLinksInput> pages) {}
@@ -0,0 +1,10 @@
+package com.example.temporal.workflows.crawler;
+
+import java.util.List;
+
+/**
+ * Output data from the batched parse links activity.
+ *
+ * @param results The per-URL results, in the same order as the input pages
+ */
+public record ParseLinksBatchOutput(List<ParseLinksOutput> results) {}
@@ -1,8 +1,34 @@
 package com.example.temporal.workflows.crawler;
 
+import com.example.temporal.common.CanonicalizationOptions;
+
 /**
  * Input data for the parse links activity.
  *
  * @param url The URL to parse links from
+ * @param canonicalization The query rules for canonicalizing the returned links (default: strip
+ *     tracking and session parameters)
+ * @param scope The rules for which links to return (default: every http(s) link)
  */
-public record ParseLinksInput(String url) {}
+public record ParseLinksInput(
+    String url, CanonicalizationOptions canonicalization, LinkScope scope) {
+
+  /** Falls back to the default link rules when none are provided. */
+  public ParseLinksInput {
+    if (canonicalization == null) {
+      canonicalization = CanonicalizationOptions.defaults();
+    }
+    if (scope == null) {
+      scope = LinkScope.all();
+    }
+  }
+
+  /**
+   * Constructor with the default link rules.
+   *
+   * @param url The URL to parse links from
+   */
+  public ParseLinksInput(String url) {
+    this(url, CanonicalizationOptions.defaults(), LinkScope.all());
+  }
+}
@@ -5,6 +5,66 @@ import java.util.List;
 /**
  * Output data from the parse links activity.
  *
+ * <p>Besides the links, the output reports how the fetch went so that the workflow can adapt its
+ * per-host request rate. Results serialized before these fields existed read as status 0.
+ *
  * @param links The list of links discovered
+ * @param statusCode The HTTP status of the response, -1 if no response was received, -2 if
+ *     robots.txt disallows the page, -3 if the host's robots.txt is unavailable, or 0 if not
+ *     reported
+ * @param latencyMillis The time from sending the request to receiving the full response
+ * @param retryAfterMillis The delay requested by a Retry-After header, 0 if none was given
+ * @param crawlDelayMillis The Crawl-delay of the host's robots.txt, 0 if none was given
  */
-public record ParseLinksOutput(List<String> links) {}
+public record ParseLinksOutput(
+    List<String> links,
+    int statusCode,
+    long latencyMillis,
+    long retryAfterMillis,
+    long crawlDelayMillis) {
+
+  /** Status code reported when no response was received. */
+  public static final int NO_RESPONSE = -1;
+
+  /** Status code reported when robots.txt disallows the page, so it was not fetched. */
+  public static final int ROBOTS_DISALLOWED = -2;
+
+  /**
+   * Status code reported when the host's robots.txt answered with a server error or 429, so the
+   * page was not fetched yet. The Retry-After delay covers the time until robots.txt is fetched
+   * again.
+   */
+  public static final int ROBOTS_UNAVAILABLE = -3;
+
+  /**
+   * Constructor for an output that carries links only.
+   *
+   * @param links The list of links discovered
+   */
+  public ParseLinksOutput(List<String> links) {
+    this(links, 0, 0, 0, 0);
+  }
+
+  /**
+   * Constructor for an output from a host without a crawl delay.
+   *
+   * @param links The list of links discovered
+   * @param statusCode The HTTP status of the response
+   * @param latencyMillis The time from sending the request to receiving the full response
+   * @param retryAfterMillis The delay requested by a Retry-After header, 0 if none was given
+   */
+  public ParseLinksOutput(
+      List<String> links, int statusCode, long latencyMillis, long retryAfterMillis) {
+    this(links, statusCode, latencyMillis, retryAfterMillis, 0);
+  }
+
+  /**
+   * Reports whether the fetch failed, i.e. no response was received, it had an error status, or the
+   * page could not be checked against an unavailable robots.txt.
+   *
+   * @return true if the page could not be fetched
+   */
+  public boolean failed() {
+    return statusCode == NO_RESPONSE || statusCode == ROBOTS_UNAVAILABLE || statusCode >= 400;
+  }
+}
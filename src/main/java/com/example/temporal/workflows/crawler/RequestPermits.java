@@ -0,0 +1,113 @@
+package com.example.temporal.workflows.crawler;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Caps the requests a worker has in flight, in total and per host, without blocking any thread.
+ *
+ * <p>The per-host cap bounds the connections the crawler opens to one HTTP/1.1 host and the
+ * concurrent streams it opens to an HTTP/2 host, which the JDK client cannot limit itself. A
+ * request that has to wait is queued and its permit is granted by the release that frees it, so
+ * callers such as HTTP client callbacks never park a thread. Waiting requests are granted in
+ * arrival order, skipping those whose host is still at its cap. Hosts are only tracked while they
+ * have requests in flight.
+ */
+final class RequestPermits {
+
+  private final int maxRequests;
+  private final int maxPerHost;
+  private final Map<String, Integer> perHost = new HashMap<>();
+  private final Deque<Waiter> waiters = new ArrayDeque<>();
+  private int inFlight;
+
+  /**
+   * Creates the permits.
+   *
+   * @param maxRequests The maximum number of requests in flight
+   * @param maxPerHost The maximum number of requests in flight to one host, 0 for no limit
+   */
+  RequestPermits(int maxRequests, int maxPerHost) {
+    this.maxRequests = maxRequests;
+    this.maxPerHost = maxPerHost;
+  }
+
+  /**
+   * Takes a permit for a request to a host, as soon as one is available.
+   *
+   * @param host The host key, e.g. the origin of the URL
+   * @return A future completed once the permit has been taken
+   */
+  synchronized CompletableFuture<Void> acquire(String host) {
+    if (available(host)) {
+      take(host);
+      return CompletableFuture.completedFuture(null);
+    }
+    CompletableFuture<Void> permit = new CompletableFuture<>();
+    waiters.addLast(new Waiter(host, permit));
+    return permit;
+  }
+
+  /**
+   * Returns the permit of a completed request and grants it to waiting requests.
+   *
+   * @param host The host key the permit was acquired for
+   */
+  void release(String host) {
+    List<CompletableFuture<Void>> granted = new ArrayList<>();
+    synchronized (this) {
+      inFlight--;
+      perHost.computeIfPresent(host, (key, count) -> count == 1 ? null : count - 1);
+      Iterator<Waiter> queued = waiters.iterator();
+      while (queued.hasNext() && inFlight < maxRequests) {
+        Waiter waiter = queued.next();
+        if (available(waiter.host())) {
+          queued.remove();
+          take(waiter.host());
+          granted.add(waiter.permit());
+        }
+      }
+    }
+    // Granted requests start outside the lock, on this thread
+    for (CompletableFuture<Void> permit : granted) {
+      permit.complete(null);
+    }
+  }
+
+  /**
+   * Returns the number of requests in flight to a host.
+   *
+   * @param host The host key
+   * @return The number of permits held for the host
+   */
+  synchronized int inFlight(String host) {
+    return perHost.getOrDefault(host, 0);
+  }
+
+  /**
+   * Returns the number of requests waiting for a permit.
+   *
+   * @return The number of queued requests
+   */
+  synchronized int waiting() {
+    return waiters.size();
+  }
+
+  private boolean available(String host) {
+    return inFlight < maxRequests && (maxPerHost == 0 || inFlight(host) < maxPerHost);
+  }
+
+  private void take(String host) {
+    inFlight++;
+    perHost.merge(host, 1, Integer::sum);
+  }
+
+  /** A request waiting for a permit. */
+  private record Waiter(String host, CompletableFuture<Void> permit) {}
+}
@@ -0,0 +1,162 @@
+package com.example.temporal.workflows.crawler;
+
+import java.net.URI;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * Worker-wide cache of robots.txt rules, keyed by origin (scheme, host and port).
+ *
+ * <p>Each origin's robots.txt is fetched once and its rules are reused by every page of that origin
+ * until they expire; pages that ask while the fetch is still running share it. The cache holds at
+ * most a fixed number of origins and evicts the least recently used one beyond that. Rules standing
+ * in for an unavailable robots.txt are kept for at most {@link #UNAVAILABLE_TTL_MILLIS}, so a
+ * transient server error does not block a host for the full TTL.
+ */
+final class RobotsCache {
+
+  /** The longest time rules for an unavailable robots.txt are cached. */
+  static final long UNAVAILABLE_TTL_MILLIS = 60_000;
+
+  private final Function<String, CompletableFuture<RobotsRules>> fetcher;
+  private final long ttlMillis;
+  private final LongSupplier clockMillis;
+  private final Map<String, Entry> entries;
+
+  /**
+   * Creates a cache that reads the system clock.
+   *
+   * @param fetcher Fetches and parses the robots.txt of an origin
+   * @param ttlMillis How long fetched rules stay valid
+   * @param maxOrigins The maximum number of origins whose rules are kept
+   */
+  RobotsCache(
+      Function<String, CompletableFuture<RobotsRules>> fetcher, long ttlMillis, int maxOrigins) {
+    this(fetcher, ttlMillis, maxOrigins, System::currentTimeMillis);
+  }
+
+  /**
+   * Creates a cache.
+   *
+   * @param fetcher Fetches and parses the robots.txt of an origin
+   * @param ttlMillis How long fetched rules stay valid
+   * @param maxOrigins The maximum number of origins whose rules are kept
+   * @param clockMillis The clock expiry is measured against
+   */
+  RobotsCache(
+      Function<String, CompletableFuture<RobotsRules>> fetcher,
+      long ttlMillis,
+      int maxOrigins,
+      LongSupplier clockMillis) {
+    this.fetcher = fetcher;
+    this.ttlMillis = ttlMillis;
+    this.clockMillis = clockMillis;
+    this.entries =
+        new LinkedHashMap<>(16, 0.75f, true) {
+          @Override
+          protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+            return super.size() > maxOrigins;
+          }
+        };
+  }
+
+  /**
+   * Returns the rules of an origin, fetching its robots.txt if they are not cached or have expired.
+   *
+   * @param origin The origin, as returned by {@link #origin(URI)}
+   * @return The rules, completed once the robots.txt has been read
+   */
+  CompletableFuture<RobotsRules> rules(String origin) {
+    Entry entry;
+    synchronized (entries) {
+      Entry cached = entries.get(origin);
+      if (cached != null && cached.expiresAtMillis > clockMillis.getAsLong()) {
+        return cached.rules;
+      }
+      // Until the fetch completes the entry does not expire, so concurrent pages share it
+      entry = new Entry(new CompletableFuture<>());
+      entries.put(origin, entry);
+    }
+
+    fetcher
+        .apply(origin)
+        .whenComplete(
+            (rules, error) -> {
+              RobotsRules result = error == null ? rules : RobotsRules.allowAll();
+              long ttl =
+                  result.isUnavailable() ? Math.min(ttlMillis, UNAVAILABLE_TTL_MILLIS) : ttlMillis;
+              entry.expiresAtMillis = clockMillis.getAsLong() + ttl;
+              entry.rules.complete(result);
+            });
+    return entry.rules;
+  }
+
+  /**
+   * Returns the rules of an origin if they are cached and valid, without fetching anything.
+   *
+   * @param origin The origin, as returned by {@link #origin(URI)}
+   * @return The cached rules, or null if there are none yet
+   */
+  RobotsRules cached(String origin) {
+    Entry entry;
+    synchronized (entries) {
+      entry = entries.get(origin);
+    }
+    if (entry == null
+        || !entry.rules.isDone()
+        || entry.expiresAtMillis <= clockMillis.getAsLong()) {
+      return null;
+    }
+    return entry.rules.join();
+  }
+
+  /**
+   * Returns the number of origins in the cache.
+   *
+   * @return The number of cached origins, including those being fetched
+   */
+  int size() {
+    synchronized (entries) {
+      return entries.size();
+    }
+  }
+
+  /**
+   * Returns the origin robots.txt rules of a URL are cached under.
+   *
+   * @param uri An absolute URL
+   * @return The lowercase scheme and authority, or null if the URL has no host
+   */
+  static String origin(URI uri) {
+    if (uri.getScheme() == null || uri.getRawAuthority() == null || uri.getHost() == null) {
+      return null;
+    }
+    return (uri.getScheme() + "://" + uri.getRawAuthority()).toLowerCase(Locale.ROOT);
+  }
+
+  /**
+   * Returns the part of a URL that robots.txt rules are matched against.
+   *
+   * @param uri An absolute URL
+   * @return The raw path and query
+   */
+  static String pathAndQuery(URI uri) {
+    String path = uri.getRawPath() == null || uri.getRawPath().isEmpty() ? "/" : uri.getRawPath();
+    return uri.getRawQuery() == null ? path : path + "?" + uri.getRawQuery();
+  }
+
+  /** The rules of one origin and when they expire. */
+  private static final class Entry {
+
+    private final CompletableFuture<RobotsRules> rules;
+    private volatile long expiresAtMillis = Long.MAX_VALUE;
+
+    private Entry(CompletableFuture<RobotsRules> rules) {
+      this.rules = rules;
+    }
+  }
+}
@@ -0,0 +1,143 @@
+package com.example.temporal.workflows.crawler;
+
+import java.io.ByteArrayOutputStream;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Flow;
+import java.util.function.Function;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Fetches and parses the robots.txt of an origin through the crawler's shared {@link HttpFetcher}.
+ *
+ * <p>A missing file or any other client error allows everything, as does a network error, which the
+ * page fetch then reports itself. Server errors and throttling disallow everything until the rules
+ * are fetched again. Robots.txt requests count against the same request permits and response
+ * deadline as page fetches, and only the first {@link RobotsRules#MAX_ROBOTS_BYTES} of a file are
+ * read before the rest of the response is cancelled.
+ */
+final class RobotsFetcher implements Function<String, CompletableFuture<RobotsRules>> {
+
+  /** The name robots.txt user-agent groups address this crawler by. */
+  static final String PRODUCT_TOKEN = "TemporalCrawler";
+
+  private static final Logger logger = LoggerFactory.getLogger(RobotsFetcher.class);
+
+  private final HttpFetcher fetcher;
+
+  /**
+   * Creates a fetcher.
+   *
+   * @param fetcher The worker's shared fetcher
+   */
+  RobotsFetcher(HttpFetcher fetcher) {
+    this.fetcher = fetcher;
+  }
+
+  /**
+   * Fetches the robots.txt of an origin.
+   *
+   * @param origin The scheme and authority of the host
+   * @return The host's rules for this crawler
+   */
+  @Override
+  public CompletableFuture<RobotsRules> apply(String origin) {
+    HttpRequest request;
+    try {
+      request = fetcher.newRequest(new URI(origin + "/robots.txt")).build();
+    } catch (Exception e) {
+      logger.debug("Invalid robots.txt URL for {}: {}", origin, e.getMessage());
+      return CompletableFuture.completedFuture(RobotsRules.allowAll());
+    }
+
+    return fetcher
+        .send(request, RobotsFetcher::bodyHandler)
+        .handle(
+            (response, error) -> {
+              if (error != null) {
+                logger.debug("Error fetching robots.txt of {}: {}", origin, error.getMessage());
+                return RobotsRules.allowAll();
+              }
+              int responseCode = response.statusCode();
+              if (isSuccess(responseCode)) {
+                return RobotsRules.parse(response.body(), PRODUCT_TOKEN);
+              }
+              return responseCode >= 500 || responseCode == 429
+                  ? RobotsRules.unavailable()
+                  : RobotsRules.allowAll();
+            });
+  }
+
+  private static HttpResponse.BodySubscriber<String> bodyHandler(
+      HttpResponse.ResponseInfo responseInfo) {
+    if (!isSuccess(responseInfo.statusCode())) {
+      return HttpResponse.BodySubscribers.replacing("");
+    }
+    return new LimitedBodySubscriber(RobotsRules.MAX_ROBOTS_BYTES);
+  }
+
+  private static boolean isSuccess(int statusCode) {
+    return statusCode >= 200 && statusCode < 300;
+  }
+
+  /**
+   * Collects a body as UTF-8 text up to a size limit. Once the limit is reached the subscription is
+   * cancelled, which aborts the response, and the body completes with what was read.
+   */
+  static final class LimitedBodySubscriber implements HttpResponse.BodySubscriber<String> {
+
+    private final int maxBytes;
+    private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    private final CompletableFuture<String> body = new CompletableFuture<>();
+    private Flow.Subscription subscription;
+
+    LimitedBodySubscriber(int maxBytes) {
+      this.maxBytes = maxBytes;
+    }
+
+    @Override
+    public CompletionStage<String> getBody() {
+      return body;
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+      this.subscription = subscription;
+      subscription.request(Long.MAX_VALUE);
+    }
+
+    @Override
+    public void onNext(List<ByteBuffer> chunks) {
+      if (body.isDone()) {
+        return;
+      }
+      for (ByteBuffer chunk : chunks) {
+        int length = Math.min(chunk.remaining(), maxBytes - bytes.size());
+        byte[] read = new byte[length];
+        chunk.get(read);
+        bytes.write(read, 0, length);
+      }
+      if (bytes.size() >= maxBytes) {
+        subscription.cancel();
+        onComplete();
+      }
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+      body.completeExceptionally(throwable);
+    }
+
+    @Override
+    public void onComplete() {
+      body.complete(bytes.toString(StandardCharsets.UTF_8));
+    }
+  }
+}
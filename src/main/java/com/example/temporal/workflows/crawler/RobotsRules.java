@@ -0,0 +1,211 @@
+package com.example.temporal.workflows.crawler;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * The robots.txt rules that apply to the crawler on one host.
+ *
+ * <p>Parsing follows RFC 9309: the rules of the groups whose user-agent lines name the crawler's
+ * product token are used, merged into one, falling back to the merged {@code *} groups; the longest
+ * matching allow or disallow pattern decides, with allow winning ties; {@code *} in a pattern
+ * matches any sequence of characters and a trailing {@code $} anchors it at the end of the path.
+ * The non-standard {@code Crawl-delay} line of the chosen groups, the longest if several give one,
+ * is kept as the minimum delay between two fetches.
+ */
+final class RobotsRules {
+
+  /** Only this much of a robots.txt file is parsed, as RFC 9309 requires at least 500 KiB. */
+  static final int MAX_ROBOTS_BYTES = 500 * 1024;
+
+  private static final RobotsRules ALLOW_ALL = new RobotsRules(List.of(), 0, false);
+  private static final RobotsRules UNAVAILABLE =
+      new RobotsRules(List.of(new Rule("/", false)), 0, true);
+
+  private final List<Rule> rules;
+  private final long crawlDelayMillis;
+  private final boolean unavailable;
+
+  private RobotsRules(List<Rule> rules, long crawlDelayMillis, boolean unavailable) {
+    this.rules = rules;
+    this.crawlDelayMillis = crawlDelayMillis;
+    this.unavailable = unavailable;
+  }
+
+  /**
+   * Returns the rules for a host without a robots.txt file, which allow everything.
+   *
+   * @return Rules that allow every path
+   */
+  static RobotsRules allowAll() {
+    return ALLOW_ALL;
+  }
+
+  /**
+   * Returns the rules for a host whose robots.txt file could not be read because of a server error.
+   * Such a host is treated as fully disallowed until its robots.txt is fetched again.
+   *
+   * @return Rules that disallow every path
+   */
+  static RobotsRules unavailable() {
+    return UNAVAILABLE;
+  }
+
+  /**
+   * Parses a robots.txt file.
+   *
+   * @param content The content of the file
+   * @param productToken The crawler's product token, matched case-insensitively
+   * @return The merged rules of the groups that apply to the crawler
+   */
+  static RobotsRules parse(String content, String productToken) {
+    String token = productToken.toLowerCase(Locale.ROOT);
+    List<Group> specific = new ArrayList<>();
+    List<Group> wildcard = new ArrayList<>();
+    Group current = null;
+    boolean inAgentLines = false;
+
+    for (String rawLine : content.split("\r\n|\r|\n")) {
+      int comment = rawLine.indexOf('#');
+      String line = (comment >= 0 ? rawLine.substring(0, comment) : rawLine).strip();
+      int colon = line.indexOf(':');
+      if (colon <= 0) {
+        continue;
+      }
+      String key = line.substring(0, colon).strip().toLowerCase(Locale.ROOT);
+      String value = line.substring(colon + 1).strip();
+
+      if (key.equals("user-agent")) {
+        // Consecutive user-agent lines share one group
+        if (!inAgentLines) {
+          current = new Group();
+          inAgentLines = true;
+        }
+        String agent = value.toLowerCase(Locale.ROOT);
+        List<Group> matching = agent.equals("*") ? wildcard : agent.equals(token) ? specific : null;
+        if (matching != null && !matching.contains(current)) {
+          matching.add(current);
+        }
+        continue;
+      }
+      inAgentLines = false;
+      if (current == null) {
+        continue;
+      }
+      switch (key) {
+        case "allow" -> current.add(value, true);
+        case "disallow" -> current.add(value, false);
+        case "crawl-delay" -> current.crawlDelayMillis = parseDelayMillis(value);
+        default -> {
+          // Sitemap and other lines do not affect which paths may be fetched
+        }
+      }
+    }
+
+    List<Group> groups = specific.isEmpty() ? wildcard : specific;
+    if (groups.isEmpty()) {
+      return ALLOW_ALL;
+    }
+    List<Rule> rules = new ArrayList<>();
+    long crawlDelayMillis = 0;
+    for (Group group : groups) {
+      rules.addAll(group.rules);
+      crawlDelayMillis = Math.max(crawlDelayMillis, group.crawlDelayMillis);
+    }
+    return new RobotsRules(List.copyOf(rules), crawlDelayMillis, false);
+  }
+
+  /**
+   * Checks whether the crawler may fetch a path.
+   *
+   * @param pathAndQuery The raw path of a URL, followed by its query if it has one
+   * @return true if no rule forbids fetching the path
+   */
+  boolean allows(String pathAndQuery) {
+    String path = pathAndQuery.isEmpty() ? "/" : pathAndQuery;
+    Rule match = null;
+    for (Rule rule : rules) {
+      if (rule.matches(path)
+          && (match == null
+              || rule.length > match.length
+              || (rule.length == match.length && rule.allow))) {
+        match = rule;
+      }
+    }
+    return match == null || match.allow;
+  }
+
+  /**
+   * Returns the crawl delay the host asks for.
+   *
+   * @return The minimum delay between two fetches in milliseconds, 0 if none was given
+   */
+  long crawlDelayMillis() {
+    return crawlDelayMillis;
+  }
+
+  /**
+   * Reports whether these rules stand in for a robots.txt file that could not be read, so that they
+   * are cached only briefly.
+   *
+   * @return true if the host's robots.txt was unavailable
+   */
+  boolean isUnavailable() {
+    return unavailable;
+  }
+
+  private static long parseDelayMillis(String value) {
+    try {
+      double seconds = Double.parseDouble(value);
+      return seconds > 0 && Double.isFinite(seconds) ? (long) (seconds * 1000) : 0;
+    } catch (NumberFormatException e) {
+      return 0;
+    }
+  }
+
+  /** The rules of one user-agent group. */
+  private static final class Group {
+
+    private final List<Rule> rules = new ArrayList<>();
+    private long crawlDelayMillis;
+
+    private void add(String pattern, boolean allow) {
+      // An empty disallow line allows everything, so it adds no rule
+      if (!pattern.isEmpty()) {
+        rules.add(new Rule(pattern, allow));
+      }
+    }
+  }
+
+  /** One allow or disallow line. */
+  private static final class Rule {
+
+    private final Pattern pattern;
+    private final int length;
+    private final boolean allow;
+
+    private Rule(String pattern, boolean allow) {
+      this.length = pattern.length();
+      this.allow = allow;
+      boolean anchored = pattern.endsWith("$");
+      String body = anchored ? pattern.substring(0, pattern.length() - 1) : pattern;
+      StringBuilder regex = new StringBuilder();
+      for (String literal : body.split("\\*", -1)) {
+        if (!regex.isEmpty()) {
+          regex.append(".*");
+        }
+        regex.append(Pattern.quote(literal));
+      }
+      if (anchored) {
+        regex.append('$');
+      }
+      this.pattern = Pattern.compile(regex.toString());
+    }
+
+    private boolean matches(String path) {
+      return pattern.matcher(path).lookingAt();
+    }
+  }
+}
@@ -0,0 +1,129 @@
+package com.example.temporal.workflows.crawler;
+
+/**
+ * Deduplication settings for the crawler workflow.
+ *
+ * <p>The seen-set is carried across continue-as-new inside a {@link CrawlCheckpoint}, whose size is
+ * capped at {@link CrawlCheckpoint#MAX_ENCODED_BYTES}, and its snapshot may use at most {@link
+ * #MAX_SNAPSHOT_BYTES} of that. Byte arrays travel as Base64, so this gives the following ceilings:
+ *
+ * <ul>
+ *   <li>EXACT keeps the URLs themselves, so the ceiling depends on their length: about 15,000 URLs
+ *       of 60 characters.
+ *   <li>FINGERPRINT keeps 8 bytes, about 10.7 encoded, per URL: about 93,000 URLs.
+ *   <li>BLOOM keeps a fixed bit array sized from the expected URL count and false-positive rate, so
+ *       its size is known up front. At 1% false positives, the filter holds up to about 625,000
+ *       URLs.
+ * </ul>
+ *
+ * <p>A set that reaches its ceiling is converted rather than allowed to grow: EXACT to FINGERPRINT,
+ * and FINGERPRINT to the Bloom filter these options describe. Once converted from EXACT, the set no
+ * longer lists its URLs, so FULL output and the links query return none. Options whose Bloom filter
+ * would exceed the ceiling are rejected up front, whatever the mode.
+ *
+ * @param mode The seen-set representation (default: EXACT)
+ * @param expectedUrls The number of URLs the Bloom filter is sized for, also when another mode is
+ *     converted to one (default: 500,000)
+ * @param falsePositiveRate The target Bloom filter false-positive rate (default: 0.01)
+ */
+public record SeenSetOptions(DedupMode mode, long expectedUrls, double falsePositiveRate) {
+
+  /**
+   * The largest encoded size of a seen-set snapshot: two thirds of the checkpoint limit, so that
+   * the frontier and the rest of the checkpoint fit beside it.
+   */
+  public static final long MAX_SNAPSHOT_BYTES = CrawlCheckpoint.MAX_ENCODED_BYTES * 2 / 3;
+
+  /** Default number of URLs a Bloom filter is sized for. */
+  public static final long DEFAULT_EXPECTED_URLS = 500_000L;
+
+  /** Default Bloom filter false-positive rate. */
+  public static final double DEFAULT_FALSE_POSITIVE_RATE = 0.01;
+
+  /**
+   * Normalizes unset values to their defaults.
+   *
+   * @throws IllegalArgumentException If the Bloom filter, used directly or after a conversion,
+   *     would be too large to carry across continue-as-new
+   */
+  public SeenSetOptions {
+    if (mode == null) {
+      mode = DedupMode.EXACT;
+    }
+    if (expectedUrls <= 0) {
+      expectedUrls = DEFAULT_EXPECTED_URLS;
+    }
+    if (falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+      falsePositiveRate = DEFAULT_FALSE_POSITIVE_RATE;
+    }
+    long encodedBytes = encodedSize(bloomBits(expectedUrls, falsePositiveRate) / Byte.SIZE);
+    if (encodedBytes > MAX_SNAPSHOT_BYTES) {
+      throw new IllegalArgumentException(
+          "A Bloom filter for "
+              + expectedUrls
+              + " URLs at a false-positive rate of "
+              + falsePositiveRate
+              + " takes "
+              + encodedBytes
+              + " bytes in a checkpoint, more than the "
+              + MAX_SNAPSHOT_BYTES
+              + " allowed");
+    }
+  }
+
+  /**
+   * Returns options that keep every URL exactly.
+   *
+   * @return Exact deduplication options
+   */
+  public static SeenSetOptions exact() {
+    return new SeenSetOptions(DedupMode.EXACT, 0, 0);
+  }
+
+  /**
+   * Returns options that keep a 64-bit fingerprint per URL.
+   *
+   * @return Fingerprint deduplication options
+   */
+  public static SeenSetOptions fingerprints() {
+    return new SeenSetOptions(DedupMode.FINGERPRINT, 0, 0);
+  }
+
+  /**
+   * Returns options that keep a Bloom filter.
+   *
+   * @param expectedUrls The number of URLs the filter is sized for
+   * @param falsePositiveRate The target false-positive rate
+   * @return Bloom filter deduplication options
+   * @throws IllegalArgumentException If the filter would exceed {@link #MAX_SNAPSHOT_BYTES}
+   */
+  public static SeenSetOptions bloom(long expectedUrls, double falsePositiveRate) {
+    return new SeenSetOptions(DedupMode.BLOOM, expectedUrls, falsePositiveRate);
+  }
+
+  /**
+   * Returns the size of the Bloom filter for these options.
+   *
+   * @return The number of bits of the filter
+   */
+  long bloomBits() {
+    return bloomBits(expectedUrls, falsePositiveRate);
+  }
+
+  /**
+   * Returns the Base64-encoded size of a byte array, as carried in a JSON payload.
+   *
+   * @param bytes The number of raw bytes
+   * @return The number of encoded bytes
+   */
+  static long encodedSize(long bytes) {
+    return (bytes + 2) / 3 * 4;
+  }
+
+  /** Standard sizing: m = -n ln(p) / ln(2)^2 bits, rounded up to whole 64-bit words. */
+  private static long bloomBits(long expectedUrls, double falsePositiveRate) {
+    double ln2 = Math.log(2);
+    long bits = (long) Math.ceil(-expectedUrls * Math.log(falsePositiveRate) / (ln2 * ln2));
+    return Math.max(1, (bits + Long.SIZE - 1) / Long.SIZE) * Long.SIZE;
+  }
+}
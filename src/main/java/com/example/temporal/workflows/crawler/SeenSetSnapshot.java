@@ -0,0 +1,47 @@
+package com.example.temporal.workflows.crawler;
+
+import java.util.List;
+
+/**
+ * Serialized form of the crawler's seen-set, carried across continue-as-new.
+ *
+ * <p>Only the fields of the active mode are populated. Fingerprints and Bloom filter bits are kept
+ * as byte arrays, which Jackson encodes as compact Base64 strings.
+ *
+ * @param mode The seen-set representation
+ * @param urls The seen URLs (EXACT mode)
+ * @param fingerprints The 64-bit URL fingerprints, 8 big-endian bytes each (FINGERPRINT mode)
+ * @param bloomBits The Bloom filter bit array (BLOOM mode)
+ * @param bloomHashes The number of hash functions of the Bloom filter (BLOOM mode)
+ * @param size The number of distinct URLs added so far
+ */
+public record SeenSetSnapshot(
+    DedupMode mode,
+    List<String> urls,
+    byte[] fingerprints,
+    byte[] bloomBits,
+    int bloomHashes,
+    int size) {
+
+  /**
+   * Estimates the size of this snapshot in a JSON payload, with byte arrays Base64-encoded.
+   *
+   * @return The approximate number of bytes
+   */
+  public long encodedBytes() {
+    long bytes = 0;
+    if (urls != null) {
+      for (String url : urls) {
+        // The URL plus its quotes and separator
+        bytes += url.length() + 3;
+      }
+    }
+    if (fingerprints != null) {
+      bytes += SeenSetOptions.encodedSize(fingerprints.length);
+    }
+    if (bloomBits != null) {
+      bytes += SeenSetOptions.encodedSize(bloomBits.length);
+    }
+    return bytes;
+  }
+}
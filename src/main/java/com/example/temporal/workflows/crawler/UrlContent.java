@@ -1,10 +1,45 @@
 package com.example.temporal.workflows.crawler;
 
+import java.util.List;
+
 /**
  * Represents the content fetched from a URL.
  *
- * @param url The URL that was fetched
- * @param htmlContent The HTML content retrieved from the URL
- * @param success Whether the fetch was successful
+ * @param url The URL that was fetched, after following redirects
+ * @param hrefs The raw href values of the anchors on the page, in document order
+ * @param statusCode The HTTP status, or {@link ParseLinksOutput#NO_RESPONSE} if the fetch failed;
+ *     {@link #NOT_MODIFIED} if the hrefs were stored from an earlier fetch of the unchanged page
+ * @param latencyMillis The time from sending the request to receiving the full response
+ * @param retryAfterMillis The delay requested by a Retry-After header, 0 if none was given
  */
-public record UrlContent(String url, String htmlContent, boolean success) {}
+public record UrlContent(
+    String url, List<String> hrefs, int statusCode, long latencyMillis, long retryAfterMillis) {
+
+  /** Status of a conditional fetch whose page has not changed. */
+  public static final int NOT_MODIFIED = 304;
+
+  /** Makes an unmodifiable copy of the hrefs. */
+  public UrlContent {
+    hrefs = List.copyOf(hrefs);
+  }
+
+  /**
+   * Creates the content of a fetch that received no response.
+   *
+   * @param url The URL that was requested
+   * @return The failed content
+   */
+  public static UrlContent noResponse(String url) {
+    return new UrlContent(url, List.of(), ParseLinksOutput.NO_RESPONSE, 0, 0);
+  }
+
+  /**
+   * Returns whether the page's hrefs are available, i.e. it was fetched with a 2xx status or
+   * revalidated with a 304.
+   *
+   * @return true if the fetch was successful
+   */
+  public boolean success() {
+    return (statusCode >= 200 && statusCode < 300) || statusCode == NOT_MODIFIED;
+  }
+}
@@ -0,0 +1,9 @@
+package com.example.temporal.workflows.crawler;
+
+/**
+ * A score added to the priority of frontier URLs that match a pattern.
+ *
+ * @param pattern A regular expression searched for anywhere in the URL
+ * @param score The score added when the pattern matches, negative to demote
+ */
+public record UrlPatternScore(String pattern, double score) {}
@@ -0,0 +1,357 @@
+package com.example.temporal.workflows.crawler;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Workflow-side record of the URLs the crawler has already seen.
+ *
+ * <p>Depending on {@link DedupMode} the set keeps the URLs themselves (hashed for lookups and
+ * listed in insertion order for paging), a 64-bit fingerprint per URL in an open-addressing table
+ * (about 16 bytes per URL), or a fixed-size Bloom filter. Hashing is implemented here rather than
+ * relying on {@link Object#hashCode()} so that the result is stable across JVMs and replays, and
+ * every representation round-trips through {@link SeenSetSnapshot} for continue-as-new.
+ *
+ * <p>The snapshot never outgrows {@link SeenSetOptions#MAX_SNAPSHOT_BYTES}: an exact set that
+ * reaches it is converted to fingerprints, and a fingerprint set that reaches it is converted to
+ * the Bloom filter the options describe. Bloom bit positions are derived from the URL fingerprint,
+ * so both conversions keep every URL seen so far.
+ */
+final class UrlSeenSet {
+
+  private static final int INITIAL_TABLE_SIZE = 1024;
+  private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+  private static final long FNV_PRIME = 0x100000001b3L;
+  private static final long SECOND_HASH_SEED = 0x9e3779b97f4a7c15L;
+
+  private final SeenSetOptions options;
+  private DedupMode mode;
+  private Set<String> urls = Set.of();
+  private List<String> order = List.of();
+  private long exactBytes;
+  private long[] table = new long[0];
+  private long[] bloomBits = new long[0];
+  private long bloomBitCount;
+  private int bloomHashes;
+  private int size;
+
+  private UrlSeenSet(DedupMode mode, SeenSetOptions options) {
+    this.mode = mode;
+    this.options = options;
+    switch (mode) {
+      case EXACT -> {
+        urls = new HashSet<>();
+        order = new ArrayList<>();
+      }
+      case FINGERPRINT -> table = new long[INITIAL_TABLE_SIZE];
+      case BLOOM -> {
+        // The filter is allocated or restored by the caller
+      }
+    }
+  }
+
+  /**
+   * Creates an empty seen-set.
+   *
+   * @param options The deduplication settings
+   * @return An empty seen-set
+   */
+  static UrlSeenSet create(SeenSetOptions options) {
+    UrlSeenSet seen = new UrlSeenSet(options.mode(), options);
+    if (options.mode() == DedupMode.BLOOM) {
+      seen.useBloom(options);
+    }
+    return seen;
+  }
+
+  /**
+   * Rebuilds a seen-set from a snapshot taken by a previous run. The snapshot's mode wins over the
+   * options', as the set may have been converted to stay within its ceiling.
+   *
+   * @param snapshot The snapshot to restore
+   * @param options The deduplication settings, which size a later conversion to a Bloom filter
+   * @return The restored seen-set
+   */
+  static UrlSeenSet restore(SeenSetSnapshot snapshot, SeenSetOptions options) {
+    UrlSeenSet seen;
+    switch (snapshot.mode()) {
+      case FINGERPRINT -> {
+        seen = new UrlSeenSet(DedupMode.FINGERPRINT, options);
+        ByteBuffer buffer = ByteBuffer.wrap(snapshot.fingerprints());
+        while (buffer.remaining() >= Long.BYTES) {
+          seen.addFingerprint(buffer.getLong());
+        }
+        seen.fitCeiling();
+      }
+      case BLOOM -> {
+        ByteBuffer buffer = ByteBuffer.wrap(snapshot.bloomBits());
+        long[] bits = new long[buffer.remaining() / Long.BYTES];
+        buffer.asLongBuffer().get(bits);
+        seen = new UrlSeenSet(DedupMode.BLOOM, options);
+        seen.useBloom(bits, snapshot.bloomHashes());
+        seen.size = snapshot.size();
+      }
+      default -> {
+        seen = new UrlSeenSet(DedupMode.EXACT, options);
+        for (String url : snapshot.urls()) {
+          seen.add(url);
+        }
+      }
+    }
+    return seen;
+  }
+
+  /**
+   * Adds a URL to the set.
+   *
+   * @param url The URL to add
+   * @return true if the URL had not been seen before (in BLOOM mode, a false positive may cause a
+   *     new URL to be reported as seen)
+   */
+  boolean add(String url) {
+    boolean added = insert(url);
+    if (added && mode != DedupMode.FINGERPRINT) {
+      size++;
+    }
+    if (added) {
+      fitCeiling();
+    }
+    return added;
+  }
+
+  /** Converts the set to a more compact representation once its snapshot reaches the ceiling. */
+  private void fitCeiling() {
+    if (mode == DedupMode.EXACT && exactBytes > SeenSetOptions.MAX_SNAPSHOT_BYTES) {
+      List<String> seen = order;
+      mode = DedupMode.FINGERPRINT;
+      urls = Set.of();
+      order = List.of();
+      table = new long[INITIAL_TABLE_SIZE];
+      size = 0;
+      for (String url : seen) {
+        addFingerprint(fingerprint(url));
+      }
+    }
+    if (mode == DedupMode.FINGERPRINT
+        && SeenSetOptions.encodedSize((long) size * Long.BYTES)
+            > SeenSetOptions.MAX_SNAPSHOT_BYTES) {
+      useBloom(options);
+      for (long slot : table) {
+        if (slot != 0) {
+          addToBloom(slot);
+        }
+      }
+      mode = DedupMode.BLOOM;
+      table = new long[0];
+    }
+  }
+
+  /** Allocates an empty Bloom filter with k = m/n ln(2) hash functions for m bits and n URLs. */
+  private void useBloom(SeenSetOptions options) {
+    long bits = options.bloomBits();
+    useBloom(
+        new long[(int) (bits / Long.SIZE)],
+        (int) Math.max(1, Math.round((double) bits / options.expectedUrls() * Math.log(2))));
+  }
+
+  private void useBloom(long[] bits, int hashes) {
+    bloomBits = bits;
+    bloomBitCount = (long) bits.length * Long.SIZE;
+    bloomHashes = hashes;
+  }
+
+  /**
+   * Checks whether a URL has been seen, without adding it.
+   *
+   * @param url The URL to look up
+   * @return true if the URL has been seen (in BLOOM mode, possibly a false positive)
+   */
+  boolean contains(String url) {
+    return switch (mode) {
+      case EXACT -> urls.contains(url);
+      case FINGERPRINT -> containsFingerprint(fingerprint(url));
+      case BLOOM -> bloomContains(url);
+    };
+  }
+
+  private boolean insert(String url) {
+    return switch (mode) {
+      case EXACT -> addExact(url);
+      case FINGERPRINT -> addFingerprint(fingerprint(url));
+      case BLOOM -> addToBloom(fingerprint(url));
+    };
+  }
+
+  private boolean addExact(String url) {
+    if (!urls.add(url)) {
+      return false;
+    }
+    order.add(url);
+    // The URL plus its quotes and separator, as counted by SeenSetSnapshot.encodedBytes()
+    exactBytes += url.length() + 3;
+    return true;
+  }
+
+  /**
+   * Returns the number of distinct URLs added.
+   *
+   * @return The number of URLs in the set
+   */
+  int size() {
+    return size;
+  }
+
+  /**
+   * Returns the seen URLs. Only an EXACT set keeps them, so other sets, including one converted
+   * from EXACT, return an empty set.
+   *
+   * @return A copy of the seen URLs in insertion order
+   */
+  Set<String> urls() {
+    return new LinkedHashSet<>(order);
+  }
+
+  /**
+   * Returns a range of the seen URLs in insertion order. Only an EXACT set keeps them, so other
+   * sets return an empty list. As URLs are only ever appended, a range stays valid while the set
+   * grows.
+   *
+   * @param offset The position of the first URL to return
+   * @param limit The maximum number of URLs to return
+   * @return A copy of the URLs in the range
+   */
+  List<String> urls(int offset, int limit) {
+    int from = Math.min(Math.max(0, offset), order.size());
+    int to = (int) Math.min(order.size(), (long) from + Math.max(0, limit));
+    return List.copyOf(order.subList(from, to));
+  }
+
+  /**
+   * Captures the set for continue-as-new.
+   *
+   * @return The snapshot of this set
+   */
+  SeenSetSnapshot snapshot() {
+    return switch (mode) {
+      case EXACT -> new SeenSetSnapshot(mode, new ArrayList<>(order), null, null, 0, size);
+      case FINGERPRINT -> {
+        ByteBuffer buffer = ByteBuffer.allocate(size * Long.BYTES);
+        for (long slot : table) {
+          if (slot != 0) {
+            buffer.putLong(slot);
+          }
+        }
+        yield new SeenSetSnapshot(mode, null, buffer.array(), null, 0, size);
+      }
+      case BLOOM -> {
+        ByteBuffer buffer = ByteBuffer.allocate(bloomBits.length * Long.BYTES);
+        buffer.asLongBuffer().put(bloomBits);
+        yield new SeenSetSnapshot(mode, null, null, buffer.array(), bloomHashes, size);
+      }
+    };
+  }
+
+  /**
+   * Computes a stable 64-bit fingerprint of a URL (FNV-1a followed by the MurmurHash3 finalizer).
+   *
+   * @param url The URL to hash
+   * @return The fingerprint
+   */
+  static long fingerprint(String url) {
+    long hash = FNV_OFFSET_BASIS;
+    for (int i = 0; i < url.length(); i++) {
+      hash ^= url.charAt(i);
+      hash *= FNV_PRIME;
+    }
+    return mix(hash);
+  }
+
+  private static long mix(long value) {
+    long hash = value;
+    hash ^= hash >>> 33;
+    hash *= 0xff51afd7ed558ccdL;
+    hash ^= hash >>> 33;
+    hash *= 0xc4ceb9fe1a85ec53L;
+    hash ^= hash >>> 33;
+    return hash;
+  }
+
+  private boolean addFingerprint(long value) {
+    // Zero marks an empty slot, so fold it onto another value
+    long fingerprint = value == 0 ? 1 : value;
+    if ((size + 1) * 2 > table.length) {
+      grow();
+    }
+    int mask = table.length - 1;
+    int index = (int) (fingerprint ^ (fingerprint >>> 32)) & mask;
+    while (table[index] != 0) {
+      if (table[index] == fingerprint) {
+        return false;
+      }
+      index = (index + 1) & mask;
+    }
+    table[index] = fingerprint;
+    size++;
+    return true;
+  }
+
+  private boolean containsFingerprint(long value) {
+    long fingerprint = value == 0 ? 1 : value;
+    int mask = table.length - 1;
+    int index = (int) (fingerprint ^ (fingerprint >>> 32)) & mask;
+    while (table[index] != 0) {
+      if (table[index] == fingerprint) {
+        return true;
+      }
+      index = (index + 1) & mask;
+    }
+    return false;
+  }
+
+  private void grow() {
+    long[] previous = table;
+    table = new long[previous.length * 2];
+    size = 0;
+    for (long slot : previous) {
+      if (slot != 0) {
+        addFingerprint(slot);
+      }
+    }
+  }
+
+  private boolean addToBloom(long hash1) {
+    long hash2 = mix(hash1 ^ SECOND_HASH_SEED);
+    boolean added = false;
+    for (int i = 0; i < bloomHashes; i++) {
+      long bit = bloomBit(hash1, hash2, i);
+      int word = (int) (bit >>> 6);
+      long mask = 1L << bit;
+      if ((bloomBits[word] & mask) == 0) {
+        bloomBits[word] |= mask;
+        added = true;
+      }
+    }
+    return added;
+  }
+
+  private boolean bloomContains(String url) {
+    long hash1 = fingerprint(url);
+    long hash2 = mix(hash1 ^ SECOND_HASH_SEED);
+    for (int i = 0; i < bloomHashes; i++) {
+      long bit = bloomBit(hash1, hash2, i);
+      if ((bloomBits[(int) (bit >>> 6)] & (1L << bit)) == 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /** Kirsch-Mitzenmacher double hashing derives all k bit positions from two hashes. */
+  private long bloomBit(long hash1, long hash2, int index) {
+    return ((hash1 + index * hash2) & Long.MAX_VALUE) % bloomBitCount;
+  }
+}
@@ -0,0 +1,113 @@
+package com.example.temporal.workflows.crawler;
+
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Worker-wide store of the cache validators and hrefs of fetched pages, keyed by canonical URL.
+ *
+ * <p>When a page was served with an {@code ETag} or {@code Last-Modified} header, its validators
+ * and the raw hrefs extracted from it are kept. The next fetch of the page sends them back as
+ * {@code If-None-Match} and {@code If-Modified-Since}, and a 304 response reuses the stored hrefs
+ * instead of downloading and scanning the body again. Raw hrefs rather than final links are stored,
+ * so each crawl still applies its own canonicalization and scope. The store holds at most a fixed
+ * number of pages and evicts the least recently used one beyond that.
+ */
+final class ValidatorStore {
+
+  private final Map<String, Page> pages;
+
+  /**
+   * Creates an empty store.
+   *
+   * @param maxPages The maximum number of pages kept
+   */
+  ValidatorStore(int maxPages) {
+    this.pages =
+        new LinkedHashMap<>(16, 0.75f, true) {
+          @Override
+          protected boolean removeEldestEntry(Map.Entry<String, Page> eldest) {
+            return super.size() > maxPages;
+          }
+        };
+  }
+
+  /**
+   * Returns the stored state of a page.
+   *
+   * @param url The canonical URL that was requested
+   * @return The page's validators and hrefs, or null if none are stored
+   */
+  Page get(String url) {
+    synchronized (pages) {
+      return pages.get(url);
+    }
+  }
+
+  /**
+   * Records the outcome of a full fetch. Pages served without validators are dropped from the
+   * store, since they cannot be revalidated.
+   *
+   * @param url The canonical URL that was requested
+   * @param finalUrl The URL the page was served from, after following redirects
+   * @param hrefs The raw hrefs extracted from the page
+   * @param headers The response headers
+   */
+  void record(String url, String finalUrl, List<String> hrefs, HttpHeaders headers) {
+    String etag = headers.firstValue("ETag").orElse(null);
+    String lastModified = headers.firstValue("Last-Modified").orElse(null);
+    synchronized (pages) {
+      if (etag == null && lastModified == null) {
+        pages.remove(url);
+      } else {
+        pages.put(url, new Page(finalUrl, hrefs, etag, lastModified));
+      }
+    }
+  }
+
+  /**
+   * Returns the number of pages in the store.
+   *
+   * @return The number of stored pages
+   */
+  int size() {
+    synchronized (pages) {
+      return pages.size();
+    }
+  }
+
+  /**
+   * The validators and hrefs of a fetched page.
+   *
+   * @param url The URL the page was served from, which relative hrefs resolve against
+   * @param hrefs The raw hrefs extracted from the page
+   * @param etag The entity tag of the page, or null if none was given
+   * @param lastModified The Last-Modified date of the page, or null if none was given
+   */
+  record Page(String url, List<String> hrefs, String etag, String lastModified) {
+
+    /** Makes an unmodifiable copy of the hrefs. */
+    Page {
+      hrefs = hrefs == null ? List.of() : List.copyOf(hrefs);
+    }
+
+    /**
+     * Adds the conditional request headers for this page to a request.
+     *
+     * @param request The request for the page
+     * @return The same request builder
+     */
+    HttpRequest.Builder addConditions(HttpRequest.Builder request) {
+      if (etag != null) {
+        request.header("If-None-Match", etag);
+      }
+      if (lastModified != null) {
+        request.header("If-Modified-Since", lastModified);
+      }
+      return request;
+    }
+  }
+}
@@ -0,0 +1,56 @@
+package com.example.temporal.workflows.http;
+
+import com.example.temporal.common.BlobStore;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.ClientHttpResponse;
+
+/**
+ * Claim-check handling of HTTP response bodies.
+ *
+ * <p>Bodies up to the threshold are returned inline as text. Larger bodies are streamed into a
+ * {@link BlobStore} as they are read, and the activity returns only the {@link
+ * com.example.temporal.common.BlobReference} with their size, SHA-256 digest and content type, so
+ * the body never enters workflow history. At most threshold + 1 bytes of a body are held in memory.
+ */
+final class ClaimCheck {
+
+  private final BlobStore store;
+  private final int thresholdBytes;
+
+  /**
+   * Creates a claim check.
+   *
+   * @param store The store for large bodies
+   * @param thresholdBytes The largest body returned inline
+   */
+  ClaimCheck(BlobStore store, int thresholdBytes) {
+    this.store = store;
+    this.thresholdBytes = thresholdBytes;
+  }
+
+  /**
+   * Reads a response, returning its body inline or by reference depending on its size.
+   *
+   * @param response The response to read
+   * @return The activity output
+   * @throws IOException If the body cannot be read or stored
+   */
+  HttpGetActivityOutput read(ClientHttpResponse response) throws IOException {
+    int statusCode = response.getStatusCode().value();
+    MediaType contentType = response.getHeaders().getContentType();
+    InputStream body = response.getBody();
+    byte[] head = body.readNBytes(thresholdBytes + 1);
+    if (head.length <= thresholdBytes) {
+      return new HttpGetActivityOutput(
+          new String(head, ResponseReader.charset(contentType)), statusCode);
+    }
+
+    InputStream whole = new SequenceInputStream(new ByteArrayInputStream(head), body);
+    return new HttpGetActivityOutput(
+        "", statusCode, store.put(whole, contentType == null ? null : contentType.toString()));
+  }
+}
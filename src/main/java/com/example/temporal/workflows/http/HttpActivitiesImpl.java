@@ -1,15 +1,39 @@
 package com.example.temporal.workflows.http;
 
+import com.example.temporal.common.BlobStore;
+import com.example.temporal.common.CanonicalizationOptions;
+import com.example.temporal.common.SingleFlight;
+import com.example.temporal.common.UrlCanonicalizer;
+import java.io.IOException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpResponse;
 import org.springframework.stereotype.Component;
+import org.springframework.web.client.ResourceAccessException;
 import org.springframework.web.client.RestTemplate;
 
 /**
  * Implementation of HTTP activities using Spring's RestTemplate.
  *
- * <p>This class can be used as a Spring bean or instantiated directly in workers.
+ * <p>This class can be used as a Spring bean or instantiated directly in workers. Workers that poll
+ * the same endpoints from many workflows can pass a {@link ResponseCache}, which then serves
+ * repeated GETs of a URL from memory while the cached response is fresh. Executions that request
+ * the same URL at the same time are coalesced by a {@link SingleFlight} into one upstream request
+ * whose response they all receive; they are matched by the URL as rewritten by a {@link
+ * UrlCanonicalizer} that keeps the query, so that spellings differing only in case, default port,
+ * dot segments or fragment share the request. With a {@link BlobStore}, the body is streamed
+ * instead of buffered, and bodies above the claim-check threshold are stored in it and returned by
+ * reference.
+ *
+ * <p>Callers that need less than the full body choose a {@link ResponseMode}: status only, headers
+ * only, a SHA-256 digest or a preview of the first bytes. These modes stream the body through a
+ * fixed-size buffer, so health checks and change detection use constant memory per request. They
+ * return error statuses like any other status instead of throwing, and status-only and headers-only
+ * requests are sent as HEAD so that no body is transferred at all.
  */
 @Component
 public class HttpActivitiesImpl implements HttpActivities {
@@ -17,6 +41,41 @@ public class HttpActivitiesImpl implements HttpActivities {
   private static final Logger logger = LoggerFactory.getLogger(HttpActivitiesImpl.class);
 
   private final RestTemplate restTemplate;
+  private final UrlCanonicalizer canonicalizer =
+      new UrlCanonicalizer(CanonicalizationOptions.keepQuery());
+  private final ResponseCache responseCache;
+  private final ClaimCheck claimCheck;
+  private final SingleFlight<HttpGetActivityInput, HttpGetActivityOutput> inFlight =
+      new SingleFlight<>();
+
+  /**
+   * Constructor with RestTemplate dependency injection, a response cache and claim-check storage.
+   *
+   * @param restTemplate The RestTemplate to use for HTTP requests
+   * @param responseCache The worker-local response cache, or null to always go to the network
+   * @param blobStore The store for bodies above the threshold, or null to return every body inline
+   * @param claimCheckThresholdBytes The largest body returned inline when a blob store is given
+   */
+  public HttpActivitiesImpl(
+      RestTemplate restTemplate,
+      ResponseCache responseCache,
+      BlobStore blobStore,
+      int claimCheckThresholdBytes) {
+    this.restTemplate = restTemplate;
+    this.responseCache = responseCache;
+    this.claimCheck =
+        blobStore == null ? null : new ClaimCheck(blobStore, claimCheckThresholdBytes);
+  }
+
+  /**
+   * Constructor with RestTemplate dependency injection and a response cache.
+   *
+   * @param restTemplate The RestTemplate to use for HTTP requests
+   * @param responseCache The worker-local response cache, or null to always go to the network
+   */
+  public HttpActivitiesImpl(RestTemplate restTemplate, ResponseCache responseCache) {
+    this(restTemplate, responseCache, null, 0);
+  }
 
   /**
    * Constructor with RestTemplate dependency injection.
@@ -24,7 +83,7 @@ public class HttpActivitiesImpl implements HttpActivities {
    * @param restTemplate The RestTemplate to use for HTTP requests
    */
   public HttpActivitiesImpl(RestTemplate restTemplate) {
-    this.restTemplate = restTemplate;
+    this(restTemplate, null);
   }
 
   /**
@@ -32,24 +91,162 @@ public class HttpActivitiesImpl implements HttpActivities {
    * don't use Spring dependency injection.
    */
   public HttpActivitiesImpl() {
-    this.restTemplate = new RestTemplate();
+    this(new RestTemplate());
   }
 
   @Override
   public HttpGetActivityOutput httpGet(HttpGetActivityInput input) {
     logger.info("Performing HTTP GET request to URL: {}", input.url());
 
+    // Spellings of one URL share a cache entry and an in-flight request
+    HttpGetActivityInput key = canonicalKey(input);
+
+    // Only full bodies are cached; the streaming modes always go to the network
+    boolean fullBody = input.mode() == ResponseMode.FULL_BODY;
+    HttpGetActivityOutput cached =
+        responseCache == null || !fullBody ? null : responseCache.get(key.url());
+    if (cached != null) {
+      logger.info("Serving HTTP GET request to {} from the response cache", input.url());
+      return cached;
+    }
+
+    // Concurrent executions for the same canonical URL and response mode share one request
+    return inFlight.run(key, () -> fetch(input, key.url()));
+  }
+
+  /**
+   * Returns the key under which responses are cached and concurrent requests coalesced: the input
+   * with its URL canonicalized, or the input itself if the URL cannot be parsed.
+   *
+   * @param input The requested URL and response mode
+   * @return The cache and coalescing key
+   */
+  private HttpGetActivityInput canonicalKey(HttpGetActivityInput input) {
+    String canonical = canonicalizer.canonicalize(input.url());
+    return canonical == null
+        ? input
+        : new HttpGetActivityInput(canonical, input.mode(), input.previewBytes());
+  }
+
+  /**
+   * Returns the number of requests that joined an in-flight request for the same canonical URL
+   * instead of going to the network.
+   *
+   * @return The number of coalesced requests
+   */
+  long coalescedRequests() {
+    return inFlight.coalesced();
+  }
+
+  private HttpGetActivityOutput fetch(HttpGetActivityInput input, String cacheKey) {
+    if (input.mode() != ResponseMode.FULL_BODY) {
+      return fetchPartial(input);
+    }
+    if (claimCheck != null) {
+      return fetchStreaming(input, cacheKey);
+    }
+    String url = input.url();
     try {
-      ResponseEntity<String> response = restTemplate.getForEntity(input.url(), String.class);
+      // Fetched as bytes so that a body without a declared charset is decoded as UTF-8, the same
+      // as in the claim-check and streaming paths, rather than as the converter's ISO-8859-1
+      ResponseEntity<byte[]> response = restTemplate.getForEntity(url, byte[].class);
 
-      String responseText = response.getBody() != null ? response.getBody() : "";
+      byte[] body = response.getBody();
+      String responseText =
+          body != null
+              ? new String(body, ResponseReader.charset(response.getHeaders().getContentType()))
+              : "";
       int statusCode = response.getStatusCode().value();
 
       logger.info("HTTP GET request completed with status code: {}", statusCode);
 
-      return new HttpGetActivityOutput(responseText, statusCode);
+      HttpGetActivityOutput output = new HttpGetActivityOutput(responseText, statusCode);
+      if (responseCache != null) {
+        responseCache.put(cacheKey, output, response.getHeaders());
+      }
+      return output;
+    } catch (Exception e) {
+      logger.error("Error performing HTTP GET request to {}: {}", url, e.getMessage());
+      throw e;
+    }
+  }
+
+  /**
+   * Performs the request of a streaming response mode and reads it with the {@link ResponseReader}.
+   *
+   * <p>The request goes to the RestTemplate's request factory, which still applies its
+   * interceptors, rather than through the RestTemplate itself, whose error handler would throw on
+   * 4xx and 5xx responses before the reader sees them. Status-only and headers-only requests use
+   * HEAD, and fall back to GET if the server does not support it.
+   *
+   * @param input The URL and response mode
+   * @return The response as read in the requested mode
+   */
+  private HttpGetActivityOutput fetchPartial(HttpGetActivityInput input) {
+    String url = input.url();
+    ResponseMode mode = input.mode();
+    try {
+      HttpGetActivityOutput output = null;
+      if (mode == ResponseMode.STATUS_ONLY || mode == ResponseMode.HEADERS_ONLY) {
+        output = exchange(input, HttpMethod.HEAD);
+        int status = output.statusCode();
+        if (status == HttpStatus.METHOD_NOT_ALLOWED.value()
+            || status == HttpStatus.NOT_IMPLEMENTED.value()) {
+          output = null;
+        }
+      }
+      if (output == null) {
+        output = exchange(input, HttpMethod.GET);
+      }
+      logger.info(
+          "HTTP GET request completed with status code: {} ({})", output.statusCode(), mode);
+      return output;
+    } catch (IOException e) {
+      logger.error("Error performing HTTP GET request to {}: {}", url, e.getMessage());
+      throw new ResourceAccessException(
+          "I/O error on GET request for \"" + url + "\": " + e.getMessage(), e);
+    }
+  }
+
+  private HttpGetActivityOutput exchange(HttpGetActivityInput input, HttpMethod method)
+      throws IOException {
+    ClientHttpRequest request =
+        restTemplate
+            .getRequestFactory()
+            .createRequest(restTemplate.getUriTemplateHandler().expand(input.url()), method);
+    try (ClientHttpResponse response = request.execute()) {
+      return ResponseReader.read(response, input.mode(), input.previewBytes());
+    }
+  }
+
+  /**
+   * Performs the GET with the body streamed through the claim check rather than buffered into a
+   * String. Error statuses throw as they do for buffered full bodies.
+   *
+   * @param input The URL
+   * @param cacheKey The canonical URL under which the response is cached
+   * @return The response, with a large body stored by reference
+   */
+  private HttpGetActivityOutput fetchStreaming(HttpGetActivityInput input, String cacheKey) {
+    String url = input.url();
+    try {
+      return restTemplate.execute(
+          url,
+          HttpMethod.GET,
+          null,
+          response -> {
+            HttpGetActivityOutput output = claimCheck.read(response);
+            logger.info(
+                "HTTP GET request completed with status code: {}{}",
+                output.statusCode(),
+                output.body() == null ? "" : ", body stored as " + output.body().key());
+            if (responseCache != null) {
+              responseCache.put(cacheKey, output, response.getHeaders());
+            }
+            return output;
+          });
     } catch (Exception e) {
-      logger.error("Error performing HTTP GET request to {}: {}", input.url(), e.getMessage());
+      logger.error("Error performing HTTP GET request to {}: {}", url, e.getMessage());
       throw e;
     }
   }
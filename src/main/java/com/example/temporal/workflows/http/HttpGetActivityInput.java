@@ -4,5 +4,51 @@ package com.example.temporal.workflows.http;
  * Input data for the HTTP GET activity.
  *
  * @param url The URL to fetch via HTTP GET
+ * @param mode How much of the response to read and return (default: {@link ResponseMode#FULL_BODY})
+ * @param previewBytes The number of body bytes returned in {@link ResponseMode#PREVIEW} mode
+ *     (default: {@link #DEFAULT_PREVIEW_BYTES})
  */
-public record HttpGetActivityInput(String url) {}
+public record HttpGetActivityInput(String url, ResponseMode mode, int previewBytes) {
+
+  /** The default number of body bytes returned in preview mode. */
+  public static final int DEFAULT_PREVIEW_BYTES = 1024;
+
+  /** Applies the default mode and preview size. */
+  public HttpGetActivityInput {
+    if (mode == null) {
+      mode = ResponseMode.FULL_BODY;
+    }
+    if (previewBytes <= 0) {
+      previewBytes = DEFAULT_PREVIEW_BYTES;
+    }
+  }
+
+  /**
+   * Constructor for a GET that returns the full body.
+   *
+   * @param url The URL to fetch via HTTP GET
+   */
+  public HttpGetActivityInput(String url) {
+    this(url, ResponseMode.FULL_BODY, DEFAULT_PREVIEW_BYTES);
+  }
+
+  /**
+   * Returns a copy of this input with a different response mode.
+   *
+   * @param responseMode How much of the response to read and return
+   * @return The new input
+   */
+  public HttpGetActivityInput withMode(ResponseMode responseMode) {
+    return new HttpGetActivityInput(url, responseMode, previewBytes);
+  }
+
+  /**
+   * Returns a copy of this input that returns only the first bytes of the body.
+   *
+   * @param bytes The number of body bytes to return
+   * @return The new input, in {@link ResponseMode#PREVIEW} mode
+   */
+  public HttpGetActivityInput withPreview(int bytes) {
+    return new HttpGetActivityInput(url, ResponseMode.PREVIEW, bytes);
+  }
+}
@@ -1,9 +1,54 @@
 package com.example.temporal.workflows.http;
 
+import com.example.temporal.common.BlobReference;
+import java.util.List;
+import java.util.Map;
+
 /**
  * Output data from the HTTP GET activity.
  *
- * @param responseText The response body as text
+ * @param responseText The response body as text, empty if the body was stored by reference or not
+ *     returned by the response mode, and only its first bytes in preview mode
  * @param statusCode The HTTP status code
+ * @param body The claim check for a body too large to return inline, or null if it is inline
+ * @param headers The response headers by lowercase name, empty unless headers were requested
+ * @param sha256 The hex-encoded SHA-256 digest of the body, or null unless a digest was requested
+ * @param contentLength The number of bytes in the body, or -1 if the body was not read to its end
  */
-public record HttpGetActivityOutput(String responseText, int statusCode) {}
+public record HttpGetActivityOutput(
+    String responseText,
+    int statusCode,
+    BlobReference body,
+    Map<String, List<String>> headers,
+    String sha256,
+    long contentLength) {
+
+  /** Makes an unmodifiable copy of the headers. */
+  public HttpGetActivityOutput {
+    if (responseText == null) {
+      responseText = "";
+    }
+    headers = headers == null ? Map.of() : Map.copyOf(headers);
+  }
+
+  /**
+   * Constructor for an output with the body inline or by reference.
+   *
+   * @param responseText The response body as text, empty if the body was stored by reference
+   * @param statusCode The HTTP status code
+   * @param body The claim check for a body too large to return inline, or null if it is inline
+   */
+  public HttpGetActivityOutput(String responseText, int statusCode, BlobReference body) {
+    this(responseText, statusCode, body, Map.of(), null, -1);
+  }
+
+  /**
+   * Constructor for an output with the body inline.
+   *
+   * @param responseText The response body as text
+   * @param statusCode The HTTP status code
+   */
+  public HttpGetActivityOutput(String responseText, int statusCode) {
+    this(responseText, statusCode, null);
+  }
+}
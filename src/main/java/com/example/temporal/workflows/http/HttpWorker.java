@@ -1,10 +1,21 @@
 package com.example.temporal.workflows.http;
 
+import com.example.temporal.common.BlobStore;
+import com.example.temporal.common.FileSystemBlobStore;
 import io.temporal.client.WorkflowClient;
 import io.temporal.serviceclient.WorkflowServiceStubs;
 import io.temporal.serviceclient.WorkflowServiceStubsOptions;
 import io.temporal.worker.Worker;
 import io.temporal.worker.WorkerFactory;
+import io.temporal.worker.WorkerFactoryOptions;
+import io.temporal.worker.WorkerOptions;
+import java.nio.file.Path;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.client.RestTemplate;
 
 /**
  * Standalone worker for the HTTP workflow.
@@ -12,13 +23,43 @@ import io.temporal.worker.WorkerFactory;
  * <p>This worker polls the "http-task-queue" and executes HTTP workflows and activities. Run this
  * class directly to start the worker.
  *
+ * <p>Setting TEMPORAL_VIRTUAL_THREADS=true runs activity tasks on virtual threads and raises the
+ * activity slot limit to 2000, since blocking HTTP calls then no longer pin an OS thread each.
+ * TEMPORAL_VIRTUAL_WORKFLOW_THREADS=true does the same for workflow threads.
+ *
+ * <p>Setting HTTP_CACHE_ENABLED=true serves repeated GETs of a URL from a worker-local {@link
+ * ResponseCache}, sized and bounded by the HTTP_CACHE_* variables of {@link ResponseCacheSettings}.
+ * Its {@link ResponseCacheStats} are then published every HTTP_CACHE_STATS_INTERVAL_SECONDS
+ * (default: 60, 0 to disable) as gauges on the metrics scope of the Temporal service stubs, and
+ * logged, since that scope reports nowhere unless a metrics reporter is configured.
+ *
+ * <p>Setting HTTP_CLAIM_CHECK_DIR stores bodies larger than HTTP_CLAIM_CHECK_THRESHOLD_BYTES
+ * (default: 256 KiB) as files in that directory and returns them by reference. The directory must
+ * be shared with whatever reads the bodies back.
+ *
  * <p>Usage: java com.example.temporal.workflows.http.HttpWorker
  */
 public class HttpWorker {
 
+  private static final Logger logger = LoggerFactory.getLogger(HttpWorker.class);
+
   public static final String TASK_QUEUE = "http-task-queue";
   private static final String TEMPORAL_SERVICE_ADDRESS =
       System.getenv().getOrDefault("TEMPORAL_ADDRESS", "localhost:7233");
+  private static final boolean VIRTUAL_THREADS =
+      Boolean.parseBoolean(System.getenv().getOrDefault("TEMPORAL_VIRTUAL_THREADS", "false"));
+  private static final boolean VIRTUAL_WORKFLOW_THREADS =
+      Boolean.parseBoolean(
+          System.getenv().getOrDefault("TEMPORAL_VIRTUAL_WORKFLOW_THREADS", "false"));
+  private static final int VIRTUAL_THREAD_MAX_CONCURRENT_ACTIVITIES = 2000;
+  private static final boolean CACHE_ENABLED =
+      Boolean.parseBoolean(System.getenv().getOrDefault("HTTP_CACHE_ENABLED", "false"));
+  private static final String CLAIM_CHECK_DIR =
+      System.getenv().getOrDefault("HTTP_CLAIM_CHECK_DIR", "");
+  private static final int CLAIM_CHECK_THRESHOLD_BYTES =
+      Integer.parseInt(System.getenv().getOrDefault("HTTP_CLAIM_CHECK_THRESHOLD_BYTES", "262144"));
+  private static final long CACHE_STATS_INTERVAL_SECONDS =
+      Long.parseLong(System.getenv().getOrDefault("HTTP_CACHE_STATS_INTERVAL_SECONDS", "60"));
 
   public static void main(String[] args) {
     // Create connection to Temporal service
@@ -29,16 +70,37 @@ public class HttpWorker {
     WorkflowClient client = WorkflowClient.newInstance(service);
 
     // Create worker factory
-    WorkerFactory factory = WorkerFactory.newInstance(client);
+    WorkerFactoryOptions factoryOptions =
+        WorkerFactoryOptions.newBuilder()
+            .setUsingVirtualWorkflowThreads(VIRTUAL_WORKFLOW_THREADS)
+            .build();
+    WorkerFactory factory = WorkerFactory.newInstance(client, factoryOptions);
 
     // Create worker for the HTTP task queue
-    Worker worker = factory.newWorker(TASK_QUEUE);
+    WorkerOptions.Builder workerOptions = WorkerOptions.newBuilder();
+    if (VIRTUAL_THREADS) {
+      workerOptions
+          .setUsingVirtualThreadsOnActivityWorker(true)
+          .setMaxConcurrentActivityExecutionSize(VIRTUAL_THREAD_MAX_CONCURRENT_ACTIVITIES);
+    }
+    Worker worker = factory.newWorker(TASK_QUEUE, workerOptions.build());
 
     // Register workflow implementation
     worker.registerWorkflowImplementationTypes(HttpWorkflowImpl.class);
 
-    // Register activity implementation
-    worker.registerActivitiesImplementations(new HttpActivitiesImpl());
+    // Register activity implementation, with a response cache shared by all executions if enabled
+    ResponseCache responseCache =
+        CACHE_ENABLED ? new ResponseCache(ResponseCacheSettings.fromEnvironment()) : null;
+    // Large bodies go to a claim-check blob store if a directory is configured
+    BlobStore blobStore =
+        CLAIM_CHECK_DIR.isBlank() ? null : new FileSystemBlobStore(Path.of(CLAIM_CHECK_DIR));
+    worker.registerActivitiesImplementations(
+        new HttpActivitiesImpl(
+            new RestTemplate(), responseCache, blobStore, CLAIM_CHECK_THRESHOLD_BYTES));
+
+    if (responseCache != null && CACHE_STATS_INTERVAL_SECONDS > 0) {
+      publishStats(responseCache, service);
+    }
 
     // Start the worker
     factory.start();
@@ -46,6 +108,43 @@ public class HttpWorker {
     System.out.println("HTTP Worker started");
     System.out.println("Temporal Service: " + TEMPORAL_SERVICE_ADDRESS);
     System.out.println("Task Queue: " + TASK_QUEUE);
+    System.out.println("Virtual activity threads: " + VIRTUAL_THREADS);
+    System.out.println("Virtual workflow threads: " + VIRTUAL_WORKFLOW_THREADS);
+    System.out.println("Response cache: " + CACHE_ENABLED);
+    System.out.println("Claim-check directory: " + (blobStore == null ? "none" : CLAIM_CHECK_DIR));
     System.out.println("Press Ctrl+C to stop the worker.");
   }
+
+  /**
+   * Publishes the response cache statistics on a schedule, for as long as the worker runs.
+   *
+   * @param responseCache The cache to report on
+   * @param service The service stubs whose metrics scope receives the gauges
+   */
+  private static void publishStats(ResponseCache responseCache, WorkflowServiceStubs service) {
+    ScheduledExecutorService scheduler =
+        Executors.newSingleThreadScheduledExecutor(
+            task -> {
+              Thread thread = new Thread(task, "http-cache-stats");
+              thread.setDaemon(true);
+              return thread;
+            });
+    scheduler.scheduleAtFixedRate(
+        () -> {
+          ResponseCacheStats stats = responseCache.stats();
+          stats.publish(service.getOptions().getMetricsScope());
+          logger.info(
+              "Response cache: {} hits, {} misses ({}% hit ratio), {} evictions, {} entries, {}"
+                  + " bytes",
+              stats.hits(),
+              stats.misses(),
+              Math.round(stats.hitRatio() * 100),
+              stats.evictions(),
+              stats.entries(),
+              stats.bytes());
+        },
+        CACHE_STATS_INTERVAL_SECONDS,
+        CACHE_STATS_INTERVAL_SECONDS,
+        TimeUnit.SECONDS);
+  }
 }
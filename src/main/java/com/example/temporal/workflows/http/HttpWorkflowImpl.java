@@ -28,7 +28,8 @@ public class HttpWorkflowImpl implements HttpWorkflow {
     logger.info("Starting HTTP workflow for URL: {}", input.url());
 
     // Execute the HTTP GET activity
-    HttpGetActivityInput activityInput = new HttpGetActivityInput(input.url());
+    HttpGetActivityInput activityInput =
+        new HttpGetActivityInput(input.url(), input.mode(), input.previewBytes());
     HttpGetActivityOutput activityOutput = activities.httpGet(activityInput);
 
     logger.info(
@@ -38,6 +39,12 @@ public class HttpWorkflowImpl implements HttpWorkflow {
 
     // Return the workflow output
     return new HttpWorkflowOutput(
-        activityOutput.responseText(), input.url(), activityOutput.statusCode());
+        activityOutput.responseText(),
+        input.url(),
+        activityOutput.statusCode(),
+        activityOutput.body(),
+        activityOutput.headers(),
+        activityOutput.sha256(),
+        activityOutput.contentLength());
   }
 }
@@ -4,5 +4,48 @@ package com.example.temporal.workflows.http;
  * Input data for the HTTP workflow.
  *
  * @param url The URL to fetch via HTTP GET
+ * @param mode How much of the response to read and return (default: {@link ResponseMode#FULL_BODY})
+ * @param previewBytes The number of body bytes returned in {@link ResponseMode#PREVIEW} mode
+ *     (default: {@link HttpGetActivityInput#DEFAULT_PREVIEW_BYTES})
  */
-public record HttpWorkflowInput(String url) {}
+public record HttpWorkflowInput(String url, ResponseMode mode, int previewBytes) {
+
+  /** Applies the default mode and preview size. */
+  public HttpWorkflowInput {
+    if (mode == null) {
+      mode = ResponseMode.FULL_BODY;
+    }
+    if (previewBytes <= 0) {
+      previewBytes = HttpGetActivityInput.DEFAULT_PREVIEW_BYTES;
+    }
+  }
+
+  /**
+   * Constructor for a workflow that returns the full body.
+   *
+   * @param url The URL to fetch via HTTP GET
+   */
+  public HttpWorkflowInput(String url) {
+    this(url, ResponseMode.FULL_BODY, HttpGetActivityInput.DEFAULT_PREVIEW_BYTES);
+  }
+
+  /**
+   * Returns a copy of this input with a different response mode.
+   *
+   * @param responseMode How much of the response to read and return
+   * @return The new input
+   */
+  public HttpWorkflowInput withMode(ResponseMode responseMode) {
+    return new HttpWorkflowInput(url, responseMode, previewBytes);
+  }
+
+  /**
+   * Returns a copy of this input that returns only the first bytes of the body.
+   *
+   * @param bytes The number of body bytes to return
+   * @return The new input, in {@link ResponseMode#PREVIEW} mode
+   */
+  public HttpWorkflowInput withPreview(int bytes) {
+    return new HttpWorkflowInput(url, ResponseMode.PREVIEW, bytes);
+  }
+}
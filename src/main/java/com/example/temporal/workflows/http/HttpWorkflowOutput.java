@@ -1,10 +1,58 @@
 package com.example.temporal.workflows.http;
 
+import com.example.temporal.common.BlobReference;
+import java.util.List;
+import java.util.Map;
+
 /**
  * Output data from the HTTP workflow.
  *
- * @param responseText The response body as text
+ * @param responseText The response body as text, empty if the body was stored by reference or not
+ *     returned by the response mode, and only its first bytes in preview mode
  * @param url The URL that was fetched
  * @param statusCode The HTTP status code
+ * @param body The claim check for a body too large to return inline, or null if it is inline
+ * @param headers The response headers by lowercase name, empty unless headers were requested
+ * @param sha256 The hex-encoded SHA-256 digest of the body, or null unless a digest was requested
+ * @param contentLength The number of bytes in the body, or -1 if the body was not read to its end
  */
-public record HttpWorkflowOutput(String responseText, String url, int statusCode) {}
+public record HttpWorkflowOutput(
+    String responseText,
+    String url,
+    int statusCode,
+    BlobReference body,
+    Map<String, List<String>> headers,
+    String sha256,
+    long contentLength) {
+
+  /** Makes an unmodifiable copy of the headers. */
+  public HttpWorkflowOutput {
+    if (responseText == null) {
+      responseText = "";
+    }
+    headers = headers == null ? Map.of() : Map.copyOf(headers);
+  }
+
+  /**
+   * Constructor for an output with the body inline or by reference.
+   *
+   * @param responseText The response body as text, empty if the body was stored by reference
+   * @param url The URL that was fetched
+   * @param statusCode The HTTP status code
+   * @param body The claim check for a body too large to return inline, or null if it is inline
+   */
+  public HttpWorkflowOutput(String responseText, String url, int statusCode, BlobReference body) {
+    this(responseText, url, statusCode, body, Map.of(), null, -1);
+  }
+
+  /**
+   * Constructor for an output with the body inline.
+   *
+   * @param responseText The response body as text
+   * @param url The URL that was fetched
+   * @param statusCode The HTTP status code
+   */
+  public HttpWorkflowOutput(String responseText, String url, int statusCode) {
+    this(responseText, url, statusCode, null);
+  }
+}
@@ -0,0 +1,165 @@
+package com.example.temporal.workflows.http;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.LongSupplier;
+import org.springframework.http.HttpHeaders;
+
+/**
+ * Worker-local cache of successful HTTP GET responses, shared by every activity execution of a
+ * worker.
+ *
+ * <p>Responses are cached by URL for the freshness lifetime their headers give, clamped as
+ * described in {@link ResponseCacheSettings}. The cache is bounded by entry count and by the
+ * estimated total size of the cached bodies, and evicts the least recently used responses to stay
+ * within both bounds. Hits, misses and evictions are counted and reported by {@link #stats()}. The
+ * cache is thread-safe.
+ */
+public class ResponseCache {
+
+  private final ResponseCacheSettings settings;
+  private final LongSupplier clockMillis;
+  private final Map<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+  private long bytes;
+  private long hits;
+  private long misses;
+  private long evictions;
+
+  /**
+   * Creates a cache that reads the system clock.
+   *
+   * @param settings The size bounds and TTL limits
+   */
+  public ResponseCache(ResponseCacheSettings settings) {
+    this(settings, System::currentTimeMillis);
+  }
+
+  /**
+   * Creates a cache.
+   *
+   * @param settings The size bounds and TTL limits
+   * @param clockMillis The clock freshness is measured against
+   */
+  ResponseCache(ResponseCacheSettings settings, LongSupplier clockMillis) {
+    this.settings = settings;
+    this.clockMillis = clockMillis;
+  }
+
+  /**
+   * Looks up a fresh response for a URL.
+   *
+   * @param url The requested URL
+   * @return The cached response, or null if none is cached or it has expired
+   */
+  public synchronized HttpGetActivityOutput get(String url) {
+    Entry entry = entries.get(url);
+    if (entry != null && entry.expiresAtMillis <= clockMillis.getAsLong()) {
+      entries.remove(url);
+      bytes -= entry.bytes;
+      entry = null;
+    }
+    if (entry == null) {
+      misses++;
+      return null;
+    }
+    hits++;
+    return entry.output;
+  }
+
+  /**
+   * Caches a response if it is cacheable: a 200 whose headers allow caching and that fits within
+   * the size bound on its own.
+   *
+   * @param url The requested URL
+   * @param output The response
+   * @param headers The response headers
+   */
+  public void put(String url, HttpGetActivityOutput output, HttpHeaders headers) {
+    if (output.statusCode() != 200) {
+      return;
+    }
+    long nowMillis = clockMillis.getAsLong();
+    long ttlMillis = ttlMillis(headers, nowMillis);
+    long size = sizeOf(url, output);
+    if (ttlMillis <= 0 || size > settings.maxBytes()) {
+      return;
+    }
+
+    synchronized (this) {
+      Entry previous = entries.put(url, new Entry(output, size, nowMillis + ttlMillis));
+      bytes += size - (previous == null ? 0 : previous.bytes);
+
+      Iterator<Entry> eldestFirst = entries.values().iterator();
+      while (entries.size() > settings.maxEntries() || bytes > settings.maxBytes()) {
+        Entry evicted = eldestFirst.next();
+        eldestFirst.remove();
+        bytes -= evicted.bytes;
+        evictions++;
+      }
+    }
+  }
+
+  /**
+   * Returns the current counters.
+   *
+   * @return The hit, miss and eviction counts and the current size
+   */
+  public synchronized ResponseCacheStats stats() {
+    return new ResponseCacheStats(hits, misses, evictions, entries.size(), bytes);
+  }
+
+  /**
+   * Computes how long a response may be cached.
+   *
+   * @param headers The response headers
+   * @param nowMillis The current time
+   * @return The TTL in milliseconds, 0 if the response must not be cached
+   */
+  long ttlMillis(HttpHeaders headers, long nowMillis) {
+    long lifetimeMillis = -1;
+    long sharedMaxAgeMillis = -1;
+    for (String directive : headers.getValuesAsList(HttpHeaders.CACHE_CONTROL)) {
+      String name = directive.toLowerCase(Locale.ROOT);
+      if (name.equals("no-store") || name.equals("no-cache") || name.equals("private")) {
+        return 0;
+      }
+      if (name.startsWith("max-age=")) {
+        lifetimeMillis = secondsToMillis(name.substring("max-age=".length()));
+      } else if (name.startsWith("s-maxage=")) {
+        sharedMaxAgeMillis = secondsToMillis(name.substring("s-maxage=".length()));
+      }
+    }
+    if (sharedMaxAgeMillis >= 0) {
+      lifetimeMillis = sharedMaxAgeMillis;
+    } else if (lifetimeMillis < 0 && headers.getExpires() >= 0) {
+      long dateMillis = headers.getDate() >= 0 ? headers.getDate() : nowMillis;
+      lifetimeMillis = Math.max(0, headers.getExpires() - dateMillis);
+    }
+
+    long minMillis = settings.minTtlSeconds() * 1000L;
+    long maxMillis = settings.maxTtlSeconds() * 1000L;
+    return lifetimeMillis < 0
+        ? minMillis
+        : Math.min(maxMillis, Math.max(minMillis, lifetimeMillis));
+  }
+
+  private static long secondsToMillis(String seconds) {
+    try {
+      long parsed = Long.parseLong(seconds.strip().replace("\"", ""));
+      return Math.min(Math.max(0, parsed), Integer.MAX_VALUE) * 1000L;
+    } catch (NumberFormatException e) {
+      return -1;
+    }
+  }
+
+  /** Estimates the heap size of a cached response from its UTF-16 characters. */
+  private static long sizeOf(String url, HttpGetActivityOutput output) {
+    return 2L * (url.length() + output.responseText().length());
+  }
+
+  /** A cached response with its size and expiry. */
+  private record Entry(HttpGetActivityOutput output, long bytes, long expiresAtMillis) {}
+}
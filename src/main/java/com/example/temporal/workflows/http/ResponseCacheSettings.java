@@ -0,0 +1,64 @@
+package com.example.temporal.workflows.http;
+
+/**
+ * Settings for the worker-local {@link ResponseCache} of the HTTP activities.
+ *
+ * <p>A response is fresh for the lifetime its {@code Cache-Control} ({@code s-maxage} or {@code
+ * max-age}) or {@code Expires} header gives, clamped to the TTL floor and ceiling. With a floor
+ * above zero, responses without freshness information are cached for the floor; responses marked
+ * {@code no-store}, {@code no-cache} or {@code private} are never cached.
+ *
+ * @param maxEntries The maximum number of cached responses (default: 1000)
+ * @param maxBytes The maximum total size of the cached responses in bytes (default: 64 MiB)
+ * @param minTtlSeconds The shortest time a cacheable response is kept (default: 0)
+ * @param maxTtlSeconds The longest time a response is kept (default: 300)
+ */
+public record ResponseCacheSettings(
+    int maxEntries, long maxBytes, int minTtlSeconds, int maxTtlSeconds) {
+
+  /** Default number of cached responses. */
+  public static final int DEFAULT_MAX_ENTRIES = 1000;
+
+  /** Default total size of the cached responses in bytes. */
+  public static final long DEFAULT_MAX_BYTES = 64L * 1024 * 1024;
+
+  /** Default TTL ceiling in seconds. */
+  public static final int DEFAULT_MAX_TTL_SECONDS = 300;
+
+  /** Normalizes unset values to their defaults. */
+  public ResponseCacheSettings {
+    if (maxEntries <= 0) {
+      maxEntries = DEFAULT_MAX_ENTRIES;
+    }
+    if (maxBytes <= 0) {
+      maxBytes = DEFAULT_MAX_BYTES;
+    }
+    minTtlSeconds = Math.max(0, minTtlSeconds);
+    if (maxTtlSeconds <= 0) {
+      maxTtlSeconds = DEFAULT_MAX_TTL_SECONDS;
+    }
+    maxTtlSeconds = Math.max(minTtlSeconds, maxTtlSeconds);
+  }
+
+  /**
+   * Returns the default settings.
+   *
+   * @return The default cache settings
+   */
+  public static ResponseCacheSettings defaults() {
+    return new ResponseCacheSettings(0, 0, 0, 0);
+  }
+
+  /**
+   * Reads the settings from HTTP_CACHE_* environment variables, using defaults for unset ones.
+   *
+   * @return The cache settings for this worker
+   */
+  public static ResponseCacheSettings fromEnvironment() {
+    return new ResponseCacheSettings(
+        Integer.parseInt(System.getenv().getOrDefault("HTTP_CACHE_MAX_ENTRIES", "0")),
+        Long.parseLong(System.getenv().getOrDefault("HTTP_CACHE_MAX_BYTES", "0")),
+        Integer.parseInt(System.getenv().getOrDefault("HTTP_CACHE_MIN_TTL_SECONDS", "0")),
+        Integer.parseInt(System.getenv().getOrDefault("HTTP_CACHE_MAX_TTL_SECONDS", "0")));
+  }
+}
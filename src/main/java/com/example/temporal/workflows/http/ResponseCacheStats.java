@@ -0,0 +1,40 @@
+package com.example.temporal.workflows.http;
+
+import com.uber.m3.tally.Scope;
+
+/**
+ * Counters of a {@link ResponseCache}, taken at one point in time.
+ *
+ * @param hits The number of lookups served from the cache
+ * @param misses The number of lookups that went to the network
+ * @param evictions The number of responses removed to stay within the size bounds
+ * @param entries The number of responses currently cached
+ * @param bytes The estimated size of the responses currently cached
+ */
+public record ResponseCacheStats(long hits, long misses, long evictions, int entries, long bytes) {
+
+  /**
+   * Returns the share of lookups served from the cache.
+   *
+   * @return The hit ratio between 0 and 1, 0 if nothing was looked up yet
+   */
+  public double hitRatio() {
+    long lookups = hits + misses;
+    return lookups == 0 ? 0 : (double) hits / lookups;
+  }
+
+  /**
+   * Publishes these counters as gauges, named http_response_cache_*, on a metrics scope such as the
+   * one Temporal reports its worker metrics to.
+   *
+   * @param scope The metrics scope to update
+   */
+  public void publish(Scope scope) {
+    scope.gauge("http_response_cache_hits").update(hits);
+    scope.gauge("http_response_cache_misses").update(misses);
+    scope.gauge("http_response_cache_evictions").update(evictions);
+    scope.gauge("http_response_cache_entries").update(entries);
+    scope.gauge("http_response_cache_bytes").update(bytes);
+    scope.gauge("http_response_cache_hit_ratio").update(hitRatio());
+  }
+}
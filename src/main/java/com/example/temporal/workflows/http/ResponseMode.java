@@ -0,0 +1,32 @@
+package com.example.temporal.workflows.http;
+
+/**
+ * How much of an HTTP response the GET activity reads and returns. Every mode but {@link
+ * #FULL_BODY} returns 4xx and 5xx statuses as results instead of failing the activity.
+ */
+public enum ResponseMode {
+  /** Returns the whole body as text, or by claim check if the worker has one and it is large. */
+  FULL_BODY,
+
+  /** Returns only the status code, requested with HEAD so that no body is transferred. */
+  STATUS_ONLY,
+
+  /**
+   * Returns the status code and response headers, requested with HEAD so that no body is
+   * transferred.
+   */
+  HEADERS_ONLY,
+
+  /**
+   * Returns the status code, the hex-encoded SHA-256 digest of the body and its length, computed
+   * while the body is streamed through a fixed-size buffer. Suited to change detection.
+   */
+  DIGEST,
+
+  /**
+   * Returns the status code and the first bytes of the body as text, up to {@link
+   * HttpGetActivityInput#previewBytes()}. The rest of the body is still read, through a fixed-size
+   * buffer, and discarded so that the connection can be reused.
+   */
+  PREVIEW
+}
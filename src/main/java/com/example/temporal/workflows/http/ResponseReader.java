@@ -0,0 +1,102 @@
+package com.example.temporal.workflows.http;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.ClientHttpResponse;
+
+/**
+ * Reads HTTP responses in the streaming {@link ResponseMode}s.
+ *
+ * <p>The body is never buffered as a whole: digests are computed over a fixed-size buffer, previews
+ * read only their first bytes, and the status-only and headers-only modes read no body at all,
+ * their requests being sent as HEAD. Memory per request is therefore bounded by the buffer or the
+ * preview size, whatever the size of the body.
+ */
+final class ResponseReader {
+
+  private static final int BUFFER_SIZE = 8 * 1024;
+
+  /**
+   * Reads a response in a streaming mode.
+   *
+   * @param response The response to read
+   * @param mode The response mode, any but {@link ResponseMode#FULL_BODY}
+   * @param previewBytes The number of body bytes returned in preview mode
+   * @return The activity output
+   * @throws IOException If the body cannot be read
+   */
+  static HttpGetActivityOutput read(
+      ClientHttpResponse response, ResponseMode mode, int previewBytes) throws IOException {
+    int statusCode = response.getStatusCode().value();
+    return switch (mode) {
+      case STATUS_ONLY -> new HttpGetActivityOutput("", statusCode);
+      case HEADERS_ONLY ->
+          new HttpGetActivityOutput("", statusCode, null, headers(response.getHeaders()), null, -1);
+      case DIGEST -> digest(response, statusCode);
+      case PREVIEW -> preview(response, statusCode, previewBytes);
+      case FULL_BODY ->
+          throw new IllegalArgumentException("Full bodies are not read by ResponseReader");
+    };
+  }
+
+  /**
+   * Returns the charset a response body is encoded in.
+   *
+   * @param contentType The Content-Type of the response, or null if it has none
+   * @return The charset parameter of the content type, or UTF-8 if it has none
+   */
+  static Charset charset(MediaType contentType) {
+    return contentType != null && contentType.getCharset() != null
+        ? contentType.getCharset()
+        : StandardCharsets.UTF_8;
+  }
+
+  private static HttpGetActivityOutput digest(ClientHttpResponse response, int statusCode)
+      throws IOException {
+    MessageDigest digest = sha256();
+    long length = 0;
+    InputStream body = response.getBody();
+    byte[] buffer = new byte[BUFFER_SIZE];
+    for (int read = body.read(buffer); read >= 0; read = body.read(buffer)) {
+      digest.update(buffer, 0, read);
+      length += read;
+    }
+    return new HttpGetActivityOutput(
+        "", statusCode, null, Map.of(), HexFormat.of().formatHex(digest.digest()), length);
+  }
+
+  private static HttpGetActivityOutput preview(
+      ClientHttpResponse response, int statusCode, int previewBytes) throws IOException {
+    InputStream body = response.getBody();
+    byte[] head = body.readNBytes(previewBytes);
+    // One more byte tells whether the preview is the whole body
+    long length = head.length < previewBytes || body.read() < 0 ? head.length : -1;
+    String text = new String(head, charset(response.getHeaders().getContentType()));
+    return new HttpGetActivityOutput(text, statusCode, null, Map.of(), null, length);
+  }
+
+  private static Map<String, List<String>> headers(HttpHeaders headers) {
+    Map<String, List<String>> byName = new LinkedHashMap<>();
+    headers.forEach((name, values) -> byName.put(name.toLowerCase(Locale.ROOT), values));
+    return byName;
+  }
+
+  private static MessageDigest sha256() {
+    try {
+      return MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 is not available", e);
+    }
+  }
+}
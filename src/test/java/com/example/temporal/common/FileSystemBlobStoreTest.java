@@ -0,0 +1,79 @@
+package com.example.temporal.common;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/** Unit tests for FileSystemBlobStore. */
+class FileSystemBlobStoreTest {
+
+  @TempDir Path root;
+
+  @Test
+  void testPut_RoundTripsContentByDigest() throws Exception {
+    // Arrange
+    FileSystemBlobStore store = new FileSystemBlobStore(root);
+    byte[] content = "x".repeat(100_000).getBytes(StandardCharsets.UTF_8);
+    String expectedHash =
+        HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+
+    // Act
+    BlobReference reference = store.put(new ByteArrayInputStream(content), "text/plain");
+    ByteArrayOutputStream copied = new ByteArrayOutputStream();
+    long copiedBytes = store.copyTo(reference, copied);
+
+    // Assert
+    assertEquals(expectedHash, reference.key());
+    assertEquals(expectedHash, reference.sha256());
+    assertEquals(content.length, reference.sizeBytes());
+    assertEquals("text/plain", reference.contentType());
+    assertEquals(content.length, copiedBytes);
+    assertArrayEquals(content, copied.toByteArray());
+  }
+
+  @Test
+  void testPut_IdenticalContentStoredOnce() throws Exception {
+    // Arrange
+    FileSystemBlobStore store = new FileSystemBlobStore(root);
+    byte[] content = "same body".getBytes(StandardCharsets.UTF_8);
+
+    // Act
+    BlobReference first = store.put(new ByteArrayInputStream(content), null);
+    BlobReference second = store.put(new ByteArrayInputStream(content), null);
+
+    // Assert - one blob file and no leftover temporary files
+    assertEquals(first, second);
+    try (Stream<Path> files = Files.walk(root)) {
+      assertEquals(1, files.filter(Files::isRegularFile).count());
+    }
+  }
+
+  @Test
+  void testOpen_RejectsKeysOutsideTheStore() {
+    // Arrange
+    FileSystemBlobStore store = new FileSystemBlobStore(root);
+    BlobReference reference = new BlobReference("../../etc/passwd", 0, "", null);
+
+    // Act & Assert
+    assertThrows(
+        IOException.class,
+        () -> {
+          try (InputStream in = store.open(reference)) {
+            in.readAllBytes();
+          }
+        });
+  }
+}
@@ -0,0 +1,114 @@
+package com.example.temporal.common;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+/** Unit tests for SingleFlight. */
+class SingleFlightTest {
+
+  @Test
+  void testRun_ConcurrentCallersShareOneCall() throws Exception {
+    // Arrange
+    SingleFlight<String, String> singleFlight = new SingleFlight<>();
+    AtomicInteger invocations = new AtomicInteger();
+    CountDownLatch started = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+
+    try {
+      // Act - the leader blocks until every follower has joined its call
+      Future<String> leader =
+          executor.submit(
+              () ->
+                  singleFlight.run(
+                      "key",
+                      () -> {
+                        invocations.incrementAndGet();
+                        started.countDown();
+                        await(release);
+                        return "result";
+                      }));
+      assertTrue(started.await(5, TimeUnit.SECONDS));
+      List<Future<String>> followers = new ArrayList<>();
+      for (int i = 0; i < 3; i++) {
+        followers.add(executor.submit(() -> singleFlight.run("key", () -> "not shared")));
+      }
+      while (singleFlight.coalesced() < 3) {
+        Thread.onSpinWait();
+      }
+      release.countDown();
+
+      // Assert
+      assertEquals("result", leader.get(5, TimeUnit.SECONDS));
+      for (Future<String> follower : followers) {
+        assertEquals("result", follower.get(5, TimeUnit.SECONDS));
+      }
+      assertEquals(1, invocations.get());
+      assertEquals(1, singleFlight.calls());
+      assertEquals("next", singleFlight.run("key", () -> "next"));
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  void testRunAsync_JoinsPendingCallAndPropagatesFailure() {
+    // Arrange
+    SingleFlight<String, String> singleFlight = new SingleFlight<>();
+    CompletableFuture<String> pending = new CompletableFuture<>();
+
+    // Act
+    CompletableFuture<String> first = singleFlight.runAsync("key", () -> pending);
+    CompletableFuture<String> second =
+        singleFlight.runAsync("key", () -> CompletableFuture.completedFuture("not shared"));
+    CompletableFuture<String> other =
+        singleFlight.runAsync("other", () -> CompletableFuture.completedFuture("other"));
+    pending.completeExceptionally(new IllegalStateException("boom"));
+
+    // Assert
+    assertSame(first, second);
+    assertTrue(first.isCompletedExceptionally());
+    assertEquals("other", other.join());
+    assertEquals(2, singleFlight.calls());
+    assertEquals(1, singleFlight.coalesced());
+  }
+
+  @Test
+  void testRun_RethrowsAndForgetsFailedCall() {
+    // Arrange
+    SingleFlight<String, String> singleFlight = new SingleFlight<>();
+
+    // Act & Assert
+    assertThrows(
+        IllegalStateException.class,
+        () ->
+            singleFlight.run(
+                "key",
+                () -> {
+                  throw new IllegalStateException("boom");
+                }));
+    assertEquals("retried", singleFlight.run("key", () -> "retried"));
+    assertEquals(2, singleFlight.calls());
+  }
+
+  private static void await(CountDownLatch latch) {
+    try {
+      latch.await(5, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
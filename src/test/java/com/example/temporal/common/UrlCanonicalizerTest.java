@@ -0,0 +1,64 @@
+package com.example.temporal.common;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+/** Unit tests for UrlCanonicalizer. */
+class UrlCanonicalizerTest {
+
+  private final UrlCanonicalizer canonicalizer =
+      new UrlCanonicalizer(CanonicalizationOptions.defaults());
+
+  @Test
+  void testCanonicalize_SpellingsOfOnePage() {
+    // Act & Assert
+    assertEquals("http://a.com/x", canonicalizer.canonicalize("http://A.com/x#top"));
+    assertEquals("http://a.com/x", canonicalizer.canonicalize("http://a.com:80/x"));
+    assertEquals("http://a.com/x", canonicalizer.canonicalize("http://a.com/x?"));
+    assertEquals("http://a.com/x", canonicalizer.canonicalize("HTTP://a.com./x"));
+    assertEquals("https://a.com/", canonicalizer.canonicalize("https://a.com:443"));
+    assertEquals("https://a.com:8443/", canonicalizer.canonicalize("https://a.com:8443/"));
+  }
+
+  @Test
+  void testCanonicalize_PathNormalization() {
+    // Act & Assert
+    assertEquals("http://a.com/b/d", canonicalizer.canonicalize("http://a.com/b/c/../d"));
+    assertEquals("http://a.com/b/", canonicalizer.canonicalize("http://a.com/b/./"));
+    assertEquals("http://a.com/", canonicalizer.canonicalize("http://a.com/../.."));
+    assertEquals("http://a.com/caf%C3%A9", canonicalizer.canonicalize("http://a.com/caf%c3%a9"));
+    assertEquals("http://a.com/Path", canonicalizer.canonicalize("http://a.com/Path"));
+  }
+
+  @Test
+  void testCanonicalize_QueryRules() {
+    // Arrange
+    String url = "http://a.com/p?b=2&utm_source=x&a=1&JSESSIONID=abc&&UTM_Medium=y";
+    UrlCanonicalizer sorting =
+        new UrlCanonicalizer(CanonicalizationOptions.defaults().withSortedParameters());
+    UrlCanonicalizer custom =
+        new UrlCanonicalizer(new CanonicalizationOptions(List.of("ref*"), false));
+
+    // Act & Assert
+    assertEquals("http://a.com/p?b=2&a=1", canonicalizer.canonicalize(url));
+    assertEquals("http://a.com/p?a=1&b=2", sorting.canonicalize(url));
+    assertEquals(
+        "http://a.com/p?utm_source=x",
+        custom.canonicalize("http://a.com/p?referrer=z&utm_source=x&ref"));
+    assertEquals(
+        url.replace("&&", "&"),
+        new UrlCanonicalizer(CanonicalizationOptions.keepQuery()).canonicalize(url));
+  }
+
+  @Test
+  void testCanonicalize_RejectsNonHttpUrls() {
+    // Act & Assert
+    assertNull(canonicalizer.canonicalize("mailto:someone@example.com"));
+    assertNull(canonicalizer.canonicalize("ftp://example.com/file"));
+    assertNull(canonicalizer.canonicalize("not a url"));
+    assertNull(canonicalizer.canonicalize("/relative/path"));
+  }
+}
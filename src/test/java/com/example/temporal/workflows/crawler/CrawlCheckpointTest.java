@@ -0,0 +1,54 @@
+package com.example.temporal.workflows.crawler;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.temporal.failure.ApplicationFailure;
+import java.util.Collections;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+/** Unit tests for CrawlCheckpoint. */
+class CrawlCheckpointTest {
+
+  @Test
+  void testBounded_FrontierTrimmedBesideFullSeenSet() {
+    // Arrange - a seen-set at its ceiling leaves room for part of the frontier only
+    CrawlFrontier frontier = new CrawlFrontier(0, 0, false);
+    for (int i = 0; i < 20_000; i++) {
+      frontier.add("https://a.example/" + "x".repeat(40) + i, 0);
+    }
+    String url = "https://b.example/" + "x".repeat(100);
+    long urlCount = SeenSetOptions.MAX_SNAPSHOT_BYTES / (url.length() + 3);
+    List<String> urls = Collections.nCopies((int) urlCount, url);
+    SeenSetSnapshot seen = new SeenSetSnapshot(DedupMode.EXACT, urls, null, null, 0, urls.size());
+
+    // Act
+    CrawlCheckpoint checkpoint =
+        CrawlCheckpoint.bounded(frontier, seen, List.of(), 8, List.of(), List.of(), false);
+
+    // Assert - the first-queued URLs are kept, and the crawl goes on
+    assertTrue(checkpoint.frontier().size() > 1000);
+    assertTrue(checkpoint.frontier().size() < frontier.size());
+    assertEquals("https://a.example/" + "x".repeat(40) + 0, checkpoint.frontier().get(0).url());
+    assertEquals(8, checkpoint.linksCrawled());
+  }
+
+  @Test
+  void testBounded_IrreducibleStateFailsCrawl() {
+    // Arrange
+    CrawlFrontier frontier = new CrawlFrontier(0, 0, false);
+    SeenSetSnapshot seen = new SeenSetSnapshot(DedupMode.BLOOM, null, null, new byte[8], 1, 0);
+    List<String> domains = Collections.nCopies(100_000, "subdomain.example.com");
+
+    // Act
+    ApplicationFailure failure =
+        assertThrows(
+            ApplicationFailure.class,
+            () -> CrawlCheckpoint.bounded(frontier, seen, domains, 0, List.of(), List.of(), false));
+
+    // Assert
+    assertEquals("CheckpointTooLarge", failure.getType());
+  }
+}
@@ -0,0 +1,320 @@
+package com.example.temporal.workflows.crawler;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+/** Unit tests for CrawlFrontier. */
+class CrawlFrontierTest {
+
+  @Test
+  void testPoll_RoundRobinAcrossHosts() {
+    // Arrange
+    CrawlFrontier frontier = new CrawlFrontier(0, 0, false);
+    frontier.add("https://a.example/1", 0);
+    frontier.add("https://a.example/2", 0);
+    frontier.add("https://a.example/3", 0);
+    frontier.add("https://b.example/1", 0);
+    frontier.add("https://c.example/1", 0);
+
+    // Act & Assert - each host gets a turn before a host is visited again
+    assertEquals("https://a.example/1", frontier.poll(0).url());
+    assertEquals("https://b.example/1", frontier.poll(0).url());
+    assertEquals("https://c.example/1", frontier.poll(0).url());
+    assertEquals("https://a.example/2", frontier.poll(0).url());
+    assertEquals("https://a.example/3", frontier.poll(0).url());
+    assertTrue(frontier.isEmpty());
+  }
+
+  @Test
+  void testPoll_PerHostConcurrencyLimit() {
+    // Arrange
+    CrawlFrontier frontier = new CrawlFrontier(1, 0, false);
+    frontier.add("https://a.example/1", 0);
+    frontier.add("https://a.example/2", 0);
+    frontier.add("https://b.example/1", 0);
+
+    // Act & Assert - a host with a page in flight is skipped until that page is released
+    assertEquals("https://a.example/1", frontier.poll(0).url());
+    assertEquals("https://b.example/1", frontier.poll(0).url());
+    assertNull(frontier.poll(0));
+    assertEquals(-1, frontier.nextReadyMillis());
+
+    frontier.release("https://a.example/1");
+    assertEquals("https://a.example/2", frontier.poll(0).url());
+  }
+
+  @Test
+  void testPoll_PerHostDelay() {
+    // Arrange
+    CrawlFrontier frontier = new CrawlFrontier(0, 1000, false);
+    frontier.add("https://a.example/1", 0);
+    frontier.add("https://a.example/2", 0);
+
+    // Act & Assert - the next page of a host waits for the delay since the previous dispatch
+    assertEquals("https://a.example/1", frontier.poll(5000).url());
+    frontier.release("https://a.example/1");
+    assertNull(frontier.poll(5500));
+    assertEquals(6000, frontier.nextReadyMillis());
+    assertEquals("https://a.example/2", frontier.poll(6000).url());
+  }
+
+  @Test
+  void testUrls_RestoresIntoSameSchedule() {
+    // Arrange
+    CrawlFrontier frontier = new CrawlFrontier(0, 0, false);
+    frontier.add("https://a.example/1", 0);
+    frontier.add("https://b.example/1", 0);
+    frontier.add("https://a.example/2", 0);
+
+    // Act
+    List<FrontierUrl> urls = frontier.urls();
+    CrawlFrontier restored = new CrawlFrontier(0, 0, false);
+    urls.forEach(restored::add);
+
+    // Assert
+    assertEquals(3, restored.size());
+    assertEquals("https://a.example/1", restored.poll(0).url());
+    assertEquals("https://b.example/1", restored.poll(0).url());
+    assertEquals("https://a.example/2", restored.poll(0).url());
+  }
+
+  @Test
+  void testUrls_SizeLimitKeepsBestRankedInSchedule() {
+    // Arrange
+    CrawlFrontier frontier =
+        new CrawlFrontier(0, 0, false, new FrontierPriority(0, 0, 1, List.of()), null);
+    frontier.add(new FrontierUrl("https://a.example/1", 0, 0));
+    frontier.add(new FrontierUrl("https://b.example/1", 0, 2));
+    frontier.add(new FrontierUrl("https://a.example/2", 0, 1));
+    frontier.add(new FrontierUrl("https://c.example/1", 0, 0));
+
+    // Act
+    List<FrontierUrl> urls = frontier.urls(2 * ("https://a.example/1".length() + 40));
+
+    // Assert
+    assertEquals(
+        List.of("https://a.example/2", "https://b.example/1"),
+        urls.stream().map(FrontierUrl::url).toList());
+  }
+
+  @Test
+  void testRecordResponse_AimdBackoffAndRecovery() {
+    // Arrange
+    CrawlFrontier frontier = new CrawlFrontier(0, 200, true);
+    frontier.add("https://a.example/1", 0);
+    String host = "a.example";
+
+    // Act & Assert - throttling doubles the delay, at least to the minimum backoff
+    frontier.recordResponse("https://a.example/1", throttled(0), 0);
+    assertEquals(CrawlFrontier.MIN_BACKOFF_MILLIS, frontier.delayMillis(host));
+    frontier.recordResponse("https://a.example/1", throttled(0), 0);
+    assertEquals(2 * CrawlFrontier.MIN_BACKOFF_MILLIS, frontier.delayMillis(host));
+
+    // Successes shrink it step by step, but not below the configured delay
+    frontier.recordResponse("https://a.example/1", ok(50), 0);
+    assertEquals(
+        2 * CrawlFrontier.MIN_BACKOFF_MILLIS - CrawlFrontier.ADDITIVE_STEP_MILLIS,
+        frontier.delayMillis(host));
+    for (int i = 0; i < 20; i++) {
+      frontier.recordResponse("https://a.example/1", ok(50), 0);
+    }
+    assertEquals(200, frontier.delayMillis(host));
+  }
+
+  @Test
+  void testRecordResponse_RetryAfterAndLatencySpike() {
+    // Arrange
+    CrawlFrontier frontier = new CrawlFrontier(0, 0, true);
+    frontier.add("https://a.example/1", 0);
+    for (int i = 0; i < 5; i++) {
+      frontier.recordResponse("https://a.example/1", ok(100), 0);
+    }
+    assertEquals(0, frontier.delayMillis("a.example"));
+
+    // Act & Assert - a response far slower than usual counts as congestion
+    frontier.recordResponse("https://a.example/1", ok(1000), 0);
+    assertEquals(CrawlFrontier.MIN_BACKOFF_MILLIS, frontier.delayMillis("a.example"));
+
+    // Retry-After holds the host back for the requested time
+    frontier.recordResponse(
+        "https://a.example/1", new ParseLinksOutput(List.of(), 503, 10, 30_000), 1000);
+    assertNull(frontier.poll(30_000));
+    assertEquals(31_000, frontier.nextReadyMillis());
+    assertEquals("https://a.example/1", frontier.poll(31_000).url());
+  }
+
+  @Test
+  void testRequeueIfThrottled_RobotsUnavailableRetriedWithoutAdaptiveControl() {
+    // Arrange
+    CrawlFrontier frontier = new CrawlFrontier(0, 0, false);
+    frontier.add("https://a.example/1", 0);
+    FrontierUrl page = frontier.poll(0);
+    frontier.release(page.url());
+    ParseLinksOutput unavailable =
+        new ParseLinksOutput(
+            List.of(), ParseLinksOutput.ROBOTS_UNAVAILABLE, 0, RobotsCache.UNAVAILABLE_TTL_MILLIS);
+
+    // Act
+    frontier.recordResponse(page.url(), unavailable, 1000);
+    boolean requeued = frontier.requeueIfThrottled(page, unavailable);
+
+    // Assert - the page waits until the host's robots.txt can be fetched again
+    assertTrue(requeued);
+    assertNull(frontier.poll(1000 + RobotsCache.UNAVAILABLE_TTL_MILLIS - 1));
+    assertEquals(page.url(), frontier.poll(1000 + RobotsCache.UNAVAILABLE_TTL_MILLIS).url());
+  }
+
+  @Test
+  void testRates_IdleHostsLeftOut() {
+    // Arrange - both hosts slowed down, but only b.example still has work
+    CrawlFrontier frontier = new CrawlFrontier(0, 0, true);
+    frontier.add("https://a.example/1", 0);
+    frontier.add("https://b.example/1", 0);
+    frontier.add("https://b.example/2", 0);
+    for (int i = 0; i < 2; i++) {
+      FrontierUrl page = frontier.poll(i * 10_000L);
+      frontier.release(page.url());
+      frontier.recordResponse(page.url(), throttled(0), i * 10_000L);
+    }
+
+    // Act
+    List<HostRateSnapshot> rates = frontier.rates(20_000);
+
+    // Assert
+    assertEquals(List.of("b.example"), rates.stream().map(HostRateSnapshot::host).toList());
+  }
+
+  @Test
+  void testRates_HoldsAndThrottledRetriesRestoredAcrossCheckpoint() {
+    // Arrange - a host holds the page back for a minute and has throttled it once
+    CrawlFrontier frontier = new CrawlFrontier(0, 0, false);
+    frontier.add("https://a.example/1", 0);
+    FrontierUrl page = frontier.poll(0);
+    frontier.release(page.url());
+    ParseLinksOutput unavailable =
+        new ParseLinksOutput(List.of(), ParseLinksOutput.ROBOTS_UNAVAILABLE, 0, 60_000);
+    frontier.recordResponse(page.url(), unavailable, 0);
+    frontier.requeueIfThrottled(page, unavailable);
+
+    // Act - the next run starts 10 seconds of workflow time later
+    List<HostRateSnapshot> rates = frontier.rates(1000);
+    CrawlFrontier restored = new CrawlFrontier(0, 0, false);
+    frontier.urls().forEach(restored::add);
+    restored.restoreRates(rates, 11_000);
+
+    // Assert - the hold resumes where it left off and the retry count is kept
+    assertEquals(59_000, rates.get(0).holdMillis());
+    assertEquals(1, restored.urls().get(0).throttledRetries());
+    assertNull(restored.poll(69_999));
+    FrontierUrl retried = restored.poll(70_000);
+    restored.release(retried.url());
+    for (int i = 1; i < CrawlFrontier.MAX_THROTTLED_RETRIES; i++) {
+      assertTrue(restored.requeueIfThrottled(retried, unavailable));
+      restored.poll(Long.MAX_VALUE);
+    }
+    assertFalse(restored.requeueIfThrottled(retried, unavailable));
+  }
+
+  @Test
+  void testRecordResponse_CrawlDelayIsMinimumDelay() {
+    // Arrange
+    CrawlFrontier frontier = new CrawlFrontier(0, 0, true);
+    frontier.add("https://a.example/1", 0);
+    ParseLinksOutput withCrawlDelay = new ParseLinksOutput(List.of(), 200, 10, 0, 2000);
+
+    // Act & Assert - the crawl delay applies at once and normal responses never go below it
+    frontier.recordResponse("https://a.example/1", withCrawlDelay, 0);
+    assertEquals(2000, frontier.delayMillis("a.example"));
+    frontier.recordResponse("https://a.example/1", throttled(0), 0);
+    assertEquals(4000, frontier.delayMillis("a.example"));
+    for (int i = 0; i < 30; i++) {
+      frontier.recordResponse("https://a.example/1", ok(10), 0);
+    }
+    assertEquals(2000, frontier.delayMillis("a.example"));
+  }
+
+  @Test
+  void testRates_RestoredAcrossCheckpoint() {
+    // Arrange
+    CrawlFrontier frontier = new CrawlFrontier(0, 0, true);
+    frontier.add("https://a.example/1", 0);
+    frontier.add("https://b.example/1", 0);
+    frontier.recordResponse("https://a.example/1", throttled(0), 0);
+
+    // Act
+    List<HostRateSnapshot> rates = frontier.rates(0);
+    CrawlFrontier restored = new CrawlFrontier(0, 0, true);
+    restored.restoreRates(rates, 0);
+
+    // Assert - only the host whose rate changed is carried over
+    assertEquals(1, rates.size());
+    assertEquals(CrawlFrontier.MIN_BACKOFF_MILLIS, restored.delayMillis("a.example"));
+    assertEquals(0, restored.delayMillis("b.example"));
+  }
+
+  @Test
+  void testRecordResponse_IgnoredWithoutAdaptiveRateControl() {
+    // Arrange
+    CrawlFrontier frontier = new CrawlFrontier(0, 100, false);
+    frontier.add("https://a.example/1", 0);
+
+    // Act
+    frontier.recordResponse("https://a.example/1", throttled(5000), 0);
+
+    // Assert
+    assertEquals(100, frontier.delayMillis("a.example"));
+    assertEquals("https://a.example/1", frontier.poll(0).url());
+  }
+
+  @Test
+  void testPoll_BestFirstByDepthHostAndPattern() {
+    // Arrange
+    FrontierPriority priority =
+        new FrontierPriority(1, 2, 0, List.of(new UrlPatternScore("/docs/", 5)));
+    CrawlFrontier frontier = new CrawlFrontier(0, 0, false, priority, "https://seed.example/");
+    frontier.add("https://other.example/shallow", 1);
+    frontier.add("https://seed.example/deep", 3);
+    frontier.add("https://seed.example/shallow", 1);
+    frontier.add("https://other.example/docs/guide", 4);
+
+    // Act & Assert - the URLs score -1, -1, 1 and 1; hosts with equal best scores take turns
+    assertEquals("https://other.example/docs/guide", frontier.poll(0).url());
+    assertEquals("https://seed.example/shallow", frontier.poll(0).url());
+    assertEquals("https://other.example/shallow", frontier.poll(0).url());
+    assertEquals("https://seed.example/deep", frontier.poll(0).url());
+  }
+
+  @Test
+  void testAddInLink_RaisesQueuedUrl() {
+    // Arrange
+    CrawlFrontier frontier =
+        new CrawlFrontier(0, 0, false, new FrontierPriority(0, 0, 1, List.of()), null);
+    frontier.add("https://a.example/1", 1);
+    frontier.add("https://a.example/2", 1);
+    frontier.add("https://a.example/3", 1);
+
+    // Act
+    frontier.addInLink("https://a.example/3");
+    frontier.addInLink("https://a.example/3");
+    frontier.addInLink("https://a.example/2");
+
+    // Assert - the in-link count travels with the URL so it survives a checkpoint
+    FrontierUrl first = frontier.poll(0);
+    assertEquals(new FrontierUrl("https://a.example/3", 1, 2), first);
+    assertEquals("https://a.example/2", frontier.poll(0).url());
+    assertEquals("https://a.example/1", frontier.poll(0).url());
+  }
+
+  private static ParseLinksOutput ok(long latencyMillis) {
+    return new ParseLinksOutput(List.of(), 200, latencyMillis, 0);
+  }
+
+  private static ParseLinksOutput throttled(long retryAfterMillis) {
+    return new ParseLinksOutput(List.of(), 429, 10, retryAfterMillis);
+  }
+}
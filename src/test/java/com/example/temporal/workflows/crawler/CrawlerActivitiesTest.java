@@ -5,22 +5,77 @@ import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import com.example.temporal.common.CanonicalizationOptions;
+import com.sun.net.httpserver.HttpServer;
+import io.temporal.client.WorkflowOptions;
+import io.temporal.testing.TestWorkflowEnvironment;
+import io.temporal.worker.Worker;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 /**
  * Unit tests for CrawlerActivitiesImpl.
  *
- * <p>These tests verify link parsing, URL fetching, and HTML processing logic.
+ * <p>These tests verify link parsing, URL fetching, and HTML processing logic. Tests that need
+ * deterministic content are served by a local JDK HTTP server.
  */
 class CrawlerActivitiesTest {
 
   private CrawlerActivitiesImpl activities;
+  private HttpServer server;
+  private ExecutorService serverExecutor;
+  private String baseUrl;
 
   @BeforeEach
-  void setUp() {
+  void setUp() throws IOException {
     activities = new CrawlerActivitiesImpl();
+    server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+    // Handlers run on their own threads, so a stalled response does not block the others
+    serverExecutor = Executors.newCachedThreadPool();
+    server.setExecutor(serverExecutor);
+    server.start();
+    baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+  }
+
+  @AfterEach
+  void tearDown() {
+    server.stop(0);
+    serverExecutor.shutdownNow();
+  }
+
+  /**
+   * Serves a fixed response on the local test server.
+   *
+   * @param path The path to serve
+   * @param status The HTTP status code to return
+   * @param body The response body
+   */
+  private void serve(String path, int status, String body) {
+    byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+    server.createContext(
+        path,
+        exchange -> {
+          exchange.getResponseHeaders().add("Content-Type", "text/html; charset=utf-8");
+          exchange.sendResponseHeaders(status, bytes.length == 0 ? -1 : bytes.length);
+          try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+          }
+        });
   }
 
   @Test
@@ -126,4 +181,299 @@ class CrawlerActivitiesTest {
     assertNotNull(output.links());
     // example.com should successfully fetch
   }
+
+  @Test
+  void testParseLinksFromUrls_ResultsInInputOrder() {
+    // Test a batch of URLs that all fail to fetch
+    ParseLinksBatchInput input =
+        new ParseLinksBatchInput(
+            List.of(
+                new ParseLinksInput("not-a-valid-url"),
+                new ParseLinksInput("http://localhost:99999/no-links"),
+                new ParseLinksInput("http://invalid-domain-that-does-not-exist.com")));
+    ParseLinksBatchOutput output = activities.parseLinksFromUrls(input);
+
+    assertNotNull(output);
+    assertEquals(3, output.results().size());
+    for (ParseLinksOutput result : output.results()) {
+      assertTrue(result.links().isEmpty());
+    }
+  }
+
+  @Test
+  void testParseLinksFromUrl_LocalPage() {
+    // Arrange
+    serve(
+        "/index.html",
+        200,
+        "<html><body>"
+            + "<a href=\"/about\">About</a>"
+            + "<a class=\"nav\" href=\"docs/guide.html\">Guide</a>"
+            + "<a href=\"https://other.example.org/\">Other</a>"
+            + "<a href=\"/about\">About again</a>"
+            + "<a href=\"mailto:someone@example.com\">Mail</a>"
+            + "</body></html>");
+
+    // Act
+    ParseLinksOutput output =
+        activities.parseLinksFromUrl(new ParseLinksInput(baseUrl + "/index.html"));
+
+    // Assert
+    assertEquals(3, output.links().size());
+    assertTrue(output.links().contains(baseUrl + "/about"));
+    assertTrue(output.links().contains(baseUrl + "/docs/guide.html"));
+    assertTrue(output.links().contains("https://other.example.org/"));
+  }
+
+  @Test
+  void testParseLinksFromUrl_ScopeFiltersLinks() {
+    // Arrange
+    serve(
+        "/scoped.html",
+        200,
+        "<a href=\"/docs/a.html\">A</a><a href=\"/docs/b.pdf\">B</a>"
+            + "<a href=\"/blog/c.html\">C</a><a href=\"https://other.example.org/docs/\">D</a>");
+    LinkScope scope =
+        LinkScope.all()
+            .withSameHostOnly()
+            .withPathPrefixes(List.of("/docs/"))
+            .withSkippedExtensions(List.of("pdf"));
+
+    // Act
+    ParseLinksOutput output =
+        activities.parseLinksFromUrl(
+            new ParseLinksInput(
+                baseUrl + "/scoped.html", CanonicalizationOptions.defaults(), scope));
+
+    // Assert
+    assertEquals(List.of(baseUrl + "/docs/a.html"), output.links());
+  }
+
+  @Test
+  void testParseLinksFromUrl_RobotsTxt() {
+    // Arrange
+    serve("/robots.txt", 200, "User-agent: *\nDisallow: /private\nCrawl-delay: 2\n");
+    serve("/open", 200, "<a href=\"/private/a\">A</a><a href=\"/public/b\">B</a>");
+    serve("/private/page", 200, "<a href=\"/should-not-be-fetched\">x</a>");
+
+    // Act
+    ParseLinksOutput open = activities.parseLinksFromUrl(new ParseLinksInput(baseUrl + "/open"));
+    ParseLinksOutput disallowed =
+        activities.parseLinksFromUrl(new ParseLinksInput(baseUrl + "/private/page"));
+
+    // Assert
+    assertEquals(List.of(baseUrl + "/public/b"), open.links());
+    assertEquals(2000, open.crawlDelayMillis());
+    assertTrue(disallowed.links().isEmpty());
+    assertEquals(ParseLinksOutput.ROBOTS_DISALLOWED, disallowed.statusCode());
+    assertFalse(disallowed.failed());
+  }
+
+  @Test
+  void testParseLinksFromUrl_RobotsTxtUnavailable() {
+    // Arrange
+    serve("/robots.txt", 503, "");
+    serve("/page", 200, "<a href=\"/next\">Next</a>");
+
+    // Act
+    ParseLinksOutput output = activities.parseLinksFromUrl(new ParseLinksInput(baseUrl + "/page"));
+
+    // Assert - reported as retryable until robots.txt is fetched again, not as crawled
+    assertEquals(ParseLinksOutput.ROBOTS_UNAVAILABLE, output.statusCode());
+    assertEquals(RobotsCache.UNAVAILABLE_TTL_MILLIS, output.retryAfterMillis());
+    assertTrue(output.failed());
+    assertTrue(CrawlFrontier.isThrottled(output.statusCode()));
+  }
+
+  @Test
+  void testParseLinksFromUrl_ConditionalRefetch() {
+    // Arrange
+    byte[] body = "<a href=\"/next\">Next</a>".getBytes(StandardCharsets.UTF_8);
+    AtomicInteger fullResponses = new AtomicInteger();
+    server.createContext(
+        "/static",
+        exchange -> {
+          exchange.getResponseHeaders().add("ETag", "\"v1\"");
+          if ("\"v1\"".equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+            exchange.sendResponseHeaders(304, -1);
+            exchange.close();
+            return;
+          }
+          fullResponses.incrementAndGet();
+          exchange.sendResponseHeaders(200, body.length);
+          try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+          }
+        });
+    ParseLinksInput input = new ParseLinksInput(baseUrl + "/static");
+
+    // Act
+    ParseLinksOutput first = activities.parseLinksFromUrl(input);
+    ParseLinksOutput second = activities.parseLinksFromUrl(input);
+
+    // Assert
+    assertEquals(200, first.statusCode());
+    assertEquals(UrlContent.NOT_MODIFIED, second.statusCode());
+    assertEquals(List.of(baseUrl + "/next"), second.links());
+    assertEquals(1, fullResponses.get());
+  }
+
+  @Test
+  void testParseLinksFromUrls_CoalescesDuplicateFetches() {
+    // Arrange
+    byte[] body = "<a href=\"/next\">Next</a>".getBytes(StandardCharsets.UTF_8);
+    AtomicInteger requests = new AtomicInteger();
+    server.createContext(
+        "/slow",
+        exchange -> {
+          requests.incrementAndGet();
+          try {
+            Thread.sleep(200);
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+          }
+          exchange.sendResponseHeaders(200, body.length);
+          try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+          }
+        });
+    ParseLinksInput page = new ParseLinksInput(baseUrl + "/slow");
+
+    // Act
+    ParseLinksBatchOutput output =
+        activities.parseLinksFromUrls(new ParseLinksBatchInput(List.of(page, page, page)));
+
+    // Assert
+    assertEquals(1, requests.get());
+    for (ParseLinksOutput result : output.results()) {
+      assertEquals(List.of(baseUrl + "/next"), result.links());
+    }
+  }
+
+  @Test
+  void testParseLinksFromUrl_StalledBodyAbortedAtDeadline() {
+    // Arrange - a server that sends headers and part of the body, then stalls
+    CountDownLatch release = new CountDownLatch(1);
+    server.createContext(
+        "/stalled",
+        exchange -> {
+          exchange.sendResponseHeaders(200, 1000);
+          OutputStream out = exchange.getResponseBody();
+          out.write("<a href=\"/a\">A</a>".getBytes(StandardCharsets.UTF_8));
+          out.flush();
+          try {
+            release.await(10, TimeUnit.SECONDS);
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+          }
+          exchange.close();
+        });
+    serve("/fast", 200, "<a href=\"/b\">B</a>");
+    // A single request permit, so the second fetch only runs if the stalled one released it
+    CrawlerActivitiesImpl bounded =
+        new CrawlerActivitiesImpl(
+            new CrawlerHttpSettings(0, 0, 500, 1, 0, 0, true, false, 0, 0, 0));
+
+    try {
+      // Act
+      long startNanos = System.nanoTime();
+      ParseLinksOutput stalled =
+          bounded.parseLinksFromUrl(new ParseLinksInput(baseUrl + "/stalled"));
+      long elapsedMillis = (System.nanoTime() - startNanos) / 1_000_000;
+      ParseLinksOutput fast = bounded.parseLinksFromUrl(new ParseLinksInput(baseUrl + "/fast"));
+
+      // Assert
+      assertEquals(ParseLinksOutput.NO_RESPONSE, stalled.statusCode());
+      assertTrue(elapsedMillis < 5000, "stalled fetch took " + elapsedMillis + " ms");
+      assertEquals(List.of(baseUrl + "/b"), fast.links());
+    } finally {
+      release.countDown();
+    }
+  }
+
+  @Test
+  void testParseLinksFromUrl_ErrorStatus() {
+    // Arrange
+    serve("/missing", 404, "<a href=\"/should-not-be-parsed\">x</a>");
+
+    // Act
+    ParseLinksOutput output =
+        activities.parseLinksFromUrl(new ParseLinksInput(baseUrl + "/missing"));
+
+    // Assert
+    assertTrue(output.links().isEmpty());
+    assertEquals(404, output.statusCode());
+  }
+
+  @Test
+  void testParseLinksFromUrl_ThrottledWithRetryAfter() {
+    // Arrange
+    server.createContext(
+        "/busy",
+        exchange -> {
+          exchange.getResponseHeaders().add("Retry-After", "2");
+          exchange.sendResponseHeaders(429, -1);
+          exchange.close();
+        });
+
+    // Act
+    ParseLinksOutput output = activities.parseLinksFromUrl(new ParseLinksInput(baseUrl + "/busy"));
+
+    // Assert
+    assertTrue(output.links().isEmpty());
+    assertEquals(429, output.statusCode());
+    assertEquals(2000, output.retryAfterMillis());
+  }
+
+  @Test
+  void testRetryAfterMillis_Formats() {
+    // Act & Assert
+    assertEquals(120_000, CrawlerActivitiesImpl.retryAfterMillis("120"));
+    assertEquals(0, CrawlerActivitiesImpl.retryAfterMillis(null));
+    assertEquals(0, CrawlerActivitiesImpl.retryAfterMillis("soon"));
+    assertEquals(0, CrawlerActivitiesImpl.retryAfterMillis("Wed, 21 Oct 2015 07:28:00 GMT"));
+
+    String inOneMinute =
+        DateTimeFormatter.RFC_1123_DATE_TIME.format(
+            ZonedDateTime.now(ZoneOffset.UTC).plusMinutes(1));
+    long millis = CrawlerActivitiesImpl.retryAfterMillis(inOneMinute);
+    assertTrue(millis > 50_000 && millis <= 60_000, "Unexpected delay: " + millis);
+  }
+
+  @Test
+  void testParseLinksFromUrls_AsyncCompletion() {
+    // Arrange
+    serve("/a", 200, "<a href=\"/b\">B</a><a href=\"/c\">C</a>");
+    serve("/b", 200, "<a href=\"/a\">A</a>");
+    serve("/c", 200, "<p>No links</p>");
+
+    TestWorkflowEnvironment testEnv = TestWorkflowEnvironment.newInstance();
+    Worker worker = testEnv.newWorker(CrawlerWorker.TASK_QUEUE);
+    worker.registerWorkflowImplementationTypes(CrawlerWorkflowImpl.class);
+    worker.registerActivitiesImplementations(
+        new CrawlerActivitiesImpl(
+            CrawlerHttpSettings.defaults(),
+            testEnv.getWorkflowClient().newActivityCompletionClient()));
+    testEnv.start();
+
+    try {
+      // Act
+      CrawlerWorkflow workflow =
+          testEnv
+              .getWorkflowClient()
+              .newWorkflowStub(
+                  CrawlerWorkflow.class,
+                  WorkflowOptions.newBuilder().setTaskQueue(CrawlerWorker.TASK_QUEUE).build());
+      CrawlerTuning tuning = CrawlerTuning.defaults().withBatchSize(2);
+      CrawlerWorkflowOutput output =
+          workflow.run(new CrawlerWorkflowInput(baseUrl + "/a", 10, tuning));
+
+      // Assert
+      assertEquals(3, output.totalLinksCrawled());
+      assertEquals(
+          Set.of(baseUrl + "/a", baseUrl + "/b", baseUrl + "/c"), output.linksDiscovered());
+    } finally {
+      testEnv.close();
+    }
+  }
 }
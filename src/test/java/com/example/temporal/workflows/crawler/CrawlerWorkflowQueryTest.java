@@ -0,0 +1,145 @@
+package com.example.temporal.workflows.crawler;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import io.temporal.client.WorkflowClient;
+import io.temporal.client.WorkflowOptions;
+import io.temporal.client.WorkflowStub;
+import io.temporal.testing.TestWorkflowEnvironment;
+import io.temporal.worker.Worker;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/** Tests for the queries CrawlerWorkflow answers while it runs and after it completes. */
+class CrawlerWorkflowQueryTest {
+
+  private TestWorkflowEnvironment testEnv;
+  private Worker worker;
+  private WorkflowClient client;
+
+  @BeforeEach
+  void setUp() {
+    testEnv = TestWorkflowEnvironment.newInstance();
+    worker = testEnv.newWorker(CrawlerWorker.TASK_QUEUE);
+    worker.registerWorkflowImplementationTypes(CrawlerWorkflowImpl.class);
+    client = testEnv.getWorkflowClient();
+  }
+
+  @AfterEach
+  void tearDown() {
+    testEnv.close();
+  }
+
+  private CrawlerWorkflow newWorkflow() {
+    return client.newWorkflowStub(
+        CrawlerWorkflow.class,
+        WorkflowOptions.newBuilder().setTaskQueue(CrawlerWorker.TASK_QUEUE).build());
+  }
+
+  private static CrawlProgress awaitInFlight(CrawlerWorkflow workflow, int pages)
+      throws InterruptedException {
+    long deadline = System.currentTimeMillis() + 10_000;
+    CrawlProgress progress = workflow.getProgress();
+    while (progress.inFlight() < pages && System.currentTimeMillis() < deadline) {
+      Thread.sleep(50);
+      progress = workflow.getProgress();
+    }
+    return progress;
+  }
+
+  @Test
+  void testGetProgress_WhileCrawling() throws InterruptedException {
+    // Arrange
+    CrawlerActivities mockActivities = mock(CrawlerActivities.class);
+    worker.registerActivitiesImplementations(mockActivities);
+
+    String startUrl = "https://seed.example/start";
+    CountDownLatch release = new CountDownLatch(1);
+    when(mockActivities.parseLinksFromUrl(any(ParseLinksInput.class)))
+        .thenAnswer(
+            invocation -> {
+              if (invocation.<ParseLinksInput>getArgument(0).url().equals(startUrl)) {
+                return new ParseLinksOutput(
+                    List.of("https://a.example/1", "https://a.example/2", "https://b.example/1"));
+              }
+              // Hold the discovered pages in flight until the test has queried the progress
+              assertTrue(release.await(30, TimeUnit.SECONDS));
+              return new ParseLinksOutput(List.of(), 500, 5, 0);
+            });
+
+    testEnv.start();
+    CrawlerWorkflow workflow = newWorkflow();
+    WorkflowClient.start(workflow::run, new CrawlerWorkflowInput(startUrl, 10));
+
+    // Act
+    CrawlProgress progress = awaitInFlight(workflow, 3);
+    release.countDown();
+    WorkflowStub.fromTyped(workflow).getResult(CrawlerWorkflowOutput.class);
+    CrawlProgress finalProgress = workflow.getProgress();
+
+    // Assert
+    assertEquals(4, progress.linksCrawled());
+    assertEquals(4, progress.linksDiscovered());
+    assertEquals(0, progress.frontierSize());
+    assertEquals(3, progress.inFlight());
+    assertEquals(3, progress.domainsDiscovered());
+    assertEquals(0, progress.fetchFailures());
+    assertEquals(0, finalProgress.inFlight());
+    assertEquals(3, finalProgress.fetchFailures());
+  }
+
+  @Test
+  void testGetLinks_PagesThroughSummaryOnlyResult() {
+    // Arrange
+    CrawlerActivities mockActivities = mock(CrawlerActivities.class);
+    worker.registerActivitiesImplementations(mockActivities);
+
+    String startUrl = "https://a.example/start";
+    List<String> links =
+        List.of(
+            "https://a.example/1",
+            "https://a.example/2",
+            "https://b.example/1",
+            "https://b.example/2");
+    when(mockActivities.parseLinksFromUrl(any(ParseLinksInput.class)))
+        .thenAnswer(
+            invocation ->
+                new ParseLinksOutput(
+                    invocation.<ParseLinksInput>getArgument(0).url().equals(startUrl)
+                        ? links
+                        : List.of()));
+
+    testEnv.start();
+    CrawlerWorkflow workflow = newWorkflow();
+
+    // Act
+    CrawlerWorkflowOutput output =
+        workflow.run(new CrawlerWorkflowInput(startUrl, 10).withOutputMode(OutputMode.SUMMARY));
+    List<String> pagedLinks = new ArrayList<>();
+    int pages = 0;
+    LinkPage page = workflow.getLinks(0, 2);
+    while (!page.links().isEmpty()) {
+      pagedLinks.addAll(page.links());
+      pages++;
+      page = workflow.getLinks(page.nextCursor(), 2);
+    }
+
+    // Assert - the result carries only counts, the links are read back in discovery order
+    assertTrue(output.linksDiscovered().isEmpty());
+    assertEquals(5, output.totalLinksDiscovered());
+    assertEquals(2, output.domainsDiscovered().size());
+    assertEquals(3, pages);
+    assertEquals(5, page.totalLinks());
+    assertEquals(startUrl, pagedLinks.get(0));
+    assertEquals(links, pagedLinks.subList(1, 5));
+  }
+}
@@ -0,0 +1,208 @@
+package com.example.temporal.workflows.crawler;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.temporal.activity.Activity;
+import io.temporal.client.WorkflowClient;
+import io.temporal.client.WorkflowOptions;
+import io.temporal.testing.TestWorkflowEnvironment;
+import io.temporal.worker.Worker;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for how CrawlerWorkflow schedules frontier URLs onto activities.
+ *
+ * <p>Uses Temporal's test environment with mocked activities; politeness delays are durable timers,
+ * which the test environment skips over.
+ */
+class CrawlerWorkflowSchedulingTest {
+
+  private TestWorkflowEnvironment testEnv;
+  private Worker worker;
+  private WorkflowClient client;
+
+  @BeforeEach
+  void setUp() {
+    testEnv = TestWorkflowEnvironment.newInstance();
+    worker = testEnv.newWorker(CrawlerWorker.TASK_QUEUE);
+    worker.registerWorkflowImplementationTypes(CrawlerWorkflowImpl.class);
+    client = testEnv.getWorkflowClient();
+  }
+
+  @AfterEach
+  void tearDown() {
+    testEnv.close();
+  }
+
+  private CrawlerWorkflow newWorkflow() {
+    return client.newWorkflowStub(
+        CrawlerWorkflow.class,
+        WorkflowOptions.newBuilder().setTaskQueue(CrawlerWorker.TASK_QUEUE).build());
+  }
+
+  @Test
+  void testCrawlerWorkflow_PerHostPoliteness() {
+    // Arrange
+    CrawlerActivities mockActivities = mock(CrawlerActivities.class);
+    worker.registerActivitiesImplementations(mockActivities);
+
+    String startUrl = "https://seed.example/start";
+    List<String> links =
+        List.of(
+            "https://a.example/1",
+            "https://a.example/2",
+            "https://a.example/3",
+            "https://b.example/1",
+            "https://b.example/2");
+
+    Map<String, AtomicInteger> inFlightPerHost = new ConcurrentHashMap<>();
+    Map<String, List<Long>> scheduledTimesPerHost = new ConcurrentHashMap<>();
+    AtomicInteger maxInFlightPerHost = new AtomicInteger();
+    when(mockActivities.parseLinksFromUrl(any(ParseLinksInput.class)))
+        .thenAnswer(
+            invocation -> {
+              String url = invocation.<ParseLinksInput>getArgument(0).url();
+              String host = CrawlerWorkflowImpl.extractDomain(url);
+              scheduledTimesPerHost
+                  .computeIfAbsent(host, key -> new ArrayList<>())
+                  .add(Activity.getExecutionContext().getInfo().getScheduledTimestamp());
+              AtomicInteger inFlight =
+                  inFlightPerHost.computeIfAbsent(host, key -> new AtomicInteger());
+              maxInFlightPerHost.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+              Thread.sleep(20);
+              inFlight.decrementAndGet();
+              return new ParseLinksOutput(url.equals(startUrl) ? links : List.of());
+            });
+
+    testEnv.start();
+
+    // Act
+    CrawlerTuning tuning = CrawlerTuning.defaults().withPerHostLimits(1, 2000);
+    CrawlerWorkflowOutput output =
+        newWorkflow().run(new CrawlerWorkflowInput(startUrl, 10, tuning));
+
+    // Assert - every page is crawled, one at a time per host and about 2s apart (the delay runs
+    // from the workflow task that dispatches the page, so allow for workflow task latency)
+    assertEquals(6, output.totalLinksCrawled());
+    assertEquals(1, maxInFlightPerHost.get());
+    for (List<Long> scheduledTimes : scheduledTimesPerHost.values()) {
+      for (int i = 1; i < scheduledTimes.size(); i++) {
+        long gap = scheduledTimes.get(i) - scheduledTimes.get(i - 1);
+        assertTrue(gap >= 1900, "Host fetched too soon");
+      }
+    }
+  }
+
+  @Test
+  void testCrawlerWorkflow_AdaptiveRateRetriesThrottledPage() {
+    // Arrange
+    CrawlerActivities mockActivities = mock(CrawlerActivities.class);
+    worker.registerActivitiesImplementations(mockActivities);
+
+    String startUrl = "https://a.example/start";
+    String busyPage = "https://a.example/busy";
+    String otherPage = "https://a.example/other";
+    String deepPage = "https://a.example/deep";
+
+    when(mockActivities.parseLinksFromUrl(new ParseLinksInput(startUrl)))
+        .thenReturn(new ParseLinksOutput(List.of(busyPage, otherPage)));
+    when(mockActivities.parseLinksFromUrl(new ParseLinksInput(busyPage)))
+        .thenReturn(new ParseLinksOutput(List.of(), 429, 5, 5000))
+        .thenReturn(new ParseLinksOutput(List.of(deepPage), 200, 5, 0));
+    when(mockActivities.parseLinksFromUrl(new ParseLinksInput(otherPage)))
+        .thenReturn(new ParseLinksOutput(List.of(), 200, 5, 0));
+    when(mockActivities.parseLinksFromUrl(new ParseLinksInput(deepPage)))
+        .thenReturn(new ParseLinksOutput(List.of(), 200, 5, 0));
+
+    testEnv.start();
+
+    // Act
+    CrawlerTuning tuning = CrawlerTuning.defaults().withAdaptiveRateControl(true);
+    CrawlerWorkflowOutput output =
+        newWorkflow().run(new CrawlerWorkflowInput(startUrl, 10, tuning));
+
+    // Assert - the throttled page is fetched again instead of being counted as crawled
+    assertEquals(4, output.totalLinksCrawled());
+    assertTrue(output.linksDiscovered().contains(deepPage));
+    verify(mockActivities, times(2)).parseLinksFromUrl(new ParseLinksInput(busyPage));
+  }
+
+  @Test
+  void testCrawlerWorkflow_BestFirstSpendsBudgetOnPreferredPages() {
+    // Arrange
+    CrawlerActivities mockActivities = mock(CrawlerActivities.class);
+    worker.registerActivitiesImplementations(mockActivities);
+
+    String startUrl = "https://a.example/start";
+    String docsPage = "https://a.example/docs/guide";
+    when(mockActivities.parseLinksFromUrl(any(ParseLinksInput.class)))
+        .thenReturn(new ParseLinksOutput(List.of()));
+    when(mockActivities.parseLinksFromUrl(new ParseLinksInput(startUrl)))
+        .thenReturn(
+            new ParseLinksOutput(List.of("https://a.example/1", "https://a.example/2", docsPage)));
+
+    testEnv.start();
+
+    // Act
+    FrontierPriority priority =
+        FrontierPriority.bestFirst().withPatterns(List.of(new UrlPatternScore("/docs/", 10)));
+    CrawlerWorkflowOutput output =
+        newWorkflow()
+            .run(
+                new CrawlerWorkflowInput(startUrl, 2, CrawlerTuning.defaults())
+                    .withPriority(priority));
+
+    // Assert - the one page left in the budget goes to the preferred URL, not the first found
+    assertEquals(2, output.totalLinksCrawled());
+    verify(mockActivities).parseLinksFromUrl(new ParseLinksInput(docsPage));
+    verify(mockActivities, times(2)).parseLinksFromUrl(any(ParseLinksInput.class));
+  }
+
+  @Test
+  void testCrawlerWorkflow_MaxDepthAndDepthStats() {
+    // Arrange
+    CrawlerActivities mockActivities = mock(CrawlerActivities.class);
+    worker.registerActivitiesImplementations(mockActivities);
+
+    String startUrl = "https://a.example/start";
+    when(mockActivities.parseLinksFromUrl(new ParseLinksInput(startUrl)))
+        .thenReturn(
+            new ParseLinksOutput(List.of("https://a.example/1", "https://a.example/missing")));
+    when(mockActivities.parseLinksFromUrl(new ParseLinksInput("https://a.example/1")))
+        .thenReturn(new ParseLinksOutput(List.of("https://a.example/2", startUrl)));
+    when(mockActivities.parseLinksFromUrl(new ParseLinksInput("https://a.example/missing")))
+        .thenReturn(new ParseLinksOutput(List.of(), 404, 5, 0));
+    when(mockActivities.parseLinksFromUrl(new ParseLinksInput("https://a.example/2")))
+        .thenReturn(new ParseLinksOutput(List.of("https://a.example/3", "https://a.example/4")));
+
+    testEnv.start();
+
+    // Act
+    CrawlerWorkflowOutput output =
+        newWorkflow().run(new CrawlerWorkflowInput(startUrl, 100).withMaxDepth(2));
+
+    // Assert - pages at depth 3 are discovered but not crawled
+    assertEquals(4, output.totalLinksCrawled());
+    assertEquals(
+        List.of(
+            new DepthStats(0, 1, 1, 0),
+            new DepthStats(1, 2, 2, 1),
+            new DepthStats(2, 1, 1, 0),
+            new DepthStats(3, 0, 2, 0)),
+        output.depthStats());
+    verify(mockActivities, times(4)).parseLinksFromUrl(any(ParseLinksInput.class));
+  }
+}
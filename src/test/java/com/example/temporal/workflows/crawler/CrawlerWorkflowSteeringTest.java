@@ -0,0 +1,129 @@
+package com.example.temporal.workflows.crawler;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import io.temporal.client.WorkflowClient;
+import io.temporal.client.WorkflowOptions;
+import io.temporal.client.WorkflowStub;
+import io.temporal.client.WorkflowUpdateException;
+import io.temporal.testing.TestWorkflowEnvironment;
+import io.temporal.worker.Worker;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/** Tests for the signals and updates that steer a running CrawlerWorkflow. */
+class CrawlerWorkflowSteeringTest {
+
+  private static final String START_URL = "https://seed.example/start";
+
+  private static final List<String> START_LINKS =
+      List.of(
+          "https://a.example/1",
+          "https://a.example/2",
+          "https://a.example/3",
+          "https://b.example/1",
+          "https://b.example/2");
+
+  private TestWorkflowEnvironment testEnv;
+  private Worker worker;
+  private WorkflowClient client;
+  private final CountDownLatch release = new CountDownLatch(1);
+
+  @BeforeEach
+  void setUp() {
+    testEnv = TestWorkflowEnvironment.newInstance();
+    worker = testEnv.newWorker(CrawlerWorker.TASK_QUEUE);
+    worker.registerWorkflowImplementationTypes(CrawlerWorkflowImpl.class);
+    client = testEnv.getWorkflowClient();
+
+    // The start page is held in flight until the test releases it
+    CrawlerActivities mockActivities = mock(CrawlerActivities.class);
+    when(mockActivities.parseLinksFromUrl(any(ParseLinksInput.class)))
+        .thenAnswer(
+            invocation -> {
+              if (!invocation.<ParseLinksInput>getArgument(0).url().equals(START_URL)) {
+                return new ParseLinksOutput(List.of());
+              }
+              assertTrue(release.await(30, TimeUnit.SECONDS));
+              return new ParseLinksOutput(START_LINKS);
+            });
+    worker.registerActivitiesImplementations(mockActivities);
+    testEnv.start();
+  }
+
+  @AfterEach
+  void tearDown() {
+    release.countDown();
+    testEnv.close();
+  }
+
+  private CrawlerWorkflow startWorkflow(int maxLinks) {
+    CrawlerWorkflow workflow =
+        client.newWorkflowStub(
+            CrawlerWorkflow.class,
+            WorkflowOptions.newBuilder().setTaskQueue(CrawlerWorker.TASK_QUEUE).build());
+    WorkflowClient.start(workflow::run, new CrawlerWorkflowInput(START_URL, maxLinks));
+    return workflow;
+  }
+
+  private static CrawlProgress awaitProgress(
+      CrawlerWorkflow workflow, Predicate<CrawlProgress> condition) throws InterruptedException {
+    long deadline = System.currentTimeMillis() + 10_000;
+    CrawlProgress progress = workflow.getProgress();
+    while (!condition.test(progress) && System.currentTimeMillis() < deadline) {
+      Thread.sleep(50);
+      progress = workflow.getProgress();
+    }
+    return progress;
+  }
+
+  @Test
+  void testSteering_PauseAddSeedsRetuneResume() throws InterruptedException {
+    // Arrange
+    CrawlerWorkflow workflow = startWorkflow(10);
+    awaitProgress(workflow, progress -> progress.inFlight() == 1);
+
+    // Act
+    workflow.pause();
+    workflow.addSeeds(List.of("https://c.example/seed", START_URL));
+    workflow.setLimits(new CrawlLimits(2, 3));
+    release.countDown();
+    CrawlProgress paused =
+        awaitProgress(
+            workflow, progress -> progress.inFlight() == 0 && progress.frontierSize() == 6);
+    workflow.resume();
+    CrawlerWorkflowOutput output =
+        WorkflowStub.fromTyped(workflow).getResult(CrawlerWorkflowOutput.class);
+
+    // Assert - nothing is dispatched while paused, and the new limit caps the resumed crawl
+    assertEquals(1, paused.linksCrawled());
+    assertEquals(7, paused.linksDiscovered());
+    assertEquals(3, output.totalLinksCrawled());
+    assertTrue(output.linksDiscovered().contains("https://c.example/seed"));
+    assertEquals(7, output.totalLinksDiscovered());
+  }
+
+  @Test
+  void testSetLimits_RejectsNegativeValues() {
+    // Arrange
+    CrawlerWorkflow workflow = startWorkflow(10);
+
+    // Act & Assert
+    assertThrows(WorkflowUpdateException.class, () -> workflow.setLimits(new CrawlLimits(-1, 0)));
+    workflow.setLimits(new CrawlLimits(0, 1));
+    release.countDown();
+    CrawlerWorkflowOutput output =
+        WorkflowStub.fromTyped(workflow).getResult(CrawlerWorkflowOutput.class);
+    assertEquals(1, output.totalLinksCrawled());
+  }
+}
@@ -5,6 +5,9 @@ import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import io.temporal.client.WorkflowClient;
@@ -12,6 +15,7 @@ import io.temporal.client.WorkflowOptions;
 import io.temporal.testing.TestWorkflowEnvironment;
 import io.temporal.worker.Worker;
 import java.util.List;
+import java.util.stream.IntStream;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -64,7 +68,8 @@ class CrawlerWorkflowTest {
     // Assert
     assertNotNull(output);
     assertEquals(1, output.totalLinksCrawled());
-    assertTrue(output.linksDiscovered().contains(startUrl));
+    // The start URL is kept in canonical form, with an explicit root path
+    assertTrue(output.linksDiscovered().contains(startUrl + "/"));
     assertEquals(1, output.domainsDiscovered().size());
     assertTrue(output.domainsDiscovered().contains("example.com"));
   }
@@ -145,6 +150,194 @@ class CrawlerWorkflowTest {
     assertTrue(output.linksDiscovered().size() >= 3, "Should discover at least maxLinks");
   }
 
+  @Test
+  void testCrawlerWorkflow_FrontierLargerThanWindow() {
+    // Arrange
+    CrawlerActivities mockActivities = mock(CrawlerActivities.class);
+    worker.registerActivitiesImplementations(mockActivities);
+
+    String startUrl = "https://example.com/start";
+    List<String> frontier =
+        IntStream.rangeClosed(1, 25).mapToObj(i -> "https://example.com/page" + i).toList();
+
+    when(mockActivities.parseLinksFromUrl(new ParseLinksInput(startUrl)))
+        .thenReturn(new ParseLinksOutput(frontier));
+    for (String link : frontier) {
+      when(mockActivities.parseLinksFromUrl(new ParseLinksInput(link)))
+          .thenReturn(new ParseLinksOutput(List.of()));
+    }
+
+    testEnv.start();
+
+    // Act
+    CrawlerWorkflow workflow =
+        client.newWorkflowStub(
+            CrawlerWorkflow.class,
+            WorkflowOptions.newBuilder().setTaskQueue(CrawlerWorker.TASK_QUEUE).build());
+
+    CrawlerWorkflowInput input = new CrawlerWorkflowInput(startUrl, 20);
+    CrawlerWorkflowOutput output = workflow.run(input);
+
+    // Assert - the window is refilled until the maxLinks budget is spent
+    assertNotNull(output);
+    assertEquals(20, output.totalLinksCrawled());
+    assertEquals(26, output.linksDiscovered().size());
+  }
+
+  @Test
+  void testCrawlerWorkflow_TuningLimitsRetries() {
+    // Arrange
+    CrawlerActivities mockActivities = mock(CrawlerActivities.class);
+    worker.registerActivitiesImplementations(mockActivities);
+
+    String startUrl = "https://example.com/page1";
+    String brokenLink = "https://example.com/broken";
+    String link3 = "https://example.com/page3";
+
+    when(mockActivities.parseLinksFromUrl(new ParseLinksInput(startUrl)))
+        .thenReturn(new ParseLinksOutput(List.of(brokenLink, link3)));
+    when(mockActivities.parseLinksFromUrl(new ParseLinksInput(brokenLink)))
+        .thenThrow(new IllegalStateException("connection reset"));
+    when(mockActivities.parseLinksFromUrl(new ParseLinksInput(link3)))
+        .thenReturn(new ParseLinksOutput(List.of()));
+
+    testEnv.start();
+
+    // Act
+    CrawlerWorkflow workflow =
+        client.newWorkflowStub(
+            CrawlerWorkflow.class,
+            WorkflowOptions.newBuilder().setTaskQueue(CrawlerWorker.TASK_QUEUE).build());
+
+    CrawlerWorkflowInput input = new CrawlerWorkflowInput(startUrl, 10, new CrawlerTuning(2, 1));
+    CrawlerWorkflowOutput output = workflow.run(input);
+
+    // Assert - the failing page is attempted once and the crawl still completes
+    assertNotNull(output);
+    assertEquals(3, output.totalLinksCrawled());
+    verify(mockActivities, times(1)).parseLinksFromUrl(new ParseLinksInput(brokenLink));
+  }
+
+  @Test
+  void testCrawlerWorkflow_ContinuesAsNew() {
+    // Arrange
+    CrawlerActivities mockActivities = mock(CrawlerActivities.class);
+    worker.registerActivitiesImplementations(mockActivities);
+
+    String startUrl = "https://example.com/page0";
+    List<String> chain =
+        IntStream.rangeClosed(1, 6).mapToObj(i -> "https://example.com/page" + i).toList();
+
+    // Each page links to the next one and back to the start page
+    when(mockActivities.parseLinksFromUrl(new ParseLinksInput(startUrl)))
+        .thenReturn(new ParseLinksOutput(List.of(chain.get(0))));
+    for (int i = 0; i < chain.size() - 1; i++) {
+      when(mockActivities.parseLinksFromUrl(new ParseLinksInput(chain.get(i))))
+          .thenReturn(new ParseLinksOutput(List.of(chain.get(i + 1), startUrl)));
+    }
+    when(mockActivities.parseLinksFromUrl(new ParseLinksInput(chain.get(5))))
+        .thenReturn(new ParseLinksOutput(List.of()));
+
+    testEnv.start();
+
+    // Act
+    CrawlerWorkflow workflow =
+        client.newWorkflowStub(
+            CrawlerWorkflow.class,
+            WorkflowOptions.newBuilder().setTaskQueue(CrawlerWorker.TASK_QUEUE).build());
+
+    CrawlerTuning tuning = CrawlerTuning.defaults().withCheckpointEveryPages(2);
+    CrawlerWorkflowInput input = new CrawlerWorkflowInput(startUrl, 10, tuning);
+    CrawlerWorkflowOutput output = workflow.run(input);
+
+    // Assert - state survives every continue-as-new, so no page is crawled twice
+    assertNotNull(output);
+    assertEquals(7, output.totalLinksCrawled());
+    assertEquals(7, output.linksDiscovered().size());
+    verify(mockActivities, times(1)).parseLinksFromUrl(new ParseLinksInput(startUrl));
+  }
+
+  @Test
+  void testCrawlerWorkflow_FingerprintDedupAcrossContinueAsNew() {
+    // Arrange
+    CrawlerActivities mockActivities = mock(CrawlerActivities.class);
+    worker.registerActivitiesImplementations(mockActivities);
+
+    String startUrl = "https://example.com/page1";
+    String link2 = "https://example.com/page2";
+    String link3 = "https://example.com/page3";
+
+    when(mockActivities.parseLinksFromUrl(new ParseLinksInput(startUrl)))
+        .thenReturn(new ParseLinksOutput(List.of(link2, link3)));
+    when(mockActivities.parseLinksFromUrl(new ParseLinksInput(link2)))
+        .thenReturn(new ParseLinksOutput(List.of(startUrl, link3)));
+    when(mockActivities.parseLinksFromUrl(new ParseLinksInput(link3)))
+        .thenReturn(new ParseLinksOutput(List.of(startUrl, link2)));
+
+    testEnv.start();
+
+    // Act
+    CrawlerWorkflow workflow =
+        client.newWorkflowStub(
+            CrawlerWorkflow.class,
+            WorkflowOptions.newBuilder().setTaskQueue(CrawlerWorker.TASK_QUEUE).build());
+
+    CrawlerTuning tuning = CrawlerTuning.defaults().withCheckpointEveryPages(1);
+    CrawlerWorkflowInput input =
+        new CrawlerWorkflowInput(startUrl, 10, tuning, SeenSetOptions.fingerprints());
+    CrawlerWorkflowOutput output = workflow.run(input);
+
+    // Assert - only counts are reported, and no page is crawled twice
+    assertNotNull(output);
+    assertEquals(3, output.totalLinksCrawled());
+    assertEquals(3, output.totalLinksDiscovered());
+    assertTrue(output.linksDiscovered().isEmpty());
+  }
+
+  @Test
+  void testCrawlerWorkflow_BatchedActivities() {
+    // Arrange
+    CrawlerActivities mockActivities = mock(CrawlerActivities.class);
+    worker.registerActivitiesImplementations(mockActivities);
+
+    String startUrl = "https://example.com/start";
+    List<String> frontier =
+        IntStream.rangeClosed(1, 7).mapToObj(i -> "https://example.com/page" + i).toList();
+
+    // The start page links to every frontier page, which all link back to the start page
+    when(mockActivities.parseLinksFromUrls(any(ParseLinksBatchInput.class)))
+        .thenAnswer(
+            invocation -> {
+              ParseLinksBatchInput batch = invocation.getArgument(0);
+              return new ParseLinksBatchOutput(
+                  batch.pages().stream()
+                      .map(
+                          page ->
+                              new ParseLinksOutput(
+                                  page.url().equals(startUrl) ? frontier : List.of(startUrl)))
+                      .toList());
+            });
+
+    testEnv.start();
+
+    // Act
+    CrawlerWorkflow workflow =
+        client.newWorkflowStub(
+            CrawlerWorkflow.class,
+            WorkflowOptions.newBuilder().setTaskQueue(CrawlerWorker.TASK_QUEUE).build());
+
+    CrawlerTuning tuning = CrawlerTuning.defaults().withBatchSize(3);
+    CrawlerWorkflowInput input = new CrawlerWorkflowInput(startUrl, 10, tuning);
+    CrawlerWorkflowOutput output = workflow.run(input);
+
+    // Assert - the start page and the 7 frontier pages take 4 batch activities (1 + 3 + 3 + 1)
+    assertNotNull(output);
+    assertEquals(8, output.totalLinksCrawled());
+    assertEquals(8, output.linksDiscovered().size());
+    verify(mockActivities, times(4)).parseLinksFromUrls(any(ParseLinksBatchInput.class));
+    verify(mockActivities, never()).parseLinksFromUrl(any(ParseLinksInput.class));
+  }
+
   @Test
   void testCrawlerWorkflow_EliminatesDuplicates() {
     // Arrange
@@ -239,7 +432,7 @@ class CrawlerWorkflowTest {
     assertNotNull(output);
     assertEquals(1, output.totalLinksCrawled());
     assertEquals(1, output.linksDiscovered().size());
-    assertTrue(output.linksDiscovered().contains(startUrl));
+    assertTrue(output.linksDiscovered().contains(startUrl + "/"));
   }
 
   @Test
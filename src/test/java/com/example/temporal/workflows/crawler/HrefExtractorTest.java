@@ -0,0 +1,118 @@
+package com.example.temporal.workflows.crawler;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+/** Unit tests for HrefExtractor. */
+class HrefExtractorTest {
+
+  private static List<String> extract(String html) {
+    List<String> hrefs = new ArrayList<>();
+    HrefExtractor extractor = new HrefExtractor(hrefs::add);
+    extractor.feed(ByteBuffer.wrap(html.getBytes(StandardCharsets.UTF_8)));
+    extractor.finish();
+    return hrefs;
+  }
+
+  @Test
+  void testExtract_QuotingStyles() {
+    // Act
+    List<String> hrefs =
+        extract(
+            "<a href=\"/double\">1</a><a href='/single'>2</a><a href=/unquoted>3</a>"
+                + "<a href = \"/spaced\" >4</a>");
+
+    // Assert
+    assertEquals(List.of("/double", "/single", "/unquoted", "/spaced"), hrefs);
+  }
+
+  @Test
+  void testExtract_CaseAndOtherAttributes() {
+    // Act
+    List<String> hrefs =
+        extract(
+            "<A CLASS=\"nav\" data-x='>' HREF=\"/upper\">x</A>"
+                + "<a\ntitle=\"t\"\nhref=\"/multiline\"\n>y</a>"
+                + "<a data-href=\"/not-this\" href=\"/this\">z</a>");
+
+    // Assert
+    assertEquals(List.of("/upper", "/multiline", "/this"), hrefs);
+  }
+
+  @Test
+  void testExtract_IgnoresOtherTags() {
+    // Act
+    List<String> hrefs =
+        extract(
+            "<link href=\"/style.css\"><area href=\"/map\"><abbr href=\"/abbr\">"
+                + "<a>no href</a><img src=\"/a.png\"><a href=\"/page\">ok</a>");
+
+    // Assert
+    assertEquals(List.of("/page"), hrefs);
+  }
+
+  @Test
+  void testExtract_SplitAcrossChunks() {
+    // Arrange
+    byte[] html =
+        "<p>text</p><a class=\"c\" href=\"/first\">1</a><a href='/second'>2</a><a href=/third"
+            .getBytes(StandardCharsets.UTF_8);
+    List<String> hrefs = new ArrayList<>();
+    HrefExtractor extractor = new HrefExtractor(hrefs::add);
+
+    // Act
+    for (int i = 0; i < html.length; i++) {
+      extractor.feed(html, i, 1);
+    }
+    extractor.finish();
+
+    // Assert
+    assertEquals(List.of("/first", "/second", "/third"), hrefs);
+  }
+
+  @Test
+  void testExtract_DirectBufferLargerThanScanBuffer() {
+    // Arrange
+    String html = "<p>" + "x".repeat(100) + "</p><a href=\"/after-padding\">x</a>";
+    byte[] bytes = html.getBytes(StandardCharsets.UTF_8);
+    ByteBuffer direct = ByteBuffer.allocateDirect(bytes.length).put(bytes).flip();
+    List<String> hrefs = new ArrayList<>();
+    HrefExtractor extractor = new HrefExtractor(hrefs::add, 16);
+
+    // Act
+    extractor.feed(direct);
+    extractor.finish();
+
+    // Assert
+    assertEquals(List.of("/after-padding"), hrefs);
+    assertEquals(0, direct.remaining());
+  }
+
+  @Test
+  void testExtract_DropsOverlongHref() {
+    // Act
+    List<String> hrefs =
+        extract(
+            "<a href=\"/"
+                + "x".repeat(HrefExtractor.MAX_HREF_LENGTH)
+                + "\">long</a><a href=\"/short\">short</a>");
+
+    // Assert
+    assertEquals(List.of("/short"), hrefs);
+  }
+
+  @Test
+  void testExtract_Utf8Href() {
+    // Act
+    List<String> hrefs = extract("<a href=\"/café\">café</a>");
+
+    // Assert
+    assertTrue(hrefs.contains("/café"));
+  }
+}
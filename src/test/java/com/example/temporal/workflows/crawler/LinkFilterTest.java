@@ -0,0 +1,77 @@
+package com.example.temporal.workflows.crawler;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+/** Unit tests for LinkFilter. */
+class LinkFilterTest {
+
+  private static final String PAGE = "https://example.com/docs/index.html";
+
+  @Test
+  void testAccepts_UnrestrictedScope() {
+    // Arrange
+    LinkFilter filter = new LinkFilter(LinkScope.all(), PAGE);
+
+    // Act & Assert
+    assertTrue(filter.accepts("https://other.example.org/file.pdf"));
+  }
+
+  @Test
+  void testAccepts_AllowedAndDeniedDomains() {
+    // Arrange
+    LinkFilter filter =
+        new LinkFilter(
+            LinkScope.all().withDomains(List.of("example.com"), List.of("ads.example.com")), PAGE);
+
+    // Act & Assert
+    assertTrue(filter.accepts("https://example.com/a"));
+    assertTrue(filter.accepts("https://blog.example.com/a"));
+    assertFalse(filter.accepts("https://ads.example.com/a"));
+    assertFalse(filter.accepts("https://notexample.com/a"));
+    assertFalse(filter.accepts("https://other.org/a"));
+  }
+
+  @Test
+  void testAccepts_SameHostOnly() {
+    // Arrange
+    LinkFilter filter = new LinkFilter(LinkScope.all().withSameHostOnly(), PAGE);
+
+    // Act & Assert
+    assertTrue(filter.accepts("https://example.com/other"));
+    assertFalse(filter.accepts("https://blog.example.com/other"));
+  }
+
+  @Test
+  void testAccepts_PathPrefixesAndPatterns() {
+    // Arrange
+    LinkFilter filter =
+        new LinkFilter(
+            LinkScope.all()
+                .withPathPrefixes(List.of("/docs/", "/api/"))
+                .withPatterns(List.of("\\.html$", "/api/"), List.of("/draft/")),
+            PAGE);
+
+    // Act & Assert
+    assertTrue(filter.accepts("https://example.com/docs/guide.html"));
+    assertTrue(filter.accepts("https://example.com/api/v1"));
+    assertFalse(filter.accepts("https://example.com/blog/post.html"));
+    assertFalse(filter.accepts("https://example.com/docs/guide.txt"));
+    assertFalse(filter.accepts("https://example.com/docs/draft/guide.html"));
+  }
+
+  @Test
+  void testAccepts_SkippedExtensions() {
+    // Arrange
+    LinkFilter filter =
+        new LinkFilter(LinkScope.all().withSkippedExtensions(List.of("pdf", "JPG")), PAGE);
+
+    // Act & Assert
+    assertFalse(filter.accepts("https://example.com/report.PDF"));
+    assertFalse(filter.accepts("https://example.com/photo.jpg?size=large"));
+    assertTrue(filter.accepts("https://example.com/pdf-guide"));
+  }
+}
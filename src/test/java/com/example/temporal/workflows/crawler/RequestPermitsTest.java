@@ -0,0 +1,50 @@
+package com.example.temporal.workflows.crawler;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.CompletableFuture;
+import org.junit.jupiter.api.Test;
+
+/** Unit tests for RequestPermits. */
+class RequestPermitsTest {
+
+  @Test
+  void testAcquire_PerHostLimitLeavesOtherHostsFree() {
+    // Arrange
+    RequestPermits permits = new RequestPermits(10, 1);
+    permits.acquire("http://a.example");
+
+    // Act - a second request to the same host waits without blocking, another host does not
+    CompletableFuture<Void> sameHost = permits.acquire("http://a.example");
+    CompletableFuture<Void> otherHost = permits.acquire("http://b.example");
+
+    // Assert
+    assertFalse(sameHost.isDone());
+    assertTrue(otherHost.isDone());
+    assertEquals(1, permits.waiting());
+    permits.release("http://a.example");
+    assertTrue(sameHost.isDone());
+    assertEquals(1, permits.inFlight("http://a.example"));
+    assertEquals(0, permits.waiting());
+  }
+
+  @Test
+  void testRelease_GrantsWaitersInArrivalOrderAndForgetsIdleHosts() {
+    // Arrange
+    RequestPermits permits = new RequestPermits(1, 0);
+    permits.acquire("http://a.example");
+    CompletableFuture<Void> first = permits.acquire("http://b.example");
+    CompletableFuture<Void> second = permits.acquire("http://c.example");
+
+    // Act
+    permits.release("http://a.example");
+
+    // Assert - the freed global permit goes to the first waiter
+    assertTrue(first.isDone());
+    assertFalse(second.isDone());
+    assertEquals(0, permits.inFlight("http://a.example"));
+    assertEquals(1, permits.inFlight("http://b.example"));
+  }
+}
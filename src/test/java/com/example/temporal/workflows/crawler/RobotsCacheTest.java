@@ -0,0 +1,113 @@
+package com.example.temporal.workflows.crawler;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+
+/** Unit tests for RobotsCache. */
+class RobotsCacheTest {
+
+  private static final String ORIGIN = "https://a.example";
+
+  private final List<String> fetched = new ArrayList<>();
+  private final AtomicLong now = new AtomicLong();
+
+  private CompletableFuture<RobotsRules> fetch(String origin) {
+    fetched.add(origin);
+    return CompletableFuture.completedFuture(
+        RobotsRules.parse("User-agent: *\nDisallow: /private\n", RobotsFetcher.PRODUCT_TOKEN));
+  }
+
+  @Test
+  void testRules_CachedUntilTtlExpires() {
+    // Arrange
+    RobotsCache cache = new RobotsCache(this::fetch, 1000, 10, now::get);
+
+    // Act
+    RobotsRules first = cache.rules(ORIGIN).join();
+    now.set(999);
+    RobotsRules second = cache.rules(ORIGIN).join();
+    now.set(1000);
+    cache.rules(ORIGIN).join();
+
+    // Assert
+    assertSame(first, second);
+    assertFalse(first.allows("/private/page"));
+    assertEquals(List.of(ORIGIN, ORIGIN), fetched);
+  }
+
+  @Test
+  void testRules_ConcurrentRequestsShareOneFetch() {
+    // Arrange
+    CompletableFuture<RobotsRules> pending = new CompletableFuture<>();
+    List<String> requests = new ArrayList<>();
+    RobotsCache cache =
+        new RobotsCache(
+            origin -> {
+              requests.add(origin);
+              return pending;
+            },
+            1000,
+            10,
+            now::get);
+
+    // Act
+    CompletableFuture<RobotsRules> first = cache.rules(ORIGIN);
+    CompletableFuture<RobotsRules> second = cache.rules(ORIGIN);
+    assertNull(cache.cached(ORIGIN));
+    pending.complete(RobotsRules.allowAll());
+
+    // Assert
+    assertEquals(1, requests.size());
+    assertSame(first.join(), second.join());
+    assertSame(RobotsRules.allowAll(), cache.cached(ORIGIN));
+  }
+
+  @Test
+  void testRules_BoundedSizeAndShortTtlWhenUnavailable() {
+    // Arrange
+    RobotsCache cache =
+        new RobotsCache(
+            origin ->
+                CompletableFuture.completedFuture(
+                    origin.equals(ORIGIN) ? RobotsRules.unavailable() : RobotsRules.allowAll()),
+            3_600_000,
+            2,
+            now::get);
+
+    // Act
+    cache.rules(ORIGIN);
+    cache.rules("https://b.example");
+    cache.rules("https://c.example");
+
+    // Assert - the least recently used origin is evicted beyond the bound
+    assertEquals(2, cache.size());
+    assertNull(cache.cached(ORIGIN));
+
+    cache.rules(ORIGIN);
+    assertTrue(cache.cached(ORIGIN).isUnavailable());
+    now.set(RobotsCache.UNAVAILABLE_TTL_MILLIS);
+    assertNull(cache.cached(ORIGIN));
+  }
+
+  @Test
+  void testOrigin_AndPathAndQuery() {
+    // Arrange
+    URI uri = URI.create("HTTPS://A.Example:8443/docs/page?x=1#frag");
+
+    // Act & Assert
+    assertEquals("https://a.example:8443", RobotsCache.origin(uri));
+    assertEquals("/docs/page?x=1", RobotsCache.pathAndQuery(uri));
+    assertEquals("/", RobotsCache.pathAndQuery(URI.create("https://a.example")));
+    assertNull(RobotsCache.origin(URI.create("not-a-valid-url")));
+  }
+}
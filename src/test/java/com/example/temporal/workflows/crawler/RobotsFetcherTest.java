@@ -0,0 +1,66 @@
+package com.example.temporal.workflows.crawler;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.jupiter.api.Test;
+
+/** Unit tests for RobotsFetcher. */
+class RobotsFetcherTest {
+
+  /** A subscription that records whether it was cancelled. */
+  private static final class RecordingSubscription implements Flow.Subscription {
+
+    private final AtomicBoolean cancelled = new AtomicBoolean();
+    private long requested;
+
+    @Override
+    public void request(long n) {
+      requested += n;
+    }
+
+    @Override
+    public void cancel() {
+      cancelled.set(true);
+    }
+  }
+
+  @Test
+  void testLimitedBodySubscriber_CancelsAtLimit() {
+    // Arrange
+    RecordingSubscription subscription = new RecordingSubscription();
+    RobotsFetcher.LimitedBodySubscriber subscriber = new RobotsFetcher.LimitedBodySubscriber(8);
+    subscriber.onSubscribe(subscription);
+
+    // Act - the body would go on, but nothing beyond the limit is kept
+    subscriber.onNext(List.of(ByteBuffer.wrap("Disallow".getBytes(StandardCharsets.UTF_8))));
+    subscriber.onNext(List.of(ByteBuffer.wrap(": /".getBytes(StandardCharsets.UTF_8))));
+
+    // Assert
+    assertTrue(subscription.cancelled.get());
+    assertEquals("Disallow", subscriber.getBody().toCompletableFuture().getNow(null));
+  }
+
+  @Test
+  void testLimitedBodySubscriber_CompletesShortBody() {
+    // Arrange
+    RecordingSubscription subscription = new RecordingSubscription();
+    RobotsFetcher.LimitedBodySubscriber subscriber = new RobotsFetcher.LimitedBodySubscriber(1024);
+    subscriber.onSubscribe(subscription);
+
+    // Act
+    subscriber.onNext(List.of(ByteBuffer.wrap("Allow: /".getBytes(StandardCharsets.UTF_8))));
+    subscriber.onComplete();
+
+    // Assert
+    assertEquals(Long.MAX_VALUE, subscription.requested);
+    assertFalse(subscription.cancelled.get());
+    assertEquals("Allow: /", subscriber.getBody().toCompletableFuture().getNow(null));
+  }
+}
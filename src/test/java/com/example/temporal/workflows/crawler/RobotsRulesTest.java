@@ -0,0 +1,115 @@
+package com.example.temporal.workflows.crawler;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+/** Unit tests for RobotsRules. */
+class RobotsRulesTest {
+
+  private static final String TOKEN = RobotsFetcher.PRODUCT_TOKEN;
+
+  @Test
+  void testParse_SpecificGroupOverridesWildcard() {
+    // Arrange
+    String robots =
+        """
+        User-agent: *
+        Disallow: /
+
+        # Rules for this crawler
+        User-agent: OtherBot
+        User-agent: temporalcrawler
+        Disallow: /private
+        Crawl-delay: 2.5
+        """;
+
+    // Act
+    RobotsRules rules = RobotsRules.parse(robots, TOKEN);
+
+    // Assert
+    assertTrue(rules.allows("/public/page"));
+    assertFalse(rules.allows("/private/page"));
+    assertEquals(2500, rules.crawlDelayMillis());
+  }
+
+  @Test
+  void testParse_WildcardGroupAndMissingGroup() {
+    // Act
+    RobotsRules wildcard = RobotsRules.parse("User-agent: *\nDisallow: /tmp/\n", TOKEN);
+    RobotsRules none = RobotsRules.parse("User-agent: OtherBot\nDisallow: /\n", TOKEN);
+
+    // Assert
+    assertFalse(wildcard.allows("/tmp/file"));
+    assertTrue(wildcard.allows("/tmpfile"));
+    assertTrue(none.allows("/anything"));
+    assertEquals(0, none.crawlDelayMillis());
+  }
+
+  @Test
+  void testParse_GroupsForSameAgentMerged() {
+    // Arrange
+    String robots =
+        """
+        User-agent: TemporalCrawler
+        Disallow: /private
+
+        User-agent: *
+        Disallow: /
+
+        User-agent: TemporalCrawler
+        Disallow: /drafts
+        Crawl-delay: 3
+        """;
+
+    // Act
+    RobotsRules rules = RobotsRules.parse(robots, TOKEN);
+
+    // Assert
+    assertFalse(rules.allows("/private/page"));
+    assertFalse(rules.allows("/drafts/page"));
+    assertTrue(rules.allows("/public/page"));
+    assertEquals(3000, rules.crawlDelayMillis());
+  }
+
+  @Test
+  void testAllows_LongestMatchAndPatterns() {
+    // Arrange
+    RobotsRules rules =
+        RobotsRules.parse(
+            """
+            User-agent: *
+            Disallow: /docs/
+            Allow: /docs/public/
+            Disallow: /*.pdf$
+            Disallow: /*?session=
+            Allow: /page
+            Disallow: /page
+            Disallow:
+            """,
+            TOKEN);
+
+    // Act & Assert
+    assertFalse(rules.allows("/docs/internal"));
+    assertTrue(rules.allows("/docs/public/guide"));
+    assertFalse(rules.allows("/files/report.pdf"));
+    assertTrue(rules.allows("/files/report.pdf?download=1"));
+    assertFalse(rules.allows("/search?session=abc"));
+    assertTrue(rules.allows("/page"));
+    assertTrue(rules.allows(""));
+  }
+
+  @Test
+  void testUnavailable_DisallowsEverything() {
+    // Act
+    RobotsRules rules = RobotsRules.unavailable();
+
+    // Assert
+    assertFalse(rules.allows("/"));
+    assertFalse(rules.allows("/any/page"));
+    assertTrue(rules.isUnavailable());
+    assertFalse(RobotsRules.allowAll().isUnavailable());
+  }
+}
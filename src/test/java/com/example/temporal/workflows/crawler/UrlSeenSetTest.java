@@ -0,0 +1,169 @@
+package com.example.temporal.workflows.crawler;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for UrlSeenSet.
+ *
+ * <p>These tests verify deduplication and snapshot round-trips for every dedup mode.
+ */
+class UrlSeenSetTest {
+
+  @Test
+  void testExact_DeduplicatesAndKeepsUrls() {
+    UrlSeenSet seen = UrlSeenSet.create(SeenSetOptions.exact());
+
+    assertTrue(seen.add("https://example.com/a"));
+    assertTrue(seen.add("https://example.com/b"));
+    assertFalse(seen.add("https://example.com/a"));
+
+    assertEquals(2, seen.size());
+    assertTrue(seen.urls().contains("https://example.com/b"));
+  }
+
+  @Test
+  void testFingerprint_DeduplicatesAcrossTableGrowth() {
+    UrlSeenSet seen = UrlSeenSet.create(SeenSetOptions.fingerprints());
+
+    for (int i = 0; i < 5000; i++) {
+      assertTrue(seen.add("https://example.com/page" + i));
+    }
+    for (int i = 0; i < 5000; i++) {
+      assertFalse(seen.add("https://example.com/page" + i));
+    }
+
+    assertEquals(5000, seen.size());
+    assertTrue(seen.urls().isEmpty(), "Fingerprint mode should not keep URLs");
+  }
+
+  @Test
+  void testFingerprint_SnapshotRoundTrip() {
+    UrlSeenSet seen = UrlSeenSet.create(SeenSetOptions.fingerprints());
+    for (int i = 0; i < 100; i++) {
+      seen.add("https://example.com/page" + i);
+    }
+
+    SeenSetSnapshot snapshot = seen.snapshot();
+    UrlSeenSet restored = UrlSeenSet.restore(snapshot, SeenSetOptions.fingerprints());
+
+    assertNull(snapshot.urls());
+    assertEquals(100 * Long.BYTES, snapshot.fingerprints().length);
+    assertEquals(100, restored.size());
+    assertFalse(restored.add("https://example.com/page42"));
+    assertTrue(restored.add("https://example.com/page100"));
+  }
+
+  @Test
+  void testBloom_FalsePositiveRateWithinBounds() {
+    UrlSeenSet seen = UrlSeenSet.create(SeenSetOptions.bloom(10_000, 0.01));
+    for (int i = 0; i < 10_000; i++) {
+      seen.add("https://example.com/seen" + i);
+    }
+
+    int falsePositives = 0;
+    for (int i = 0; i < 10_000; i++) {
+      if (seen.contains("https://example.com/unseen" + i)) {
+        falsePositives++;
+      }
+    }
+
+    // Allow some slack over the 1% target
+    assertTrue(falsePositives < 200, "Too many false positives: " + falsePositives);
+    assertTrue(seen.contains("https://example.com/seen42"));
+  }
+
+  @Test
+  void testBloom_SnapshotRoundTrip() {
+    UrlSeenSet seen = UrlSeenSet.create(SeenSetOptions.bloom(1000, 0.01));
+    seen.add("https://example.com/a");
+    seen.add("https://example.com/b");
+
+    SeenSetSnapshot snapshot = seen.snapshot();
+    UrlSeenSet restored = UrlSeenSet.restore(snapshot, SeenSetOptions.bloom(1000, 0.01));
+
+    // About 9.6 bits per expected URL at a 1% false-positive rate
+    assertTrue(snapshot.bloomBits().length < 1300);
+    assertEquals(2, restored.size());
+    assertFalse(restored.add("https://example.com/a"));
+  }
+
+  @Test
+  void testBloom_OversizedFilterRejected() {
+    // The default sizing fits in a checkpoint, ten million URLs at 1% would not
+    SeenSetOptions defaults = new SeenSetOptions(DedupMode.BLOOM, 0, 0);
+    UrlSeenSet seen = UrlSeenSet.create(defaults);
+
+    assertTrue(seen.snapshot().encodedBytes() <= SeenSetOptions.MAX_SNAPSHOT_BYTES);
+    assertThrows(IllegalArgumentException.class, () -> SeenSetOptions.bloom(10_000_000, 0.01));
+  }
+
+  @Test
+  void testExact_ConvertedToStayWithinSnapshotCeiling() {
+    UrlSeenSet seen = UrlSeenSet.create(SeenSetOptions.exact());
+    String prefix = "https://example.com/" + "x".repeat(40) + "/page";
+
+    // Past about 15,000 such URLs the set switches to fingerprints, past about 93,000 to Bloom
+    for (int i = 0; i < 20_000; i++) {
+      assertTrue(seen.add(prefix + i));
+    }
+    DedupMode afterExactCeiling = seen.snapshot().mode();
+    for (int i = 20_000; i < 120_000; i++) {
+      seen.add(prefix + i);
+    }
+    SeenSetSnapshot snapshot = seen.snapshot();
+    UrlSeenSet restored = UrlSeenSet.restore(snapshot, SeenSetOptions.exact());
+
+    assertEquals(DedupMode.FINGERPRINT, afterExactCeiling);
+    assertEquals(DedupMode.BLOOM, snapshot.mode());
+    assertTrue(snapshot.encodedBytes() <= SeenSetOptions.MAX_SNAPSHOT_BYTES);
+    assertTrue(seen.urls().isEmpty());
+    for (int i = 0; i < 120_000; i += 997) {
+      assertTrue(restored.contains(prefix + i), "Lost " + i);
+    }
+  }
+
+  @Test
+  void testExact_SnapshotRoundTrip() {
+    UrlSeenSet seen = UrlSeenSet.create(SeenSetOptions.exact());
+    seen.add("https://example.com/a");
+
+    UrlSeenSet restored = UrlSeenSet.restore(seen.snapshot(), SeenSetOptions.exact());
+
+    assertEquals(1, restored.size());
+    assertFalse(restored.add("https://example.com/a"));
+    assertTrue(restored.urls().contains("https://example.com/a"));
+  }
+
+  @Test
+  void testFingerprint_IsDeterministic() {
+    assertEquals(
+        UrlSeenSet.fingerprint("https://example.com/"),
+        UrlSeenSet.fingerprint("https://example.com/"));
+    assertFalse(
+        UrlSeenSet.fingerprint("https://example.com/a")
+            == UrlSeenSet.fingerprint("https://example.com/b"));
+  }
+
+  @Test
+  void testExact_UrlRangesInInsertionOrder() {
+    UrlSeenSet seen = UrlSeenSet.create(SeenSetOptions.exact());
+    seen.add("https://example.com/c");
+    seen.add("https://example.com/a");
+    seen.add("https://example.com/c");
+    seen.add("https://example.com/b");
+
+    UrlSeenSet restored = UrlSeenSet.restore(seen.snapshot(), SeenSetOptions.exact());
+
+    assertEquals(List.of("https://example.com/c", "https://example.com/a"), seen.urls(0, 2));
+    assertEquals(List.of("https://example.com/b"), restored.urls(2, 2));
+    assertTrue(restored.urls(3, 2).isEmpty());
+    assertTrue(UrlSeenSet.create(SeenSetOptions.fingerprints()).urls(0, 10).isEmpty());
+  }
+}
@@ -0,0 +1,68 @@
+package com.example.temporal.workflows.crawler;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.net.URI;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+/** Unit tests for ValidatorStore. */
+class ValidatorStoreTest {
+
+  private static HttpHeaders headers(Map<String, List<String>> values) {
+    return HttpHeaders.of(values, (name, value) -> true);
+  }
+
+  @Test
+  void testRecord_KeepsPagesWithValidators() {
+    // Arrange
+    ValidatorStore store = new ValidatorStore(10);
+
+    // Act
+    store.record(
+        "https://a.example/1",
+        "https://a.example/1/",
+        List.of("/x"),
+        headers(Map.of("ETag", List.of("\"v1\""))));
+    store.record("https://a.example/2", "https://a.example/2", List.of("/y"), headers(Map.of()));
+
+    // Assert
+    ValidatorStore.Page page = store.get("https://a.example/1");
+    assertEquals("https://a.example/1/", page.url());
+    assertEquals(List.of("/x"), page.hrefs());
+    assertNull(store.get("https://a.example/2"));
+
+    HttpRequest request =
+        page.addConditions(HttpRequest.newBuilder(URI.create("https://a.example/1"))).build();
+    assertEquals("\"v1\"", request.headers().firstValue("If-None-Match").orElseThrow());
+    assertFalse(request.headers().firstValue("If-Modified-Since").isPresent());
+
+    // A later fetch without validators drops the page
+    store.record("https://a.example/1", "https://a.example/1/", List.of(), headers(Map.of()));
+    assertNull(store.get("https://a.example/1"));
+  }
+
+  @Test
+  void testRecord_EvictsLeastRecentlyUsed() {
+    // Arrange
+    ValidatorStore store = new ValidatorStore(2);
+    HttpHeaders validators =
+        headers(Map.of("Last-Modified", List.of("Wed, 21 Oct 2015 07:28:00 GMT")));
+
+    // Act
+    store.record("https://a.example/1", "https://a.example/1", List.of(), validators);
+    store.record("https://a.example/2", "https://a.example/2", List.of(), validators);
+    store.get("https://a.example/1");
+    store.record("https://a.example/3", "https://a.example/3", List.of(), validators);
+
+    // Assert
+    assertEquals(2, store.size());
+    assertNull(store.get("https://a.example/2"));
+    assertEquals("Wed, 21 Oct 2015 07:28:00 GMT", store.get("https://a.example/1").lastModified());
+  }
+}
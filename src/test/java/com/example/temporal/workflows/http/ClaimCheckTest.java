@@ -0,0 +1,60 @@
+package com.example.temporal.workflows.http;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import com.example.temporal.common.FileSystemBlobStore;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.client.MockClientHttpResponse;
+
+/** Unit tests for ClaimCheck. */
+class ClaimCheckTest {
+
+  @TempDir Path root;
+
+  @Test
+  void testRead_SmallBodyReturnedInline() throws Exception {
+    // Arrange
+    ClaimCheck claimCheck = new ClaimCheck(new FileSystemBlobStore(root), 16);
+    MockClientHttpResponse response =
+        new MockClientHttpResponse("short".getBytes(StandardCharsets.UTF_8), HttpStatus.OK);
+
+    // Act
+    HttpGetActivityOutput output = claimCheck.read(response);
+
+    // Assert
+    assertEquals("short", output.responseText());
+    assertEquals(200, output.statusCode());
+    assertNull(output.body());
+  }
+
+  @Test
+  void testRead_LargeBodyStoredByReference() throws Exception {
+    // Arrange
+    FileSystemBlobStore store = new FileSystemBlobStore(root);
+    ClaimCheck claimCheck = new ClaimCheck(store, 16);
+    byte[] content = "a body longer than sixteen bytes".getBytes(StandardCharsets.UTF_8);
+    MockClientHttpResponse response = new MockClientHttpResponse(content, HttpStatus.OK);
+    response.getHeaders().setContentType(MediaType.TEXT_PLAIN);
+
+    // Act
+    HttpGetActivityOutput output = claimCheck.read(response);
+
+    // Assert - the whole body, including the bytes read to detect its size, is in the store
+    assertEquals("", output.responseText());
+    assertNotNull(output.body());
+    assertEquals(content.length, output.body().sizeBytes());
+    assertEquals("text/plain", output.body().contentType());
+    try (InputStream in = store.open(output.body())) {
+      assertArrayEquals(content, in.readAllBytes());
+    }
+  }
+}
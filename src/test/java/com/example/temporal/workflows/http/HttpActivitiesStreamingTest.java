@@ -0,0 +1,119 @@
+package com.example.temporal.workflows.http;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.RestTemplate;
+
+/**
+ * Tests for the streaming response modes of HttpActivitiesImpl.
+ *
+ * <p>These go through a real RestTemplate to a local JDK HTTP server, so that its error handling
+ * and the request methods on the wire are exercised.
+ */
+class HttpActivitiesStreamingTest {
+
+  private final List<String> methods = new CopyOnWriteArrayList<>();
+  private HttpActivitiesImpl activities;
+  private HttpServer server;
+  private String baseUrl;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    activities = new HttpActivitiesImpl(new RestTemplate());
+    server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+    server.start();
+    baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+  }
+
+  @AfterEach
+  void tearDown() {
+    server.stop(0);
+  }
+
+  /**
+   * Serves a fixed response on the local test server and records the request methods.
+   *
+   * @param path The path to serve
+   * @param status The HTTP status code to return
+   * @param headStatus The HTTP status code to return for HEAD requests
+   * @param body The response body of GET requests
+   */
+  private void serve(String path, int status, int headStatus, String body) {
+    byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+    server.createContext(
+        path,
+        exchange -> {
+          methods.add(exchange.getRequestMethod());
+          exchange.getResponseHeaders().add("X-Version", "7");
+          if (exchange.getRequestMethod().equals("HEAD")) {
+            exchange.sendResponseHeaders(headStatus, -1);
+            exchange.close();
+            return;
+          }
+          exchange.sendResponseHeaders(status, bytes.length);
+          try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+          }
+        });
+  }
+
+  @Test
+  void testHttpGet_DigestModeReturnsErrorStatus() {
+    // Arrange
+    serve("/down", 503, 503, "abc");
+    HttpGetActivityInput input =
+        new HttpGetActivityInput(baseUrl + "/down").withMode(ResponseMode.DIGEST);
+
+    // Act
+    HttpGetActivityOutput output = activities.httpGet(input);
+
+    // Assert - the 503 is a result, with its body hashed from the stream
+    assertEquals(503, output.statusCode());
+    assertEquals(
+        "ba7816bf8f01cfea414140de5dae2223b00361a396177a9cb410ff61f20015ad", output.sha256());
+    assertEquals(3, output.contentLength());
+    assertEquals(List.of("GET"), methods);
+  }
+
+  @Test
+  void testHttpGet_StatusOnlySentAsHead() {
+    // Arrange
+    serve("/missing", 404, 404, "not found");
+    HttpGetActivityInput input =
+        new HttpGetActivityInput(baseUrl + "/missing").withMode(ResponseMode.STATUS_ONLY);
+
+    // Act
+    HttpGetActivityOutput output = activities.httpGet(input);
+
+    // Assert
+    assertEquals(404, output.statusCode());
+    assertEquals("", output.responseText());
+    assertEquals(List.of("HEAD"), methods);
+  }
+
+  @Test
+  void testHttpGet_HeadersOnlyFallsBackToGet() {
+    // Arrange
+    serve("/legacy", 200, 405, "legacy");
+    HttpGetActivityInput input =
+        new HttpGetActivityInput(baseUrl + "/legacy").withMode(ResponseMode.HEADERS_ONLY);
+
+    // Act
+    HttpGetActivityOutput output = activities.httpGet(input);
+
+    // Assert
+    assertEquals(200, output.statusCode());
+    assertEquals(List.of("7"), output.headers().get("x-version"));
+    assertEquals(List.of("HEAD", "GET"), methods);
+  }
+}
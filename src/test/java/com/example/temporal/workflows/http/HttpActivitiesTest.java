@@ -3,14 +3,28 @@ package com.example.temporal.workflows.http;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
@@ -37,9 +51,10 @@ class HttpActivitiesTest {
     // Arrange
     String url = "https://example.com";
     String responseBody = "<html><body>Hello World</body></html>";
-    ResponseEntity<String> responseEntity = new ResponseEntity<>(responseBody, HttpStatus.OK);
+    ResponseEntity<byte[]> responseEntity =
+        new ResponseEntity<>(responseBody.getBytes(StandardCharsets.UTF_8), HttpStatus.OK);
 
-    when(restTemplate.getForEntity(url, String.class)).thenReturn(responseEntity);
+    when(restTemplate.getForEntity(url, byte[].class)).thenReturn(responseEntity);
 
     // Act
     HttpGetActivityInput input = new HttpGetActivityInput(url);
@@ -51,13 +66,32 @@ class HttpActivitiesTest {
     assertEquals(200, output.statusCode());
   }
 
+  @Test
+  void testHttpGet_BodyWithoutCharsetDecodedAsUtf8() {
+    // Arrange
+    String url = "https://example.com/menu";
+    String responseBody = "Crème brûlée – 7 €";
+    HttpHeaders headers = new HttpHeaders();
+    headers.setContentType(MediaType.TEXT_HTML);
+    when(restTemplate.getForEntity(url, byte[].class))
+        .thenReturn(
+            new ResponseEntity<>(
+                responseBody.getBytes(StandardCharsets.UTF_8), headers, HttpStatus.OK));
+
+    // Act
+    HttpGetActivityOutput output = activities.httpGet(new HttpGetActivityInput(url));
+
+    // Assert - decoded as the claim-check path would, not as ISO-8859-1
+    assertEquals(responseBody, output.responseText());
+  }
+
   @Test
   void testHttpGet_EmptyResponse() {
     // Arrange
     String url = "https://example.com";
-    ResponseEntity<String> responseEntity = new ResponseEntity<>((String) null, HttpStatus.OK);
+    ResponseEntity<byte[]> responseEntity = new ResponseEntity<>((byte[]) null, HttpStatus.OK);
 
-    when(restTemplate.getForEntity(url, String.class)).thenReturn(responseEntity);
+    when(restTemplate.getForEntity(url, byte[].class)).thenReturn(responseEntity);
 
     // Act
     HttpGetActivityInput input = new HttpGetActivityInput(url);
@@ -74,10 +108,10 @@ class HttpActivitiesTest {
     // Arrange
     String url = "https://example.com";
     String responseBody = "Not Found";
-    ResponseEntity<String> responseEntity =
-        new ResponseEntity<>(responseBody, HttpStatus.NOT_FOUND);
+    ResponseEntity<byte[]> responseEntity =
+        new ResponseEntity<>(responseBody.getBytes(StandardCharsets.UTF_8), HttpStatus.NOT_FOUND);
 
-    when(restTemplate.getForEntity(url, String.class)).thenReturn(responseEntity);
+    when(restTemplate.getForEntity(url, byte[].class)).thenReturn(responseEntity);
 
     // Act
     HttpGetActivityInput input = new HttpGetActivityInput(url);
@@ -89,11 +123,81 @@ class HttpActivitiesTest {
     assertEquals(404, output.statusCode());
   }
 
+  @Test
+  void testHttpGet_ServedFromResponseCacheForAnySpelling() {
+    // Arrange
+    String url = "https://example.com/status";
+    HttpHeaders headers = new HttpHeaders();
+    headers.setCacheControl("max-age=60");
+    when(restTemplate.getForEntity(url, byte[].class))
+        .thenReturn(
+            new ResponseEntity<>("ok".getBytes(StandardCharsets.UTF_8), headers, HttpStatus.OK));
+    ResponseCache cache = new ResponseCache(ResponseCacheSettings.defaults());
+    HttpActivitiesImpl cachingActivities = new HttpActivitiesImpl(restTemplate, cache);
+
+    // Act
+    HttpGetActivityOutput first = cachingActivities.httpGet(new HttpGetActivityInput(url));
+    HttpGetActivityOutput second =
+        cachingActivities.httpGet(new HttpGetActivityInput("HTTPS://Example.COM:443/status#top"));
+
+    // Assert - the second spelling is a hit on the entry the first one stored
+    assertEquals(first, second);
+    verify(restTemplate, times(1)).getForEntity(url, byte[].class);
+    assertEquals(1, cache.stats().hits());
+    assertEquals(1, cache.stats().misses());
+  }
+
+  @Test
+  void testHttpGet_ConcurrentSpellingsOfOneUrlCoalesced() throws Exception {
+    // Arrange - the request blocks inside the stub until every follower has joined it
+    String url = "https://example.com/slow";
+    CountDownLatch started = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    AtomicInteger requests = new AtomicInteger();
+    when(restTemplate.getForEntity(url, byte[].class))
+        .thenAnswer(
+            invocation -> {
+              requests.incrementAndGet();
+              started.countDown();
+              assertTrue(release.await(5, TimeUnit.SECONDS));
+              return new ResponseEntity<>("shared".getBytes(StandardCharsets.UTF_8), HttpStatus.OK);
+            });
+    List<String> spellings =
+        List.of(url, "HTTPS://Example.COM:443/slow#f", "https://example.com/a/../slow");
+    ExecutorService executor = Executors.newFixedThreadPool(spellings.size() + 1);
+
+    try {
+      // Act
+      Future<HttpGetActivityOutput> leader =
+          executor.submit(() -> activities.httpGet(new HttpGetActivityInput(url)));
+      assertTrue(started.await(5, TimeUnit.SECONDS));
+      List<Future<HttpGetActivityOutput>> followers = new ArrayList<>();
+      for (String spelling : spellings) {
+        followers.add(
+            executor.submit(() -> activities.httpGet(new HttpGetActivityInput(spelling))));
+      }
+      while (activities.coalescedRequests() < spellings.size()) {
+        Thread.onSpinWait();
+      }
+      release.countDown();
+
+      // Assert - only the leader ever reaches the network
+      assertEquals("shared", leader.get(5, TimeUnit.SECONDS).responseText());
+      for (Future<HttpGetActivityOutput> follower : followers) {
+        assertEquals("shared", follower.get(5, TimeUnit.SECONDS).responseText());
+      }
+      assertEquals(1, requests.get());
+      verify(restTemplate, times(1)).getForEntity(url, byte[].class);
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
   @Test
   void testHttpGet_NetworkError() {
     // Arrange
     String url = "https://invalid-url.com";
-    when(restTemplate.getForEntity(url, String.class))
+    when(restTemplate.getForEntity(url, byte[].class))
         .thenThrow(new RestClientException("Connection refused"));
 
     // Act & Assert
@@ -0,0 +1,120 @@
+package com.example.temporal.workflows.http;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.uber.m3.tally.Gauge;
+import com.uber.m3.tally.Scope;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+
+/** Unit tests for ResponseCache. */
+class ResponseCacheTest {
+
+  private final AtomicLong now = new AtomicLong(1_000_000);
+
+  private static HttpHeaders cacheControl(String value) {
+    HttpHeaders headers = new HttpHeaders();
+    headers.setCacheControl(value);
+    return headers;
+  }
+
+  private static HttpGetActivityOutput ok(String body) {
+    return new HttpGetActivityOutput(body, 200);
+  }
+
+  @Test
+  void testTtlMillis_HeadersClampedToFloorAndCeiling() {
+    // Arrange
+    ResponseCache cache = new ResponseCache(new ResponseCacheSettings(0, 0, 5, 60), now::get);
+    HttpHeaders expires = new HttpHeaders();
+    expires.setDate(now.get());
+    expires.setExpires(now.get() + 30_000);
+
+    // Act & Assert
+    assertEquals(30_000, cache.ttlMillis(cacheControl("public, max-age=30"), now.get()));
+    assertEquals(20_000, cache.ttlMillis(cacheControl("max-age=30, s-maxage=20"), now.get()));
+    assertEquals(60_000, cache.ttlMillis(cacheControl("max-age=86400"), now.get()));
+    assertEquals(5_000, cache.ttlMillis(cacheControl("max-age=0"), now.get()));
+    assertEquals(5_000, cache.ttlMillis(new HttpHeaders(), now.get()));
+    assertEquals(30_000, cache.ttlMillis(expires, now.get()));
+    assertEquals(0, cache.ttlMillis(cacheControl("no-store"), now.get()));
+    assertEquals(0, cache.ttlMillis(cacheControl("private, max-age=30"), now.get()));
+  }
+
+  @Test
+  void testGet_ExpiresAndCountsHitsAndMisses() {
+    // Arrange
+    ResponseCache cache = new ResponseCache(ResponseCacheSettings.defaults(), now::get);
+    HttpGetActivityOutput output = ok("body");
+
+    // Act
+    assertNull(cache.get("https://a.example/"));
+    cache.put("https://a.example/", output, cacheControl("max-age=10"));
+    HttpGetActivityOutput hit = cache.get("https://a.example/");
+    now.addAndGet(10_000);
+    HttpGetActivityOutput expired = cache.get("https://a.example/");
+
+    // Assert
+    assertSame(output, hit);
+    assertNull(expired);
+    ResponseCacheStats stats = cache.stats();
+    assertEquals(1, stats.hits());
+    assertEquals(2, stats.misses());
+    assertEquals(0, stats.entries());
+    assertEquals(0, stats.bytes());
+  }
+
+  @Test
+  void testPut_EvictsLeastRecentlyUsedWithinBounds() {
+    // Arrange - each entry is 2 * (19 + 10) = 58 bytes
+    ResponseCache cache = new ResponseCache(new ResponseCacheSettings(3, 120, 0, 0), now::get);
+    HttpHeaders fresh = cacheControl("max-age=60");
+
+    // Act
+    cache.put("https://a.example/1", ok("0123456789"), fresh);
+    cache.put("https://a.example/2", ok("0123456789"), fresh);
+    cache.get("https://a.example/1");
+    cache.put("https://a.example/3", ok("0123456789"), fresh);
+    cache.put("https://a.example/4", ok("x".repeat(100)), fresh);
+    cache.put("https://a.example/5", new HttpGetActivityOutput("missing", 404), fresh);
+
+    // Assert - the byte bound evicts the least recently used entry, oversized ones are skipped
+    assertNull(cache.get("https://a.example/2"));
+    assertEquals("0123456789", cache.get("https://a.example/1").responseText());
+    assertEquals("0123456789", cache.get("https://a.example/3").responseText());
+    assertNull(cache.get("https://a.example/4"));
+    assertNull(cache.get("https://a.example/5"));
+    ResponseCacheStats stats = cache.stats();
+    assertEquals(1, stats.evictions());
+    assertEquals(2, stats.entries());
+    assertEquals(116, stats.bytes());
+  }
+
+  @Test
+  void testStatsPublish_UpdatesGauges() {
+    // Arrange
+    ResponseCacheStats stats = new ResponseCacheStats(3, 1, 2, 5, 4096);
+    Scope scope = mock(Scope.class);
+    Gauge hits = mock(Gauge.class);
+    Gauge hitRatio = mock(Gauge.class);
+    when(scope.gauge("http_response_cache_hits")).thenReturn(hits);
+    when(scope.gauge("http_response_cache_hit_ratio")).thenReturn(hitRatio);
+    when(scope.gauge("http_response_cache_misses")).thenReturn(mock(Gauge.class));
+    when(scope.gauge("http_response_cache_evictions")).thenReturn(mock(Gauge.class));
+    when(scope.gauge("http_response_cache_entries")).thenReturn(mock(Gauge.class));
+    when(scope.gauge("http_response_cache_bytes")).thenReturn(mock(Gauge.class));
+
+    // Act
+    stats.publish(scope);
+
+    // Assert
+    verify(hits).update(3);
+    verify(hitRatio).update(0.75);
+  }
+}
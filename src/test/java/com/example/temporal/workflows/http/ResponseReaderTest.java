@@ -0,0 +1,78 @@
+package com.example.temporal.workflows.http;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.client.MockClientHttpResponse;
+
+/** Unit tests for ResponseReader. */
+class ResponseReaderTest {
+
+  private static MockClientHttpResponse response(String body) {
+    MockClientHttpResponse response =
+        new MockClientHttpResponse(body.getBytes(StandardCharsets.UTF_8), HttpStatus.OK);
+    response.getHeaders().add("ETag", "\"v1\"");
+    return response;
+  }
+
+  @Test
+  void testRead_StatusOnlyLeavesBodyUnread() throws Exception {
+    // Arrange
+    MockClientHttpResponse response = response("body");
+
+    // Act
+    HttpGetActivityOutput output = ResponseReader.read(response, ResponseMode.STATUS_ONLY, 16);
+
+    // Assert
+    assertEquals(200, output.statusCode());
+    assertEquals("", output.responseText());
+    assertTrue(output.headers().isEmpty());
+    assertEquals(4, response.getBody().available());
+  }
+
+  @Test
+  void testRead_HeadersOnlyReturnsLowercaseNames() throws Exception {
+    // Act
+    HttpGetActivityOutput output =
+        ResponseReader.read(response("body"), ResponseMode.HEADERS_ONLY, 16);
+
+    // Assert
+    assertEquals(List.of("\"v1\""), output.headers().get("etag"));
+    assertNull(output.sha256());
+    assertEquals(-1, output.contentLength());
+  }
+
+  @Test
+  void testRead_DigestHashesWholeBody() throws Exception {
+    // Arrange - a body spanning several buffer fills
+    String body = "x".repeat(20_000);
+
+    // Act
+    HttpGetActivityOutput output = ResponseReader.read(response(body), ResponseMode.DIGEST, 16);
+
+    // Assert
+    assertEquals(20_000, output.contentLength());
+    assertEquals(
+        "42e8bc96b8eec8c4e5d503483ba0cb843ce95243c8ca8575ffc69cd25d12c61c", output.sha256());
+    assertEquals("", output.responseText());
+  }
+
+  @Test
+  void testRead_PreviewReturnsFirstBytes() throws Exception {
+    // Act
+    HttpGetActivityOutput truncated =
+        ResponseReader.read(response("0123456789"), ResponseMode.PREVIEW, 4);
+    HttpGetActivityOutput whole = ResponseReader.read(response("0123"), ResponseMode.PREVIEW, 4);
+
+    // Assert - the length is only known when the preview covers the whole body
+    assertEquals("0123", truncated.responseText());
+    assertEquals(-1, truncated.contentLength());
+    assertEquals("0123", whole.responseText());
+    assertEquals(4, whole.contentLength());
+  }
+}